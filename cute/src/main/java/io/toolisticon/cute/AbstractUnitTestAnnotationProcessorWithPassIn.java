@@ -1,12 +1,8 @@
 package io.toolisticon.cute;
 
 import javax.lang.model.element.Element;
-import javax.lang.model.element.ElementKind;
-import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
-import javax.lang.model.element.VariableElement;
 import java.lang.annotation.Annotation;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,6 +21,11 @@ abstract class AbstractUnitTestAnnotationProcessorWithPassIn extends AbstractUni
      */
     private final Class<? extends Annotation> annotationTypeUsedForScan;
 
+    /**
+     * Index of passed in element candidates - is created once per processor instance and therefore once per compilation.
+     */
+    private List<Element> passInCandidates;
+
     AbstractUnitTestAnnotationProcessorWithPassIn(Class<? extends Annotation> annotationTypeToUse, Class<?> classToScan, Class<? extends Annotation> annotationTypeUsedForScan) {
         super(annotationTypeToUse);
 
@@ -39,10 +40,7 @@ abstract class AbstractUnitTestAnnotationProcessorWithPassIn extends AbstractUni
      */
     protected Element getPassedInElement() {
 
-        TypeElement element = processingEnv.getElementUtils().getTypeElement(classToScan.getCanonicalName());
-
-        List<Element> allEnclosedElements = getAllSubElements(element);
-        List<Element> filteredElements = filterByAnnotation(allEnclosedElements);
+        List<Element> filteredElements = getPassInCandidates();
 
         if (filteredElements.size() != 1) {
 
@@ -54,50 +52,31 @@ abstract class AbstractUnitTestAnnotationProcessorWithPassIn extends AbstractUni
 
     }
 
-
     /**
-     * Creates a list of all enclosed elements of class
+     * Gets the maximal number of passed in element candidates to look up.
+     * Defaults to two, since the second match already proves that passed in element is ambiguous.
      *
-     * @param elementToScan the element to scan
-     * @return a list containing all sub-elements and the passed in element
+     * @return the number of matches after which scanning stops
      */
-    protected List<Element> getAllSubElements(Element elementToScan) {
-        List<Element> result = new ArrayList<>();
-
-        if (elementToScan != null) {
-            result.add(elementToScan);
-
-            if (elementToScan.getKind() == ElementKind.CONSTRUCTOR || elementToScan.getKind() == ElementKind.METHOD) {
-                for (VariableElement parameters : ((ExecutableElement) elementToScan).getParameters()) {
-                    result.add(parameters);
-                }
-            }
-
-            for (Element enclosedElement : elementToScan.getEnclosedElements()) {
-                result.addAll(getAllSubElements(enclosedElement));
-            }
-
-        }
-
-        return result;
+    protected int getMaxPassInCandidates() {
+        return 2;
     }
 
     /**
-     * Filters a list of elements by presence of annotationTypeUsedForScan.
+     * Gets the elements of classToScan annotated with annotationTypeUsedForScan.
+     * Scanning stops as soon as {@link #getMaxPassInCandidates()} matches have been found.
      *
-     * @param listToFilter the list to filter
-     * @return a list containing all elements annotated with annotationTypeUsedForScan
+     * @return a list containing at most {@link #getMaxPassInCandidates()} matching elements
      */
-    protected List<Element> filterByAnnotation(List<Element> listToFilter) {
-        List<Element> result = new ArrayList<>();
+    protected List<Element> getPassInCandidates() {
 
-        for (Element element : listToFilter) {
-            if (element.getAnnotation(annotationTypeUsedForScan) != null) {
-                result.add(element);
-            }
+        if (passInCandidates == null) {
+            TypeElement element = processingEnv.getElementUtils().getTypeElement(classToScan.getCanonicalName());
+            passInCandidates = new PassInElementScanner(annotationTypeUsedForScan, getMaxPassInCandidates()).scanForMatchingElements(element);
         }
 
-        return result;
+        return passInCandidates;
+
     }
 
 }
@@ -0,0 +1,70 @@
+package io.toolisticon.cute;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The time spent in the phases of the compiler, like PARSE, ENTER, ANALYZE, GENERATE and ANNOTATION_PROCESSING.
+ * <p>
+ * Phases may be nested, for example parsing of generated sources happens during annotation processing rounds.
+ * No phases are measured for compilers that aren't javac based. Times are measured in nanoseconds.
+ */
+public final class CompilationPhasesResult {
+
+    private final Map<String, Long> durations;
+
+    /**
+     * Constructor.
+     *
+     * @param durations the accumulated durations per phase in order of their first completion
+     */
+    public CompilationPhasesResult(Map<String, Long> durations) {
+        this.durations = Collections.unmodifiableMap(new LinkedHashMap<>(durations));
+    }
+
+    /**
+     * Gets all measured phases in order of their first completion.
+     *
+     * @return the measured phases
+     */
+    public Set<String> getPhases() {
+        return durations.keySet();
+    }
+
+    /**
+     * Gets the accumulated duration of a phase.
+     *
+     * @param phase the phase name, like PARSE or ANALYZE
+     * @return the duration in nanoseconds or 0 if phase hasn't been measured
+     */
+    public long getDuration(String phase) {
+        Long duration = durations.get(phase);
+        return duration != null ? duration : 0L;
+    }
+
+    /**
+     * Gets the accumulated durations of all measured phases.
+     *
+     * @return the durations in nanoseconds per phase
+     */
+    public Map<String, Long> getDurations() {
+        return durations;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder stringBuilder = new StringBuilder("CompilationPhasesResult{");
+        String separator = "\n\t ";
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            stringBuilder.append(separator).append(String.format("%s=%.3f ms", entry.getKey(), entry.getValue() / 1000000.0));
+            separator = ",\n\t ";
+        }
+
+        return stringBuilder.append("\n}").toString();
+
+    }
+
+}
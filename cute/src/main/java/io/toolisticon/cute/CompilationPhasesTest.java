@@ -0,0 +1,16 @@
+package io.toolisticon.cute;
+
+/**
+ * Interface to allow checks of the time spent in the phases of the compiler.
+ */
+public interface CompilationPhasesTest {
+
+    /**
+     * The test method.
+     *
+     * @param compilationPhasesResult the measured times of the compiler phases
+     * @throws Exception might be thrown during the test. Will lead to a failing test.
+     */
+    void doTests(CompilationPhasesResult compilationPhasesResult) throws Exception;
+
+}
@@ -11,8 +11,14 @@ import javax.tools.FileObject;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
+import java.io.File;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Compile test builder.
@@ -55,6 +61,34 @@ public class CompileTestBuilder {
     }
 
 
+    /**
+     * Configures how classes are looked up by the ClassLoader passed to {@link GeneratedClassesTest}s.
+     */
+    public enum ClassLoadingPolicy {
+        /**
+         * Classes are loaded from the parent ClassLoader if available, generated classes are used otherwise.
+         */
+        PARENT_FIRST,
+        /**
+         * Generated classes take precedence over classes of the parent ClassLoader.
+         */
+        CHILD_FIRST
+    }
+
+    /**
+     * The contracts of incremental annotation processing as defined by Gradle.
+     */
+    public enum IncrementalProcessingType {
+        /**
+         * Each generated file must have exactly one originating top level type.
+         */
+        ISOLATING,
+        /**
+         * Each generated file must have at least one originating element.
+         */
+        AGGREGATING
+    }
+
     /**
      * Abstract base builder class.
      * Contains common configurations.
@@ -505,6 +539,342 @@ public class CompileTestBuilder {
             return createNextInstance(nextConfiguration);
         }
 
+        /**
+         * Adds a check that compares all generated source and resource files with the files stored in the passed snapshot directory.
+         * Class files are excluded from the comparison.
+         * <p>
+         * Run the tests with system property {@value Constants#SYSTEM_PROPERTY_UPDATE_SNAPSHOTS} set to true to create or update the snapshot.
+         *
+         * @param snapshotDirectory the directory containing the snapshot
+         * @return the next builder instance
+         * @throws IllegalArgumentException if passed snapshotDirectory is null
+         */
+        public T expectGeneratedOutputMatchesSnapshot(File snapshotDirectory) {
+
+            if (snapshotDirectory == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("snapshotDirectory"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setSnapshotDirectory(snapshotDirectory);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Evaluates all checks of generated source, class and resource files concurrently.
+         * All failing checks will be reported together instead of stopping at the first failing check.
+         * <p>
+         * Useful for compilations that produce lots of files. All used GeneratedFileObjectMatchers must be thread safe.
+         *
+         * @return the next builder instance
+         */
+        public T evaluateGeneratedFileChecksInParallel() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setParallelGeneratedFileChecks(true);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Adds a runtime test of the generated classes.
+         * The passed test will get a ClassLoader that defines the generated classes straight from the in memory class files.
+         * Classes of the test classpath take precedence over generated classes.
+         *
+         * @param generatedClassesTest the test to execute
+         * @return the next builder instance
+         * @throws IllegalArgumentException if passed generatedClassesTest is null
+         */
+        public T expectThatGeneratedClassesPassTest(GeneratedClassesTest generatedClassesTest) {
+            return expectThatGeneratedClassesPassTest(ClassLoadingPolicy.PARENT_FIRST, generatedClassesTest);
+        }
+
+        /**
+         * Adds a runtime test of the generated classes.
+         * The passed test will get a ClassLoader that defines the generated classes straight from the in memory class files.
+         *
+         * @param classLoadingPolicy   defines if generated classes or classes of the test classpath take precedence
+         * @param generatedClassesTest the test to execute
+         * @return the next builder instance
+         * @throws IllegalArgumentException if passed classLoadingPolicy or generatedClassesTest is null
+         */
+        public T expectThatGeneratedClassesPassTest(ClassLoadingPolicy classLoadingPolicy, GeneratedClassesTest generatedClassesTest) {
+
+            if (classLoadingPolicy == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("classLoadingPolicy"));
+            }
+
+            if (generatedClassesTest == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("generatedClassesTest"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.addGeneratedClassesCheck(classLoadingPolicy, generatedClassesTest);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Evaluates all configured checks against the compilation result and reports all failing checks together.
+         * By default the test stops at the first failing check.
+         * <p>
+         * Invalid test configurations will still be reported immediately.
+         *
+         * @return the next builder instance
+         */
+        public T collectAllFailures() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setCollectAllFailures(true);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Measures the time spent in the phases of the compiler, like parsing, analysis, class file generation and annotation processing.
+         * The measured times will be part of the debug output of failing tests.
+         * <p>
+         * Measurement is only supported by javac based compilers. Isn't supported for compilations executed in a forked JVM.
+         *
+         * @return the next builder instance
+         */
+        public T measureCompilationPhases() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setMeasureCompilationPhases(true);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Measures the time spent in the phases of the compiler like {@link #measureCompilationPhases()} and passes the measured times to a test.
+         * The test is executed for passing and failing compilations, so it can also be used to collect the times.
+         * <p>
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param compilationPhasesTest the test to execute
+         * @return the next builder instance
+         * @throws IllegalArgumentException if passed compilationPhasesTest is null
+         */
+        public T measureCompilationPhases(CompilationPhasesTest compilationPhasesTest) {
+
+            if (compilationPhasesTest == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("compilationPhasesTest"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setMeasureCompilationPhases(true);
+            nextConfiguration.addCompilationPhasesTest(compilationPhasesTest);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Stops the compilation after annotation processing by using the -proc:only compiler option.
+         * Attribution, flow analysis and class file generation will be skipped, so errors in method bodies won't be reported.
+         * <p>
+         * Checks for existence of generated class files and tests of generated classes can't be used in this mode.
+         *
+         * @return the next builder instance
+         */
+        public T processorOnly() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setProcessorOnly(true);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Uses a file manager that allows processors to generate files from multiple threads.
+         * <p>
+         * Files that are opened for output more than once will cause the test to fail.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @return the next builder instance
+         */
+        public T useConcurrentFileManager() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setConcurrentFileManager(true);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Expects the processors to obey the contract of isolating incremental annotation processors.
+         * Each file generated via the Filer must have exactly one originating top level type.
+         * <p>
+         * The ProcessingEnvironment passed to the processors will be wrapped, so processors relying on javac internals of it can't be checked.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @return the next builder instance
+         */
+        public T expectIsolatingIncrementalProcessing() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setIncrementalProcessingType(IncrementalProcessingType.ISOLATING);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Expects the processors to obey the contract of aggregating incremental annotation processors.
+         * Each file generated via the Filer must have at least one originating element.
+         * <p>
+         * The ProcessingEnvironment passed to the processors will be wrapped, so processors relying on javac internals of it can't be checked.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @return the next builder instance
+         */
+        public T expectAggregatingIncrementalProcessing() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setIncrementalProcessingType(IncrementalProcessingType.AGGREGATING);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Expects annotation processing to take at most the passed number of rounds, including the final round.
+         * A processor that generates files in its first round only will lead to three rounds.
+         * <p>
+         * Independently of this check, annotation processing will be aborted after {@value Constants#DEFAULT_MAX_ROUNDS} rounds,
+         * which can be configured via system property {@value Constants#SYSTEM_PROPERTY_MAX_ROUNDS}.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param maxRounds the maximal number of rounds
+         * @return the next builder instance
+         */
+        public T expectRoundsAtMost(int maxRounds) {
+
+            if (maxRounds < 1) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_BE_POSITIVE.produceMessage("maxRounds"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setMaxRounds(maxRounds);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Counts the calls of the Elements, Types, Filer, Messager and RoundEnvironment methods by the processors and measures the time spent in them.
+         * The counted calls will be part of the debug output of failing tests.
+         * <p>
+         * The ProcessingEnvironment passed to the processors will be wrapped, so processors relying on javac internals of it can't be used.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @return the next builder instance
+         */
+        public T measureProcessingApiCalls() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setMeasureProcessingApiCalls(true);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Counts the calls of the processing api like {@link #measureProcessingApiCalls()} and passes the counted calls to a test.
+         * The test is executed for passing and failing compilations, so it can also be used to collect the counts.
+         * <p>
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param processingApiUsageTest the test to execute
+         * @return the next builder instance
+         * @throws IllegalArgumentException if passed processingApiUsageTest is null
+         */
+        public T measureProcessingApiCalls(ProcessingApiUsageTest processingApiUsageTest) {
+
+            if (processingApiUsageTest == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("processingApiUsageTest"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setMeasureProcessingApiCalls(true);
+            nextConfiguration.addProcessingApiUsageTest(processingApiUsageTest);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Expects a method of the processing api to be called at most the passed number of times by all processors.
+         * Calls will be counted like in {@link #measureProcessingApiCalls()}.
+         * <p>
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param method   the simple interface name and the method name, like "Elements.getAllMembers" or "RoundEnvironment.getElementsAnnotatedWith"
+         * @param maxCalls the maximal number of calls
+         * @return the next builder instance
+         * @throws IllegalArgumentException if passed method isn't a method of the processing api
+         */
+        public T expectAtMostCalls(String method, long maxCalls) {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.addMaxProcessingApiCalls(method, maxCalls);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Expects the compilation to produce at most the passed number of error messages.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param maxCount the maximal number of error messages
+         * @return the next builder instance
+         */
+        public T expectErrorCountAtMost(long maxCount) {
+            return expectMessageCountAtMost(Diagnostic.Kind.ERROR, maxCount);
+        }
+
+        /**
+         * Expects the compilation to produce at most the passed number of mandatory warning messages.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param maxCount the maximal number of mandatory warning messages
+         * @return the next builder instance
+         */
+        public T expectMandatoryWarningCountAtMost(long maxCount) {
+            return expectMessageCountAtMost(Diagnostic.Kind.MANDATORY_WARNING, maxCount);
+        }
+
+        /**
+         * Expects the compilation to produce at most the passed number of warning messages.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param maxCount the maximal number of warning messages
+         * @return the next builder instance
+         */
+        public T expectWarningCountAtMost(long maxCount) {
+            return expectMessageCountAtMost(Diagnostic.Kind.WARNING, maxCount);
+        }
+
+        /**
+         * Expects the compilation to produce at most the passed number of note messages.
+         * Notes used internally to check if processors have been applied aren't counted.
+         * Isn't supported for compilations executed in a forked JVM.
+         *
+         * @param maxCount the maximal number of note messages
+         * @return the next builder instance
+         */
+        public T expectNoteCountAtMost(long maxCount) {
+            return expectMessageCountAtMost(Diagnostic.Kind.NOTE, maxCount);
+        }
+
+        private T expectMessageCountAtMost(Diagnostic.Kind kind, long maxCount) {
+
+            if (maxCount < 0) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NEGATIVE.produceMessage("maxCount"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.addMaxMessageCount(kind, maxCount);
+            return createNextInstance(nextConfiguration);
+
+        }
+
         /**
          * Created the compile test configuration instance.
          *
@@ -626,6 +996,82 @@ public class CompileTestBuilder {
 
         }
 
+        /**
+         * Executes the compilation in a worker JVM instead of the test JVM.
+         * <p>
+         * Processors relying on static state are isolated from other compilation tests this way, which allows running compilation tests in parallel.
+         * Worker JVMs are started with the classpath of the test JVM and are reused by subsequent tests.
+         * The maximal number of worker JVMs can be configured via system property {@value Constants#SYSTEM_PROPERTY_FORK_COUNT}.
+         *
+         * @return the next builder instance
+         */
+        public CompilationTestBuilder executeInForkedJvm() {
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.setForkedExecution(true);
+            return createNextInstance(nextConfiguration);
+
+        }
+
+        /**
+         * Simulates an incremental recompilation after the compilation.
+         * <p>
+         * The passed sources replace the sources with the same uri or will be added. Only these sources will be compiled by the incremental compilation,
+         * sources depending on them won't be recompiled. Generated files are kept from the previous compilation, unless they have been generated from the changed sources
+         * or processors haven't passed originating elements for them.
+         * The passed test gets the regenerated, deleted and kept files and the compilation times compared to a full rebuild.
+         * <p>
+         * The ProcessingEnvironment passed to the processors will be wrapped to record the originating elements.
+         * Isn't supported for compilations executed in a forked JVM or in processor only mode.
+         *
+         * @param incrementalRecompilationTest the test of the incremental recompilation result
+         * @param changedSources               the changed sources
+         * @return the next builder instance
+         */
+        public CompilationTestBuilder expectIncrementalRecompilation(IncrementalRecompilationTest incrementalRecompilationTest, JavaFileObject... changedSources) {
+
+            return addIncrementalRecompilationCheck(incrementalRecompilationTest, changedSources, new JavaFileObject[0]);
+
+        }
+
+        /**
+         * Simulates an incremental recompilation after removing sources.
+         * <p>
+         * Sources are matched by their uri. Generated files are kept from the previous compilation, unless they have been generated from the removed sources
+         * or processors haven't passed originating elements for them.
+         * See {@link #expectIncrementalRecompilation(IncrementalRecompilationTest, JavaFileObject...)} for details.
+         *
+         * @param incrementalRecompilationTest the test of the incremental recompilation result
+         * @param removedSources               the removed sources
+         * @return the next builder instance
+         */
+        public CompilationTestBuilder expectIncrementalRecompilationAfterRemoval(IncrementalRecompilationTest incrementalRecompilationTest, JavaFileObject... removedSources) {
+
+            return addIncrementalRecompilationCheck(incrementalRecompilationTest, new JavaFileObject[0], removedSources);
+
+        }
+
+        private CompilationTestBuilder addIncrementalRecompilationCheck(IncrementalRecompilationTest incrementalRecompilationTest, JavaFileObject[] changedSources, JavaFileObject[] removedSources) {
+
+            if (incrementalRecompilationTest == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("incrementalRecompilationTest"));
+            }
+
+            List<JavaFileObject> changedSourcesList = changedSources != null ? new ArrayList<>(Arrays.asList(changedSources)) : new ArrayList<JavaFileObject>();
+            List<JavaFileObject> removedSourcesList = removedSources != null ? new ArrayList<>(Arrays.asList(removedSources)) : new ArrayList<JavaFileObject>();
+            changedSourcesList.removeAll(Collections.singleton(null));
+            removedSourcesList.removeAll(Collections.singleton(null));
+
+            if (changedSourcesList.isEmpty() && removedSourcesList.isEmpty()) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_EMPTY.produceMessage("sources"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            nextConfiguration.addIncrementalRecompilationCheck(changedSourcesList, removedSourcesList, incrementalRecompilationTest);
+            return createNextInstance(nextConfiguration);
+
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -769,6 +1215,45 @@ public class CompileTestBuilder {
             // remove existing processor
             nextConfiguration.getProcessors().clear();
             nextConfiguration.addProcessors(new UnitTestAnnotationProcessorClassWithPassIn<ELEMENT_TYPE>(classToScan, annotationToSearch != null ? annotationToSearch : PassIn.class, unitTest));
+            usePassInSourceInsteadOfDefaultSource(nextConfiguration);
+
+            return createNextInstance(nextConfiguration);
+        }
+
+        /**
+         * Allows writing of multiple unit tests that are executed in a single compilation.
+         * <p>
+         * Each unit test is bound to the element of classToScan that is annotated with {@link PassIn} with the unit tests key as id, e.g. <code>@PassIn("id")</code>.
+         * The {@link javax.annotation.processing.ProcessingEnvironment} and this element will be passed to the unit tests unitTest method.
+         * <p>
+         * All unit tests are executed. Failing unit tests are reported together, prefixed with their ids.
+         * Thus expected exceptions can't be configured via {@link #expectedThrownException(Class)}.
+         *
+         * @param classToScan the class to search elements annotated with {@link PassIn}
+         * @param unitTests   the unit tests mapped by the ids of their passed in elements
+         * @return the UnitTestBuilder instance
+         * @throws IllegalArgumentException if passed classToScan or unitTests is null or if unitTests is empty.
+         */
+        public UnitTestBuilder defineTestsWithPassedInElements(Class<?> classToScan, Map<String, UnitTest<? extends Element>> unitTests) {
+
+            if (classToScan == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("classToScan"));
+            }
+
+            if (unitTests == null) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("unitTests"));
+            }
+
+            if (unitTests.isEmpty()) {
+                throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_EMPTY.produceMessage("unitTests"));
+            }
+
+            CompileTestConfiguration nextConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+
+            // remove existing processor
+            nextConfiguration.getProcessors().clear();
+            nextConfiguration.addProcessors(new UnitTestAnnotationProcessorClassWithMultiplePassIns(classToScan, unitTests));
+            usePassInSourceInsteadOfDefaultSource(nextConfiguration);
 
             return createNextInstance(nextConfiguration);
         }
@@ -900,6 +1385,7 @@ public class CompileTestBuilder {
             // remove existing processor
             nextConfiguration.getProcessors().clear();
             nextConfiguration.addProcessors(new UnitTestAnnotationProcessorClassForTestingAnnotationProcessorsWithPassIn<>(processorUnderTest, Constants.DEFAULT_ANNOTATION, classToScan, annotationToSearch, unitTestForTestingAnnotationProcessors));
+            usePassInSourceInsteadOfDefaultSource(nextConfiguration);
 
             return createNextInstance(nextConfiguration);
         }
@@ -968,6 +1454,15 @@ public class CompileTestBuilder {
                 throw new IllegalStateException(Constants.Messages.ISE_MUST_CONFIGURE_AT_LEAST_ONE_PROCESSOR.produceMessage());
             }
 
+            // exceptions of multiple unit tests are turned into collected failures, so the expected exception would never be seen
+            if (compileTestConfiguration.getExpectedThrownException() != null) {
+                for (Processor processor : compileTestConfiguration.getProcessors()) {
+                    if (processor instanceof UnitTestAnnotationProcessorClassWithMultiplePassIns) {
+                        throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_EXPECTED_EXCEPTION_AND_MULTIPLE_PASS_IN_UNIT_TESTS.produceMessage());
+                    }
+                }
+            }
+
             super.executeTest();
 
         }
@@ -982,6 +1477,22 @@ public class CompileTestBuilder {
         }
 
 
+        /**
+         * Replaces the default source by a minimal source, since passed in elements are read from the compiled classes.
+         * Custom sources will be kept.
+         *
+         * @param compileTestConfiguration the compile test configuration to update
+         */
+        private static void usePassInSourceInsteadOfDefaultSource(CompileTestConfiguration compileTestConfiguration) {
+
+            if (compileTestConfiguration.getSourceFiles().size() == 1
+                    && compileTestConfiguration.getSourceFiles().iterator().next().toUri().equals(getDefaultSource().toUri())) {
+                compileTestConfiguration.getSourceFiles().clear();
+                compileTestConfiguration.addSourceFiles(JavaFileObjectUtils.readFromResource(Constants.PASS_IN_UNIT_TEST_SOURCE_FILE));
+            }
+
+        }
+
         /**
          * Returns the default Source file object.
          *
@@ -9,6 +9,75 @@ public final class Constants {
 
     public final static Class<? extends Annotation> DEFAULT_ANNOTATION = TestAnnotation.class;
     public final static String DEFAULT_UNIT_TEST_SOURCE_FILE = "/AnnotationProcessorUnitTestClass.java";
+    public final static String PASS_IN_UNIT_TEST_SOURCE_FILE = "/PassInUnitTestClass.java";
+
+    /**
+     * System property to switch snapshot checks into update mode.
+     * Snapshots will be overwritten by the generated files instead of being compared.
+     */
+    public final static String SYSTEM_PROPERTY_UPDATE_SNAPSHOTS = "cute.updateSnapshots";
+
+    /**
+     * System property to configure the maximal number of worker JVMs used for forked compilation tests.
+     * Defaults to the number of available processors.
+     */
+    public final static String SYSTEM_PROPERTY_FORK_COUNT = "cute.forkCount";
+
+    /**
+     * System property to configure the time in seconds after which a forked compilation is aborted by terminating its worker JVM.
+     * Defaults to {@value #DEFAULT_FORK_TIMEOUT}.
+     */
+    public final static String SYSTEM_PROPERTY_FORK_TIMEOUT = "cute.forkTimeout";
+
+    public final static int DEFAULT_FORK_TIMEOUT = 300;
+
+    /**
+     * System property to disable the reuse of StandardJavaFileManagers between compilations by setting it to false.
+     * File managers are reused by default.
+     */
+    public final static String SYSTEM_PROPERTY_REUSE_FILE_MANAGER = "cute.reuseFileManager";
+
+    /**
+     * System property to configure the size in bytes from which on generated files are kept compressed in memory.
+     * Defaults to 64 KB.
+     */
+    public final static String SYSTEM_PROPERTY_COMPRESS_THRESHOLD = "cute.compressThreshold";
+
+    /**
+     * System property to configure the size in bytes from which on generated files are written to a temporary file in the build folder.
+     * Defaults to 8 MB.
+     */
+    public final static String SYSTEM_PROPERTY_SPILL_THRESHOLD = "cute.spillThreshold";
+
+    /**
+     * System property to configure the maximal number of annotation processing rounds after which a compilation is aborted.
+     * Defaults to {@value #DEFAULT_MAX_ROUNDS}.
+     */
+    public final static String SYSTEM_PROPERTY_MAX_ROUNDS = "cute.maxRounds";
+
+    public final static int DEFAULT_MAX_ROUNDS = 100;
+
+    /**
+     * System property to configure the maximal number of diagnostics per kind that are retained for the debug output.
+     * Diagnostics needed by configured message checks are always retained. Defaults to {@value #DEFAULT_MAX_RETAINED_DIAGNOSTICS}.
+     */
+    public final static String SYSTEM_PROPERTY_MAX_RETAINED_DIAGNOSTICS = "cute.maxRetainedDiagnostics";
+
+    public final static int DEFAULT_MAX_RETAINED_DIAGNOSTICS = 100;
+
+    /**
+     * System property to enable the profiling of all compile tests of the test JVM.
+     * A summary of the slowest tests is printed to System.err on shutdown of the test JVM if set to true, or is written to the file denoted by the value otherwise.
+     */
+    public final static String SYSTEM_PROPERTY_PROFILE_TESTS = "cute.profileTests";
+
+    /**
+     * System property to configure the number of slowest tests listed by the profiling summary.
+     * Defaults to {@value #DEFAULT_SLOWEST_TEST_COUNT}.
+     */
+    public final static String SYSTEM_PROPERTY_SLOWEST_TEST_COUNT = "cute.slowestTestCount";
+
+    public final static int DEFAULT_SLOWEST_TEST_COUNT = 20;
 
 
     public static final class Messages {
@@ -39,6 +108,8 @@ public final class Constants {
 
 
         public final static Message UNIT_TEST_PASS_IN_PRECONDITION_MUST_FIND_EXACTLY_ONE_ELEMENT = new Message("PRECONDITION: Expected to find exactly one element annotated with %s in passed in class %s");
+        public final static Message UNIT_TEST_PASS_IN_PRECONDITION_MUST_FIND_EXACTLY_ONE_ELEMENT_WITH_ID = new Message("PRECONDITION: Expected to find exactly one element annotated with " + PassIn.class.getName() + " with id '%s' in passed in class %s");
+        public final static Message UNIT_TEST_PASS_IN_UNIT_TESTS_FAILED = new Message("%d of %d unit tests with passed in elements failed:\n%s");
 
 
         public final static Message ASSERTION_GOT_UNEXPECTED_EXCEPTION_INSTEAD_OF_EXPECTED = new Message("Expected exception of type '%s' but exception of type '%s%s' was thrown instead.");
@@ -49,7 +120,24 @@ public final class Constants {
 
         // Compile test messages
         public final static Message MESSAGE_COMPILATION_SHOULD_SUCCEED_AND_ERROR_MESSAGE_EXPECTED = new Message("Test configuration error : Compilation should succeed but error messages is expected too !!!");
+        public final static Message MESSAGE_PROCESSOR_ONLY_AND_CLASS_CHECK = new Message("Test configuration error : Class files aren't generated in processor only mode, so they can't be checked or tested !!!");
+        public final static Message MESSAGE_INCREMENTAL_PROCESSING_AND_FORKED_EXECUTION = new Message("Test configuration error : Incremental annotation processing contracts can't be checked for compilations executed in a forked JVM !!!");
+        public final static Message MESSAGE_INCREMENTAL_RECOMPILATION_NOT_SUPPORTED = new Message("Test configuration error : Incremental recompilation can't be simulated for compilations executed in a forked JVM or in processor only mode !!!");
+        public final static Message MESSAGE_CONCURRENT_FILE_MANAGER_AND_FORKED_EXECUTION = new Message("Test configuration error : The concurrent file manager can't be used for compilations executed in a forked JVM !!!");
+        public final static Message MESSAGE_EXPECTED_EXCEPTION_AND_MULTIPLE_PASS_IN_UNIT_TESTS = new Message("Test configuration error : Expected exceptions can't be checked for multiple unit tests with passed in elements, since failures of all unit tests are collected !!!");
+        public final static Message MESSAGE_ROUND_TRACE_AND_FORKED_EXECUTION = new Message("Test configuration error : Annotation processing rounds can't be checked for compilations executed in a forked JVM !!!");
+        public final static Message MESSAGE_MAXIMAL_NUMBER_OF_ROUNDS_EXCEEDED = new Message("Annotation processing has been aborted after %d rounds (configurable via -D" + SYSTEM_PROPERTY_MAX_ROUNDS + "). Processors may generate files in every round:\n%s");
+        public final static Message MESSAGE_TOO_MANY_ROUNDS = new Message("Annotation processing took %d rounds, but at most %d rounds have been expected:\n%s");
+        public final static Message MESSAGE_COMPILATION_PHASES_AND_FORKED_EXECUTION = new Message("Test configuration error : Compiler phases can't be measured for compilations executed in a forked JVM !!!");
+        public final static Message MESSAGE_PROCESSING_API_CALLS_AND_FORKED_EXECUTION = new Message("Test configuration error : Calls of the processing api can't be measured or checked for compilations executed in a forked JVM !!!");
+        public final static Message MESSAGE_TOO_MANY_PROCESSING_API_CALLS = new Message("%s has been called %d times, but at most %d calls have been expected");
+        public final static Message MESSAGE_MESSAGE_COUNTS_AND_FORKED_EXECUTION = new Message("Test configuration error : Numbers of compiler messages can't be checked for compilations executed in a forked JVM !!!");
+        public final static Message MESSAGE_TOO_MANY_MESSAGES = new Message("Compilation produced %d messages of kind %s, but at most %d messages have been expected");
+        public final static Message MESSAGE_FILES_WRITTEN_MORE_THAN_ONCE = new Message("Generated files have been opened for output more than once : %s");
+        public final static Message MESSAGE_ISOLATING_PROCESSING_CONTRACT_VIOLATED = new Message("Isolating processors must pass exactly one originating top level type for each generated file, but got : %s");
+        public final static Message MESSAGE_AGGREGATING_PROCESSING_CONTRACT_VIOLATED = new Message("Aggregating processors must pass at least one originating element for each generated file, but got none for : %s");
         public final static Message MESSAGE_COMPILATION_SHOULD_HAVE_SUCCEEDED_BUT_FAILED = new Message("Compilation should have succeeded but failed");
+        public final static Message MESSAGE_DIAGNOSTICS_NOT_RETAINED = new Message("... %d further messages haven't been retained (configurable via -D%s)");
         public final static Message MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED = new Message("Compilation should have failed but succeeded");
 
         public final static Message MESSAGE_JFO_DOESNT_EXIST = new Message("Expected generated JavaFileObject (%s) doesn't exist.");
@@ -67,11 +155,24 @@ public final class Constants {
         public final static Message MESSAGE_PROCESSOR_HASNT_BEEN_APPLIED = new Message("Annotation processor %s hasn't been called! Please check that there's at least one source file using an annotation supported by the processor: %s");
         public final static Message MESSAGE_HAVENT_FOUND_MESSSAGE = new Message("Haven't found expected message string '%s' of kind %s!");
 
+        public final static Message MESSAGE_GENERATED_OUTPUT_DOESNT_MATCH_SNAPSHOT = new Message("Generated files don't match snapshot '%s' (rerun with -D" + SYSTEM_PROPERTY_UPDATE_SNAPSHOTS + "=true to update the snapshot):\n%s");
+
+        public final static Message MESSAGE_GENERATED_CLASSES_TEST_FAILED = new Message("Test of generated classes failed: %s");
+        public final static Message MESSAGE_INCREMENTAL_RECOMPILATION_TEST_FAILED = new Message("Test of incremental recompilation failed: %s");
+        public final static Message MESSAGE_PROCESSING_API_USAGE_TEST_FAILED = new Message("Test of processing api calls failed: %s");
+        public final static Message MESSAGE_COMPILATION_PHASES_TEST_FAILED = new Message("Test of measured compiler phases failed: %s");
+
+        public final static Message MESSAGE_MULTIPLE_ASSERTIONS_FAILED = new Message("%d assertions failed:\n%s");
+
         public final static Message MESSAGE_TECHNICAL_ERROR = new Message("TECHNICAL ERROR : %s");
 
 
         // IllegalArgumentException Messages
         public final static Message IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL = new Message("Passed %s must not be null");
+        public final static Message IAE_PASSED_PARAMETER_MUST_NOT_BE_EMPTY = new Message("Passed %s must not be empty");
+        public final static Message IAE_PASSED_PARAMETER_MUST_BE_POSITIVE = new Message("Passed %s must be positive");
+        public final static Message IAE_PASSED_PARAMETER_MUST_NOT_BE_NEGATIVE = new Message("Passed %s must not be negative");
+        public final static Message IAE_UNKNOWN_PROCESSING_API_METHOD = new Message("Passed method '%s' must be a method of Elements, Types, Filer, Messager or RoundEnvironment, like 'Elements.getAllMembers'");
 
         public final static Message IAE_CANNOT_INSTANTIATE_PROCESSOR = new Message("Cannot instantiate passed processor of type '%s'. Make sure that a NoArg constructor exists and is accessible.");
         public final static Message IAE_CANNOT_FIND_JAVAFILEOBJECT = new Message("Can't find JavaFileObject for uri:%s");
@@ -80,12 +181,15 @@ public final class Constants {
         // IllegalStateException
         public final static Message ISE_CANNOT_OPEN_INPUTSTREAM_WITH_URI = new Message("Cannot open InputStream for resource with uri '%s' ! ");
         public final static Message ISE_MUST_CONFIGURE_AT_LEAST_ONE_SOURCE_FILE = new Message("At least one source file has to be added to the compiler test configuration");
+        public final static Message ISE_FORKED_COMPILATION_FAILED = new Message("Forked compilation failed : %s");
+        public final static Message ISE_FORKED_COMPILATION_TIMED_OUT = new Message("Forked compilation didn't finish within %d seconds, the worker JVM has been terminated");
         public final static Message ISE_MUST_CONFIGURE_AT_LEAST_ONE_PROCESSOR = new Message( "At least one processor has to be added to the compiler test configuration");
 
         // Generated File Object Matchers
         public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_BINARY_COMPARISION = new Message("FileObjects aren't equal by using binary comparison");
         public final static Message GFOM_COULDNT_FIND_SUBSTRING = new Message("Couldn't find substring %s in file %s");
         public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS = new Message("FileObjects aren't equal by doing textual comparision and ignoring line endings");
+        public final static Message GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS_WITH_DIFF = new Message("FileObjects aren't equal by doing textual comparision and ignoring line endings:\n%s");
         public final static Message GFOM_FILEOBJECT_DOESNT_MATCH_PATTERN = new Message("File '%s' doesn't match the following pattern: '%s'!");
         public final static Message GFOM_FILEOBJECT_IS_NOT_WELL_FORMED = new Message("File %s is no well formed xml file!");
 
@@ -0,0 +1,18 @@
+package io.toolisticon.cute;
+
+/**
+ * Interface to allow runtime checks of the classes generated during a compilation test.
+ * <p>
+ * The passed ClassLoader defines the generated classes straight from the in memory class files.
+ */
+public interface GeneratedClassesTest {
+
+    /**
+     * The test method.
+     *
+     * @param classLoader the ClassLoader that provides access to the generated classes and resources
+     * @throws Exception might be thrown during the test. Will lead to a failing test.
+     */
+    void doTests(ClassLoader classLoader) throws Exception;
+
+}
@@ -0,0 +1,86 @@
+package io.toolisticon.cute;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The result of a simulated incremental recompilation.
+ * <p>
+ * Generated files are identified by their location and resource name, e.g. "SOURCE_OUTPUT/io/toolisticon/Test.java".
+ * Times are measured in nanoseconds.
+ */
+public final class IncrementalRecompilationResult {
+
+    private final boolean compilationSucceeded;
+    private final Set<String> regeneratedFiles;
+    private final Set<String> deletedFiles;
+    private final Set<String> keptFiles;
+    private final long fullRebuildTime;
+    private final long incrementalCompilationTime;
+
+    /**
+     * Constructor.
+     *
+     * @param compilationSucceeded       whether the incremental compilation succeeded
+     * @param regeneratedFiles           the files written by the incremental compilation
+     * @param deletedFiles               the files that have been invalidated and haven't been written again
+     * @param keptFiles                  the files kept from the previous compilation
+     * @param fullRebuildTime            the time of a full rebuild with the changed sources
+     * @param incrementalCompilationTime the time of the incremental compilation
+     */
+    public IncrementalRecompilationResult(boolean compilationSucceeded, Set<String> regeneratedFiles, Set<String> deletedFiles, Set<String> keptFiles, long fullRebuildTime, long incrementalCompilationTime) {
+        this.compilationSucceeded = compilationSucceeded;
+        this.regeneratedFiles = Collections.unmodifiableSet(new TreeSet<>(regeneratedFiles));
+        this.deletedFiles = Collections.unmodifiableSet(new TreeSet<>(deletedFiles));
+        this.keptFiles = Collections.unmodifiableSet(new TreeSet<>(keptFiles));
+        this.fullRebuildTime = fullRebuildTime;
+        this.incrementalCompilationTime = incrementalCompilationTime;
+    }
+
+    public boolean getCompilationSucceeded() {
+        return compilationSucceeded;
+    }
+
+    public Set<String> getRegeneratedFiles() {
+        return regeneratedFiles;
+    }
+
+    public Set<String> getDeletedFiles() {
+        return deletedFiles;
+    }
+
+    public Set<String> getKeptFiles() {
+        return keptFiles;
+    }
+
+    public long getFullRebuildTime() {
+        return fullRebuildTime;
+    }
+
+    public long getIncrementalCompilationTime() {
+        return incrementalCompilationTime;
+    }
+
+    /**
+     * Gets the time saved by the incremental compilation compared to a full rebuild.
+     *
+     * @return the saved time in nanoseconds, negative if incremental compilation took longer
+     */
+    public long getTimeSaved() {
+        return fullRebuildTime - incrementalCompilationTime;
+    }
+
+    @Override
+    public String toString() {
+        return "IncrementalRecompilationResult{" +
+                "\n\t compilationSucceeded=" + compilationSucceeded +
+                ",\n\t regeneratedFiles=" + regeneratedFiles +
+                ",\n\t deletedFiles=" + deletedFiles +
+                ",\n\t keptFiles=" + keptFiles +
+                String.format(",\n\t fullRebuildTime=%.3f ms", fullRebuildTime / 1000000.0) +
+                String.format(",\n\t incrementalCompilationTime=%.3f ms", incrementalCompilationTime / 1000000.0) +
+                "\n}";
+    }
+
+}
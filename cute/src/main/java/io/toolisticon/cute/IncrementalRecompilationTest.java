@@ -0,0 +1,16 @@
+package io.toolisticon.cute;
+
+/**
+ * Interface to allow checks of a simulated incremental recompilation.
+ */
+public interface IncrementalRecompilationTest {
+
+    /**
+     * The test method.
+     *
+     * @param incrementalRecompilationResult the result of the simulated incremental recompilation
+     * @throws Exception might be thrown during the test. Will lead to a failing test.
+     */
+    void doTests(IncrementalRecompilationResult incrementalRecompilationResult) throws Exception;
+
+}
@@ -9,4 +9,13 @@ import java.lang.annotation.RetentionPolicy;
 @Retention(RetentionPolicy.RUNTIME)
 
 public @interface PassIn {
+
+    /**
+     * The id of the passed in element.
+     * Is used to bind elements to unit tests if multiple unit tests are executed in one compilation.
+     *
+     * @return the id of the passed in element
+     */
+    String value() default "";
+
 }
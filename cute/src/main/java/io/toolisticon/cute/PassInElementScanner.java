@@ -0,0 +1,82 @@
+package io.toolisticon.cute;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.util.ElementScanner6;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single pass scanner that collects elements annotated with a specific annotation.
+ * <p>
+ * Visits the passed element, its enclosed elements and the parameters of executable elements.
+ * Scanning stops as soon as the maximal number of matching elements has been found.
+ */
+// ElementScanner6 is deprecated on newer JDKs, but it's the only scanner available for the Java 6 compatible api
+@SuppressWarnings("deprecation")
+final class PassInElementScanner extends ElementScanner6<Void, Void> {
+
+    /**
+     * The annotation type to search for.
+     */
+    private final Class<? extends Annotation> annotationTypeUsedForScan;
+
+    /**
+     * The maximal number of elements to collect.
+     */
+    private final int maxMatches;
+
+    /**
+     * The matching elements found so far.
+     */
+    private final List<Element> matchingElements = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param annotationTypeUsedForScan the annotation type to search for
+     * @param maxMatches                the maximal number of matches after which scanning stops
+     */
+    PassInElementScanner(Class<? extends Annotation> annotationTypeUsedForScan, int maxMatches) {
+        this.annotationTypeUsedForScan = annotationTypeUsedForScan;
+        this.maxMatches = maxMatches;
+    }
+
+    /**
+     * Scans the passed element.
+     *
+     * @param elementToScan the element to scan, may be null
+     * @return the matching elements - contains at most maxMatches elements
+     */
+    List<Element> scanForMatchingElements(Element elementToScan) {
+
+        if (elementToScan != null) {
+            scan(elementToScan);
+        }
+
+        return matchingElements;
+
+    }
+
+    @Override
+    public Void scan(Element element, Void parameter) {
+
+        if (matchingElements.size() >= maxMatches) {
+            return DEFAULT_VALUE;
+        }
+
+        if (element.getAnnotation(annotationTypeUsedForScan) != null) {
+            matchingElements.add(element);
+        }
+
+        return super.scan(element, parameter);
+
+    }
+
+    @Override
+    public Void visitUnknown(Element element, Void parameter) {
+        // element kinds introduced after java 6 like record components don't have relevant enclosed elements
+        return DEFAULT_VALUE;
+    }
+
+}
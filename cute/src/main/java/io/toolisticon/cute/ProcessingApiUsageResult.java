@@ -0,0 +1,75 @@
+package io.toolisticon.cute;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The calls of the Elements, Types, Filer, Messager and RoundEnvironment methods made by the processors of a compilation.
+ * <p>
+ * Methods are identified by the simple name of the interface and the method name, like "Elements.getAllMembers".
+ * Times are measured in nanoseconds.
+ */
+public final class ProcessingApiUsageResult {
+
+    private final Map<String, Long> calls;
+    private final Map<String, Long> durations;
+
+    /**
+     * Constructor.
+     *
+     * @param calls     the number of calls per method
+     * @param durations the cumulative time spent per method
+     */
+    public ProcessingApiUsageResult(Map<String, Long> calls, Map<String, Long> durations) {
+        this.calls = Collections.unmodifiableMap(new TreeMap<>(calls));
+        this.durations = Collections.unmodifiableMap(new TreeMap<>(durations));
+    }
+
+    /**
+     * Gets all called methods.
+     *
+     * @return the called methods, like "Elements.getAllMembers"
+     */
+    public Set<String> getMethods() {
+        return calls.keySet();
+    }
+
+    /**
+     * Gets the number of calls of a method.
+     *
+     * @param method the method, like "Elements.getAllMembers"
+     * @return the number of calls
+     */
+    public long getCalls(String method) {
+        Long count = calls.get(method);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Gets the cumulative time spent in a method.
+     *
+     * @param method the method, like "Elements.getAllMembers"
+     * @return the duration in nanoseconds
+     */
+    public long getDuration(String method) {
+        Long duration = durations.get(method);
+        return duration != null ? duration : 0L;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder stringBuilder = new StringBuilder("ProcessingApiUsageResult{");
+        String separator = "\n\t ";
+        for (Map.Entry<String, Long> entry : calls.entrySet()) {
+            stringBuilder.append(separator).append(String.format("%s=%d calls, %.3f ms", entry.getKey(), entry.getValue(), getDuration(entry.getKey()) / 1000000.0));
+            separator = ",\n\t ";
+        }
+
+        return stringBuilder.append("\n}").toString();
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package io.toolisticon.cute;
+
+/**
+ * Interface to allow checks of the processing api calls made by processors.
+ */
+public interface ProcessingApiUsageTest {
+
+    /**
+     * The test method.
+     *
+     * @param processingApiUsageResult the counted calls of the processing api
+     * @throws Exception might be thrown during the test. Will lead to a failing test.
+     */
+    void doTests(ProcessingApiUsageResult processingApiUsageResult) throws Exception;
+
+}
@@ -0,0 +1,143 @@
+package io.toolisticon.cute;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that executes multiple unit tests in a single compilation.
+ * <p>
+ * Each unit test is bound to the element of the scanned class that is annotated with a {@link PassIn} annotation with matching id.
+ * All unit tests will be executed, failures are reported together after the last unit test has been executed.
+ */
+class UnitTestAnnotationProcessorClassWithMultiplePassIns extends AbstractUnitTestAnnotationProcessorWithPassIn {
+
+    /**
+     * The unit tests to execute mapped by the ids of their passed in elements.
+     */
+    private final Map<String, UnitTest<? extends Element>> unitTests;
+
+    UnitTestAnnotationProcessorClassWithMultiplePassIns(Class<?> classToScan, Map<String, UnitTest<? extends Element>> unitTests) {
+        super(TestAnnotation.class, classToScan, PassIn.class);
+        this.unitTests = new LinkedHashMap<>(unitTests);
+    }
+
+    @Override
+    protected int getMaxPassInCandidates() {
+        // all passed in elements are needed to detect ambiguous ids
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        // just try to execute tests if annotation is processed == annotations size is 1
+        if (!roundEnv.processingOver() && annotations.size() == 1) {
+
+            Map<String, List<Element>> passedInElementsById = getPassedInElementsById();
+
+            List<String> failures = new ArrayList<>();
+            for (Map.Entry<String, UnitTest<? extends Element>> entry : unitTests.entrySet()) {
+
+                String failure = executeUnitTest(entry.getKey(), entry.getValue(), passedInElementsById.get(entry.getKey()));
+                if (failure != null) {
+                    failures.add(failure);
+                }
+
+            }
+
+            if (!failures.isEmpty()) {
+
+                StringBuilder stringBuilder = new StringBuilder();
+                for (String failure : failures) {
+                    stringBuilder.append(failure).append("\n");
+                }
+
+                throw new FailingAssertionException(Constants.Messages.UNIT_TEST_PASS_IN_UNIT_TESTS_FAILED.produceMessage(failures.size(), unitTests.size(), stringBuilder.toString()));
+
+            }
+
+        }
+        return false;
+    }
+
+    /**
+     * Groups the passed in element candidates of the scanned class by the ids of their {@link PassIn} annotations.
+     *
+     * @return the passed in elements by id
+     */
+    private Map<String, List<Element>> getPassedInElementsById() {
+
+        Map<String, List<Element>> passedInElementsById = new LinkedHashMap<>();
+        for (Element element : getPassInCandidates()) {
+
+            String id = element.getAnnotation(PassIn.class).value();
+
+            List<Element> elements = passedInElementsById.get(id);
+            if (elements == null) {
+                elements = new ArrayList<>();
+                passedInElementsById.put(id, elements);
+            }
+            elements.add(element);
+
+        }
+
+        return passedInElementsById;
+
+    }
+
+    /**
+     * Executes a single unit test.
+     *
+     * @param id               the id of the passed in element
+     * @param unitTest         the unit test to execute
+     * @param passedInElements the elements annotated with passed in annotation with matching id
+     * @return the failure message or null if unit test succeeded
+     */
+    @SuppressWarnings("unchecked")
+    private String executeUnitTest(String id, UnitTest<? extends Element> unitTest, List<Element> passedInElements) {
+
+        if (passedInElements == null || passedInElements.size() != 1) {
+            return "[" + id + "] : " + Constants.Messages.UNIT_TEST_PASS_IN_PRECONDITION_MUST_FIND_EXACTLY_ONE_ELEMENT_WITH_ID.produceMessage(id, classToScan.getCanonicalName());
+        }
+
+        try {
+
+            ((UnitTest<Element>) unitTest).unitTest(this.processingEnv, passedInElements.get(0));
+            return null;
+
+        } catch (ClassCastException e) {
+
+            if (e.getMessage() != null && e.getMessage().contains("com.sun.tools.javac.code.Symbol")) {
+                return "[" + id + "] : " + Constants.Messages.UNIT_TEST_PRECONDITION_INCOMPATIBLE_ELEMENT_TYPE.produceMessage();
+            }
+            return "[" + id + "] : " + getUnexpectedExceptionMessage(e);
+
+        } catch (AssertionError e) {
+
+            return "[" + id + "] : " + e.getMessage();
+
+        } catch (FailingAssertionException e) {
+
+            return "[" + id + "] : " + e.getMessage();
+
+        } catch (RuntimeException e) {
+
+            return "[" + id + "] : " + getUnexpectedExceptionMessage(e);
+
+        }
+
+    }
+
+    private static String getUnexpectedExceptionMessage(Throwable e) {
+        return Constants.Messages.ASSERTION_GOT_UNEXPECTED_EXCEPTION.produceMessage(
+                e.getClass().getCanonicalName(),
+                e.getMessage() != null ? Constants.Messages.TOKEN__WITH_MESSAGE + e.getMessage() : "");
+    }
+
+}
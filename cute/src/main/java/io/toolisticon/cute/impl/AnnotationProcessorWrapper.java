@@ -2,6 +2,7 @@ package io.toolisticon.cute.impl;
 
 import io.toolisticon.cute.Constants;
 import io.toolisticon.cute.FailingAssertionException;
+import io.toolisticon.cute.extension.api.TracingSpi;
 
 import javax.annotation.processing.Completion;
 import javax.annotation.processing.Messager;
@@ -24,6 +25,10 @@ final class AnnotationProcessorWrapper implements Processor {
     private final Processor wrappedProcessor;
     private final Class<? extends Throwable> expectedThrownException;
     private Messager messager;
+    private CompilationContext compilationContext;
+    private String testName;
+    private boolean recordOriginatingElements = false;
+    private boolean instrumentProcessingApi = false;
 
     private boolean firstRound = true;
     private boolean expectedExceptionWasThrown = false;
@@ -59,7 +64,23 @@ final class AnnotationProcessorWrapper implements Processor {
         // get messager
         messager = processingEnv.getMessager();
 
-        wrappedProcessor.init(processingEnv);
+        ProcessingEnvironment processorProcessingEnv = processingEnv;
+
+        if (compilationContext != null && recordOriginatingElements) {
+            processorProcessingEnv = OriginatingElementsRecordingFiler.wrapProcessingEnvironment(processorProcessingEnv, compilationContext.getCompileTestFileManager());
+        }
+
+        if (compilationContext != null && instrumentProcessingApi) {
+            processorProcessingEnv = compilationContext.getProcessingApiCalls().instrument(processorProcessingEnv);
+        }
+
+        TracingSpi.Span span = Tracing.begin(TracingSpi.Phase.PROCESSOR_INIT, testName, wrappedProcessor.getClass().getName());
+        try {
+            wrappedProcessor.init(processorProcessingEnv);
+        } finally {
+            span.end(0L);
+        }
+
     }
 
     @Override
@@ -73,9 +94,28 @@ final class AnnotationProcessorWrapper implements Processor {
 
         boolean returnValue;
 
+        RoundTrace roundTrace = compilationContext != null ? compilationContext.getRoundTrace() : null;
+        if (roundTrace != null) {
+
+            int roundNumber = roundTrace.startProcessorCall(annotations, roundEnv);
+
+            // abort runaway round loops
+            int maxRounds = Integer.getInteger(Constants.SYSTEM_PROPERTY_MAX_ROUNDS, Constants.DEFAULT_MAX_ROUNDS);
+            if (roundNumber > maxRounds) {
+                roundTrace.endProcessorCall();
+                throw new FailingAssertionException(Constants.Messages.MESSAGE_MAXIMAL_NUMBER_OF_ROUNDS_EXCEEDED.produceMessage(maxRounds, roundTrace));
+            }
+
+        }
+
+        TracingSpi.Span span = Tracing.begin(TracingSpi.Phase.PROCESSOR_ROUND, testName, wrappedProcessor.getClass().getName());
+        long generatedBytes = span.isEnabled() && compilationContext != null ? compilationContext.getCompileTestFileManager().getGeneratedBytes() : 0L;
+
         try {
 
-            returnValue = wrappedProcessor.process(annotations, roundEnv);
+            returnValue = wrappedProcessor.process(annotations, compilationContext != null && instrumentProcessingApi
+                    ? compilationContext.getProcessingApiCalls().instrument(RoundEnvironment.class, roundEnv)
+                    : roundEnv);
 
         } catch (Throwable e) {
 
@@ -107,6 +147,14 @@ final class AnnotationProcessorWrapper implements Processor {
 
             return true;
 
+        } finally {
+
+            if (roundTrace != null) {
+                roundTrace.endProcessorCall();
+            }
+
+            span.end(span.isEnabled() && compilationContext != null ? compilationContext.getCompileTestFileManager().getGeneratedBytes() - generatedBytes : 0L);
+
         }
 
         // check in last round if expected exception has been thrown
@@ -124,6 +172,22 @@ final class AnnotationProcessorWrapper implements Processor {
         return wrappedProcessor.getCompletions(element, annotation, member, userText);
     }
 
+    /**
+     * Binds the wrapper to the context of a compilation, which is used to trace rounds and to record originating elements.
+     * Must be called before the processor is initialized.
+     *
+     * @param compilationContext        the context of the compilation
+     * @param testName                  the name of the test used for tracing or null if unknown
+     * @param recordOriginatingElements whether originating elements of files generated by the wrapped processor should be recorded
+     * @param instrumentProcessingApi   whether calls of the processing api by the wrapped processor should be counted
+     */
+    void bindToCompilation(CompilationContext compilationContext, String testName, boolean recordOriginatingElements, boolean instrumentProcessingApi) {
+        this.compilationContext = compilationContext;
+        this.testName = testName;
+        this.recordOriginatingElements = recordOriginatingElements;
+        this.instrumentProcessingApi = instrumentProcessingApi;
+    }
+
     public String getProcessorWasAppliedMessage() {
         return CompileTestUtilities.getAnnotationProcessorWasAppliedMessage(wrappedProcessor);
     }
@@ -132,6 +196,10 @@ final class AnnotationProcessorWrapper implements Processor {
         return wrappedProcessor;
     }
 
+    public Class<? extends Throwable> getExpectedThrownException() {
+        return expectedThrownException;
+    }
+
     public static AnnotationProcessorWrapper wrapProcessor(Processor processorToWrap) {
         return wrapProcessor(processorToWrap, null);
     }
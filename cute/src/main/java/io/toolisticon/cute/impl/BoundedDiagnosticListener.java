@@ -0,0 +1,153 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.DiagnosticListener;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DiagnosticListener that counts all diagnostics by kind, but retains just the diagnostics needed by the compile test.
+ * <p>
+ * Diagnostics reference compiler internals and source files, so retaining all diagnostics of processors that report a message per element can take a lot of memory.
+ * Diagnostics matching the kind and source of a configured message check and the notes of applied processors are always retained.
+ * All other diagnostics are retained for the debug output up to a maximal number per kind.
+ */
+final class BoundedDiagnosticListener implements DiagnosticListener<JavaFileObject> {
+
+    private final DiagnosticCollector<JavaFileObject> retainedDiagnostics = new DiagnosticCollector<>();
+
+    private final Map<Diagnostic.Kind, Long> counts = new EnumMap<>(Diagnostic.Kind.class);
+    private final Map<Diagnostic.Kind, Long> retainedCounts = new EnumMap<>(Diagnostic.Kind.class);
+
+    /**
+     * The sources of the configured message checks by kind - a null value means diagnostics of all sources are checked.
+     */
+    private final Map<Diagnostic.Kind, Set<String>> checkedSources = new EnumMap<>(Diagnostic.Kind.class);
+
+    private final Set<String> processorWasAppliedMessages = new HashSet<>();
+
+    private final int maxRetainedDiagnostics;
+
+    /**
+     * Constructor.
+     *
+     * @param compileTestConfiguration the compile test configuration to retain the diagnostics for
+     */
+    BoundedDiagnosticListener(CompileTestConfiguration compileTestConfiguration) {
+
+        this(compileTestConfiguration, compileTestConfiguration.getRetainAllDiagnostics() ? Integer.MAX_VALUE : Integer.getInteger(Constants.SYSTEM_PROPERTY_MAX_RETAINED_DIAGNOSTICS, Constants.DEFAULT_MAX_RETAINED_DIAGNOSTICS));
+
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param compileTestConfiguration the compile test configuration to retain the diagnostics for
+     * @param maxRetainedDiagnostics   the maximal number of not checked diagnostics retained per kind
+     */
+    BoundedDiagnosticListener(CompileTestConfiguration compileTestConfiguration, int maxRetainedDiagnostics) {
+
+        this.maxRetainedDiagnostics = maxRetainedDiagnostics;
+
+        for (Map.Entry<Diagnostic.Kind, List<CompileTestConfiguration.CompilerMessageCheck>> entry : compileTestConfiguration.getCompilerMessageCheckByKindMap().entrySet()) {
+
+            Set<String> sources = new HashSet<>();
+            for (CompileTestConfiguration.CompilerMessageCheck compilerMessageCheck : entry.getValue()) {
+
+                if (compilerMessageCheck.getSource() == null) {
+                    sources = null;
+                    break;
+                }
+
+                sources.add(compilerMessageCheck.getSource());
+
+            }
+
+            checkedSources.put(entry.getKey(), sources);
+
+        }
+
+        for (AnnotationProcessorWrapper processor : compileTestConfiguration.getWrappedProcessors()) {
+            processorWasAppliedMessages.add(processor.getProcessorWasAppliedMessage());
+        }
+
+    }
+
+    @Override
+    public synchronized void report(Diagnostic<? extends JavaFileObject> diagnostic) {
+
+        Diagnostic.Kind kind = diagnostic.getKind();
+
+        // notes of applied processors aren't counted
+        if (kind == Diagnostic.Kind.NOTE && diagnostic.getSource() == null && processorWasAppliedMessages.contains(diagnostic.getMessage(null))) {
+            retainedDiagnostics.report(diagnostic);
+            return;
+        }
+
+        increment(counts, kind);
+
+        if (isChecked(diagnostic) || get(retainedCounts, kind) < maxRetainedDiagnostics) {
+            increment(retainedCounts, kind);
+            retainedDiagnostics.report(diagnostic);
+        }
+
+    }
+
+    private boolean isChecked(Diagnostic<? extends JavaFileObject> diagnostic) {
+
+        if (!checkedSources.containsKey(diagnostic.getKind())) {
+            return false;
+        }
+
+        Set<String> sources = checkedSources.get(diagnostic.getKind());
+        return sources == null || (diagnostic.getSource() != null && sources.contains(((FileObject) diagnostic.getSource()).getName()));
+
+    }
+
+    private static void increment(Map<Diagnostic.Kind, Long> map, Diagnostic.Kind kind) {
+        map.put(kind, get(map, kind) + 1L);
+    }
+
+    private static long get(Map<Diagnostic.Kind, Long> map, Diagnostic.Kind kind) {
+        Long value = map.get(kind);
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Gets the retained diagnostics.
+     *
+     * @return the DiagnosticCollector containing the retained diagnostics
+     */
+    DiagnosticCollector<JavaFileObject> getRetainedDiagnostics() {
+        return retainedDiagnostics;
+    }
+
+    /**
+     * Gets the number of all reported diagnostics of a kind, except the notes of applied processors.
+     *
+     * @param kind the kind of diagnostics
+     * @return the number of reported diagnostics
+     */
+    synchronized long getCount(Diagnostic.Kind kind) {
+        return get(counts, kind);
+    }
+
+    /**
+     * Gets the number of reported diagnostics of a kind that haven't been retained.
+     *
+     * @param kind the kind of diagnostics
+     * @return the number of dropped diagnostics
+     */
+    synchronized long getDroppedCount(Diagnostic.Kind kind) {
+        return get(counts, kind) - get(retainedCounts, kind);
+    }
+
+}
@@ -0,0 +1,56 @@
+package io.toolisticon.cute.impl;
+
+import javax.tools.StandardJavaFileManager;
+
+/**
+ * State of a single compilation, which is shared by the wrapped processors and the compilation result.
+ */
+final class CompilationContext {
+
+    /**
+     * The file manager used during the compilation.
+     */
+    private final CompileTestFileManager compileTestFileManager;
+
+    /**
+     * The trace of annotation processing rounds of the compilation.
+     */
+    private final RoundTrace roundTrace = new RoundTrace();
+
+    /**
+     * The processing api calls of the processors of the compilation, if instrumented.
+     */
+    private final ProcessingApiCalls processingApiCalls = new ProcessingApiCalls();
+
+    /**
+     * Constructor for a compilation, whose generated files are traced per annotation processing round.
+     *
+     * @param standardJavaFileManager the file manager to forward to
+     * @param concurrent              true if files may be generated by multiple threads
+     */
+    CompilationContext(StandardJavaFileManager standardJavaFileManager, boolean concurrent) {
+        this.compileTestFileManager = new CompileTestFileManager(standardJavaFileManager, concurrent, roundTrace);
+    }
+
+    /**
+     * Constructor for a compilation that hasn't been run in this JVM, e.g. a compilation restored from a snapshot.
+     *
+     * @param compileTestFileManager the file manager containing the generated files
+     */
+    CompilationContext(CompileTestFileManager compileTestFileManager) {
+        this.compileTestFileManager = compileTestFileManager;
+    }
+
+    CompileTestFileManager getCompileTestFileManager() {
+        return compileTestFileManager;
+    }
+
+    RoundTrace getRoundTrace() {
+        return roundTrace;
+    }
+
+    ProcessingApiCalls getProcessingApiCalls() {
+        return processingApiCalls;
+    }
+
+}
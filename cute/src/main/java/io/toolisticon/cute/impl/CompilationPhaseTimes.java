@@ -0,0 +1,154 @@
+package io.toolisticon.cute.impl;
+
+import javax.tools.JavaCompiler;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Time spent in the phases of a single compilation, like PARSE, ENTER, ANALYZE, GENERATE and ANNOTATION_PROCESSING.
+ * <p>
+ * Times are measured by a javac TaskListener. The listener is bound via reflection, since the com.sun.source api isn't available for all supported java versions and compilers.
+ * Phases may be nested, for example parsing of generated sources happens during annotation processing rounds.
+ */
+final class CompilationPhaseTimes {
+
+    private final static String JAVAC_TASK_CLASS_NAME = "com.sun.source.util.JavacTask";
+    private final static String TASK_LISTENER_CLASS_NAME = "com.sun.source.util.TaskListener";
+    private final static String TASK_EVENT_CLASS_NAME = "com.sun.source.util.TaskEvent";
+
+    /**
+     * Accumulated durations in nanoseconds per phase.
+     */
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    /**
+     * Start times of currently running phases.
+     */
+    private final Map<String, LinkedList<Long>> startTimes = new HashMap<>();
+
+    /**
+     * Registers a listener that measures the phase times at the passed compilation task.
+     *
+     * @param compilationTask the compilation task
+     * @return the phase times instance that will be filled during the compilation or null if the compiler isn't javac based
+     */
+    static CompilationPhaseTimes register(JavaCompiler.CompilationTask compilationTask) {
+
+        try {
+
+            ClassLoader classLoader = compilationTask.getClass().getClassLoader();
+
+            Class<?> javacTaskClass = Class.forName(JAVAC_TASK_CLASS_NAME, false, classLoader);
+            if (!javacTaskClass.isInstance(compilationTask)) {
+                return null;
+            }
+
+            Class<?> taskListenerClass = Class.forName(TASK_LISTENER_CLASS_NAME, false, classLoader);
+            final Method getKindMethod = Class.forName(TASK_EVENT_CLASS_NAME, false, classLoader).getMethod("getKind");
+
+            final CompilationPhaseTimes compilationPhaseTimes = new CompilationPhaseTimes();
+
+            Object taskListener = Proxy.newProxyInstance(classLoader, new Class<?>[]{taskListenerClass}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                    if ("started".equals(method.getName())) {
+                        compilationPhaseTimes.started(getKindMethod.invoke(args[0]).toString());
+                    } else if ("finished".equals(method.getName())) {
+                        compilationPhaseTimes.finished(getKindMethod.invoke(args[0]).toString());
+                    } else if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    } else if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    } else if ("toString".equals(method.getName())) {
+                        return "CompilationPhaseTimesTaskListener";
+                    }
+
+                    return null;
+                }
+            });
+
+            javacTaskClass.getMethod("addTaskListener", taskListenerClass).invoke(compilationTask, taskListener);
+
+            return compilationPhaseTimes;
+
+        } catch (Exception e) {
+            // compiler doesn't support task listeners
+            return null;
+        }
+
+    }
+
+    void started(String phase) {
+
+        LinkedList<Long> phaseStartTimes = startTimes.get(phase);
+        if (phaseStartTimes == null) {
+            phaseStartTimes = new LinkedList<>();
+            startTimes.put(phase, phaseStartTimes);
+        }
+
+        phaseStartTimes.addLast(System.nanoTime());
+
+    }
+
+    void finished(String phase) {
+
+        LinkedList<Long> phaseStartTimes = startTimes.get(phase);
+        if (phaseStartTimes == null || phaseStartTimes.isEmpty()) {
+            return;
+        }
+
+        long duration = System.nanoTime() - phaseStartTimes.removeLast();
+        Long accumulatedDuration = durations.get(phase);
+        durations.put(phase, accumulatedDuration != null ? accumulatedDuration + duration : duration);
+
+    }
+
+    /**
+     * Gets all measured phases in order of their first completion.
+     *
+     * @return the measured phases
+     */
+    Set<String> getPhases() {
+        return durations.keySet();
+    }
+
+    /**
+     * Gets the accumulated duration of a phase.
+     *
+     * @param phase the phase name, like PARSE or ANALYZE
+     * @return the duration in nanoseconds or 0 if phase hasn't been measured
+     */
+    long getDuration(String phase) {
+        Long duration = durations.get(phase);
+        return duration != null ? duration : 0L;
+    }
+
+    /**
+     * Gets the accumulated durations of all measured phases.
+     *
+     * @return the durations in nanoseconds per phase in order of their first completion
+     */
+    Map<String, Long> getDurations() {
+        return durations;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            stringBuilder.append(String.format("%s : %.3f ms\n", entry.getKey(), entry.getValue() / 1000000.0));
+        }
+
+        return stringBuilder.toString();
+
+    }
+
+}
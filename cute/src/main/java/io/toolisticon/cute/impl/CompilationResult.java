@@ -1,7 +1,11 @@
 package io.toolisticon.cute.impl;
 
+import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Compilation result.
@@ -19,24 +23,76 @@ class CompilationResult {
      */
     private final DiagnosticCollector<JavaFileObject> diagnostics;
     /**
-     * The file manager used during the compilation - allows comparing of generated files
+     * Listener that has counted the diagnostics - null if all diagnostics are contained in the DiagnosticCollector
      */
-    private final CompileTestFileManager compileTestFileManager;
+    private final BoundedDiagnosticListener diagnosticListener;
+    /**
+     * The context of the compilation - allows comparing of generated files and access to the traced rounds
+     */
+    private final CompilationContext compilationContext;
+    /**
+     * Time spent in the compiler phases - null if not measured
+     */
+    private final CompilationPhaseTimes compilationPhaseTimes;
+    /**
+     * True if the file manager has been created for this result only and must be closed on release
+     */
+    private boolean closeFileManagerOnRelease;
 
     /**
      * Constructor.
      *
      * @param compilationSucceeded   should compilation succeed
      * @param diagnostics            the DiagnosticsController instance to use
-     * @param compileTestFileManager the file manager used during compilation
+     * @param compilationContext     the context of the compilation
      */
     CompilationResult(Boolean compilationSucceeded,
                       DiagnosticCollector<JavaFileObject> diagnostics,
-                      CompileTestFileManager compileTestFileManager) {
+                      CompilationContext compilationContext) {
+
+        this(compilationSucceeded, diagnostics, compilationContext, null);
+
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param compilationSucceeded   should compilation succeed
+     * @param diagnostics            the DiagnosticsController instance to use
+     * @param compilationContext     the context of the compilation
+     * @param compilationPhaseTimes  the measured compiler phase times or null
+     */
+    CompilationResult(Boolean compilationSucceeded,
+                      DiagnosticCollector<JavaFileObject> diagnostics,
+                      CompilationContext compilationContext,
+                      CompilationPhaseTimes compilationPhaseTimes) {
 
         this.compilationSucceeded = compilationSucceeded;
         this.diagnostics = diagnostics;
-        this.compileTestFileManager = compileTestFileManager;
+        this.diagnosticListener = null;
+        this.compilationContext = compilationContext;
+        this.compilationPhaseTimes = compilationPhaseTimes;
+
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param compilationSucceeded   should compilation succeed
+     * @param diagnosticListener     the listener used during compilation
+     * @param compilationContext     the context of the compilation
+     * @param compilationPhaseTimes  the measured compiler phase times or null
+     */
+    CompilationResult(Boolean compilationSucceeded,
+                      BoundedDiagnosticListener diagnosticListener,
+                      CompilationContext compilationContext,
+                      CompilationPhaseTimes compilationPhaseTimes) {
+
+        this.compilationSucceeded = compilationSucceeded;
+        this.diagnostics = diagnosticListener.getRetainedDiagnostics();
+        this.diagnosticListener = diagnosticListener;
+        this.compilationContext = compilationContext;
+        this.compilationPhaseTimes = compilationPhaseTimes;
 
     }
 
@@ -48,7 +104,79 @@ class CompilationResult {
         return diagnostics;
     }
 
+    /**
+     * Gets the number of diagnostics of a kind reported during the compilation.
+     *
+     * @param kind the kind of diagnostics
+     * @return the number of diagnostics, including the ones that haven't been retained
+     */
+    long getDiagnosticCount(Diagnostic.Kind kind) {
+        return diagnosticListener != null ? diagnosticListener.getCount(kind) : CompileTestUtilities.getDiagnosticByKind(diagnostics, kind).size();
+    }
+
+    /**
+     * Gets the number of diagnostics of all kinds reported during the compilation.
+     *
+     * @return the number of diagnostics by kind
+     */
+    Map<Diagnostic.Kind, Long> getDiagnosticCounts() {
+
+        Map<Diagnostic.Kind, Long> diagnosticCounts = new EnumMap<>(Diagnostic.Kind.class);
+        for (Diagnostic.Kind kind : Diagnostic.Kind.values()) {
+            diagnosticCounts.put(kind, getDiagnosticCount(kind));
+        }
+
+        return diagnosticCounts;
+
+    }
+
+    /**
+     * Gets the number of diagnostics of a kind that haven't been retained.
+     *
+     * @param kind the kind of diagnostics
+     * @return the number of dropped diagnostics
+     */
+    long getDroppedDiagnosticCount(Diagnostic.Kind kind) {
+        return diagnosticListener != null ? diagnosticListener.getDroppedCount(kind) : 0L;
+    }
+
+    CompilationContext getCompilationContext() {
+        return compilationContext;
+    }
+
     CompileTestFileManager getCompileTestFileManager() {
-        return compileTestFileManager;
+        return compilationContext.getCompileTestFileManager();
+    }
+
+    RoundTrace getRoundTrace() {
+        return compilationContext.getRoundTrace();
+    }
+
+    void setCloseFileManagerOnRelease(boolean closeFileManagerOnRelease) {
+        this.closeFileManagerOnRelease = closeFileManagerOnRelease;
+    }
+
+    CompilationPhaseTimes getCompilationPhaseTimes() {
+        return compilationPhaseTimes;
+    }
+
+    ProcessingApiCalls getProcessingApiCalls() {
+        return compilationContext.getProcessingApiCalls();
+    }
+
+    /**
+     * Releases the generated files.
+     * The compilation result mustn't be used for checks afterwards.
+     */
+    void release() {
+        getCompileTestFileManager().releaseGeneratedFiles();
+
+        if (closeFileManagerOnRelease) {
+            try {
+                getCompileTestFileManager().close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
     }
 }
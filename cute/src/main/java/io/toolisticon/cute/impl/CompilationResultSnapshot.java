@@ -0,0 +1,503 @@
+package io.toolisticon.cute.impl;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compact binary format of a CompilationResult.
+ * <p>
+ * A snapshot contains the success flag, all generated files and all diagnostics (kind, message, source, positions).
+ * Snapshots can be written to and read from streams. Large snapshots can be read via a memory mapped file,
+ * in this case the contents of generated files are read lazily from the mapped file.
+ * <p>
+ * Format (all numbers big endian, strings as UTF-8 bytes prefixed by their length):
+ * <pre>
+ * header       : MAGIC(int) VERSION(int)
+ * content      : successFlag(byte: -1 = null, 0 = false, 1 = true)
+ *                count(int) generatedFile*
+ *                count(int) diagnostic*
+ * generatedFile: uri(string) kind(string) isJavaFileObject(boolean) content(int length + bytes)
+ * diagnostic   : kind(string) sourceUri(nullable string) sourceName(nullable string)
+ *                position(long) startPosition(long) endPosition(long) line(long) column(long)
+ *                code(nullable string) message(string)
+ * </pre>
+ * Nullable strings are prefixed by a boolean that signals their presence.
+ */
+final class CompilationResultSnapshot {
+
+    /**
+     * Magic number of snapshot files ("CUTE").
+     */
+    final static int MAGIC = 0x43555445;
+
+    /**
+     * Version of the snapshot format.
+     */
+    final static int VERSION = 1;
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Hidden constructor.
+     */
+    private CompilationResultSnapshot() {
+
+    }
+
+    /**
+     * Writes a snapshot of the passed compilation result.
+     * The passed stream won't be closed.
+     *
+     * @param compilationResult the compilation result
+     * @param outputStream      the stream to write to
+     * @throws IOException if snapshot can't be written
+     */
+    static void write(CompilationResult compilationResult, OutputStream outputStream) throws IOException {
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        writeContent(output, compilationResult);
+        output.flush();
+
+    }
+
+    /**
+     * Writes a snapshot of the passed compilation result to a file.
+     *
+     * @param compilationResult the compilation result
+     * @param file              the file to write to
+     * @throws IOException if snapshot can't be written
+     */
+    static void write(CompilationResult compilationResult, File file) throws IOException {
+
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            write(compilationResult, outputStream);
+        } finally {
+            outputStream.close();
+        }
+
+    }
+
+    /**
+     * Reads a snapshot from a stream.
+     * The passed stream won't be closed.
+     *
+     * @param inputStream the stream to read from
+     * @return the compilation result, which must be released to close its file manager
+     * @throws IOException if snapshot can't be read or has an unsupported format
+     */
+    static CompilationResult read(InputStream inputStream) throws IOException {
+
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        readHeader(input);
+        return readContent(input, null, Collections.<String, JavaFileObject>emptyMap());
+
+    }
+
+    /**
+     * Reads a snapshot from a file by mapping it into memory.
+     * Contents of generated files are read lazily from the mapped file.
+     *
+     * @param file the file to read from
+     * @return the compilation result, which must be released to close its file manager
+     * @throws IOException if snapshot can't be read or has an unsupported format
+     */
+    static CompilationResult read(File file) throws IOException {
+
+        ByteBuffer buffer;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+        } finally {
+            // mapping stays valid after file has been closed
+            randomAccessFile.close();
+        }
+
+        ByteBufferInputStream mappedInput = new ByteBufferInputStream(buffer);
+        DataInputStream input = new DataInputStream(mappedInput);
+        readHeader(input);
+        return readContent(input, mappedInput, Collections.<String, JavaFileObject>emptyMap());
+
+    }
+
+    private static void readHeader(DataInputStream input) throws IOException {
+
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a compilation result snapshot");
+        }
+
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compilation result snapshot version " + version);
+        }
+
+    }
+
+    /**
+     * Writes the content of a snapshot without header.
+     *
+     * @param output            the stream to write to
+     * @param compilationResult the compilation result
+     * @throws IOException if snapshot can't be written
+     */
+    static void writeContent(DataOutputStream output, CompilationResult compilationResult) throws IOException {
+
+        // success flag
+        Boolean compilationSucceeded = compilationResult.getCompilationSucceeded();
+        output.writeByte(compilationSucceeded == null ? -1 : (compilationSucceeded ? 1 : 0));
+
+        // generated files
+        List<JavaFileObject> generatedJavaFileObjects = compilationResult.getCompileTestFileManager().getGeneratedJavaFileObjects();
+        List<FileObject> generatedFileObjects = compilationResult.getCompileTestFileManager().getGeneratedFileObjects();
+
+        output.writeInt(generatedJavaFileObjects.size() + generatedFileObjects.size());
+        for (JavaFileObject javaFileObject : generatedJavaFileObjects) {
+            writeGeneratedFile(output, javaFileObject, javaFileObject.getKind(), true);
+        }
+        for (FileObject fileObject : generatedFileObjects) {
+            writeGeneratedFile(output, fileObject, JavaFileObject.Kind.OTHER, false);
+        }
+
+        // diagnostics
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compilationResult.getDiagnostics().getDiagnostics();
+
+        output.writeInt(diagnostics.size());
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            writeString(output, diagnostic.getKind().name());
+            writeNullableString(output, diagnostic.getSource() != null ? diagnostic.getSource().toUri().toString() : null);
+            writeNullableString(output, diagnostic.getSource() != null ? diagnostic.getSource().getName() : null);
+            output.writeLong(diagnostic.getPosition());
+            output.writeLong(diagnostic.getStartPosition());
+            output.writeLong(diagnostic.getEndPosition());
+            output.writeLong(diagnostic.getLineNumber());
+            output.writeLong(diagnostic.getColumnNumber());
+            writeNullableString(output, diagnostic.getCode());
+            writeString(output, diagnostic.getMessage(null));
+        }
+
+    }
+
+    private static void writeGeneratedFile(DataOutputStream output, FileObject fileObject, JavaFileObject.Kind kind, boolean isJavaFileObject) throws IOException {
+        writeString(output, fileObject.toUri().toString());
+        writeString(output, kind.name());
+        output.writeBoolean(isJavaFileObject);
+        writeBytes(output, GeneratedOutputSnapshot.readContent(fileObject.openInputStream()));
+    }
+
+    /**
+     * Reads the content of a snapshot without header.
+     *
+     * @param input        the stream to read from
+     * @param mappedInput  the underlying memory mapped input if file contents should be read lazily, or null
+     * @param knownSources source files mapped by their uri, used as sources of diagnostics
+     * @return the compilation result, which must be released to close its file manager
+     * @throws IOException if snapshot can't be read
+     */
+    static CompilationResult readContent(DataInputStream input, ByteBufferInputStream mappedInput, Map<String, JavaFileObject> knownSources) throws IOException {
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        CompileTestFileManager compileTestFileManager = new CompileTestFileManager(ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, null));
+
+        // success flag
+        byte compilationSucceeded = input.readByte();
+
+        // generated files
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+
+            URI uri = URI.create(readString(input));
+            JavaFileObject.Kind kind = JavaFileObject.Kind.valueOf(readString(input));
+            boolean isJavaFileObject = input.readBoolean();
+
+            if (mappedInput != null) {
+                compileTestFileManager.addGeneratedFileObject(new MappedFileObject(uri, kind, mappedInput.slice(input.readInt())), isJavaFileObject);
+            } else {
+                CompileTestFileManager.InMemoryOutputJavaFileObject fileObject = new CompileTestFileManager.InMemoryOutputJavaFileObject(uri, kind);
+                fileObject.setContent(readBytes(input));
+                compileTestFileManager.addGeneratedFileObject(fileObject, isJavaFileObject);
+            }
+
+        }
+
+        // diagnostics
+        Map<String, JavaFileObject> sources = new HashMap<>(knownSources);
+        for (JavaFileObject generatedFile : compileTestFileManager.getGeneratedJavaFileObjects()) {
+            sources.put(generatedFile.toUri().toString(), generatedFile);
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+
+            Diagnostic.Kind kind = Diagnostic.Kind.valueOf(readString(input));
+            String sourceUri = readNullableString(input);
+            String sourceName = readNullableString(input);
+
+            JavaFileObject source = null;
+            if (sourceUri != null) {
+                source = sources.get(sourceUri);
+                if (source == null) {
+                    source = new StoredSourceFile(URI.create(sourceUri), sourceName, "");
+                    sources.put(sourceUri, source);
+                }
+            }
+
+            diagnostics.report(new StoredDiagnostic(kind, source,
+                    input.readLong(), input.readLong(), input.readLong(), input.readLong(), input.readLong(),
+                    readNullableString(input), readString(input)));
+
+        }
+
+        // the file manager isn't shared with compilations, so it's closed with the compilation result
+        CompilationResult compilationResult = new CompilationResult(compilationSucceeded == -1 ? null : compilationSucceeded == 1, diagnostics, new CompilationContext(compileTestFileManager));
+        compilationResult.setCloseFileManagerOnRelease(true);
+        return compilationResult;
+
+    }
+
+    static void writeString(DataOutputStream output, String value) throws IOException {
+        writeBytes(output, value.getBytes(UTF_8));
+    }
+
+    static String readString(DataInputStream input) throws IOException {
+        return new String(readBytes(input), UTF_8);
+    }
+
+    static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            writeString(output, value);
+        }
+    }
+
+    static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? readString(input) : null;
+    }
+
+    static void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] result = new byte[input.readInt()];
+        input.readFully(result);
+        return result;
+    }
+
+    /**
+     * InputStream backed by a ByteBuffer. Allows slicing of the remaining buffer.
+     */
+    static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+
+            if (length == 0) {
+                return 0;
+            }
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        /**
+         * Gets the next bytes as separate buffer without copying them and skips them in this stream.
+         *
+         * @param length the number of bytes
+         * @return the buffer containing the next bytes
+         * @throws IOException if there are less remaining bytes than requested
+         */
+        ByteBuffer slice(int length) throws IOException {
+
+            if (length > buffer.remaining()) {
+                throw new IOException("Unexpected end of snapshot");
+            }
+
+            ByteBuffer result = buffer.slice();
+            result.limit(length);
+            buffer.position(buffer.position() + length);
+            return result;
+
+        }
+
+    }
+
+    /**
+     * Generated file whose content is read lazily from a memory mapped snapshot.
+     */
+    static class MappedFileObject extends SimpleJavaFileObject {
+
+        private final ByteBuffer content;
+
+        MappedFileObject(URI uri, Kind kind, ByteBuffer content) {
+            super(uri, kind);
+            this.content = content;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new ByteBufferInputStream(content.duplicate());
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+            return new String(GeneratedOutputSnapshot.readContent(openInputStream()), UTF_8);
+        }
+
+    }
+
+    /**
+     * Source file restored from a snapshot or received from another JVM.
+     * Keeps uri and name of the original source file.
+     */
+    static class StoredSourceFile extends SimpleJavaFileObject {
+
+        private final String name;
+        private final String content;
+
+        StoredSourceFile(URI uri, String name, String content) {
+            super(uri, Kind.SOURCE);
+            this.name = name;
+            this.content = content;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+
+    }
+
+    /**
+     * Diagnostic restored from a snapshot.
+     * The message is returned for all locales, since it has been localized when the snapshot was taken.
+     */
+    static class StoredDiagnostic implements Diagnostic<JavaFileObject> {
+
+        private final Kind kind;
+        private final JavaFileObject source;
+        private final long position;
+        private final long startPosition;
+        private final long endPosition;
+        private final long lineNumber;
+        private final long columnNumber;
+        private final String code;
+        private final String message;
+
+        StoredDiagnostic(Kind kind, JavaFileObject source, long position, long startPosition, long endPosition, long lineNumber, long columnNumber, String code, String message) {
+            this.kind = kind;
+            this.source = source;
+            this.position = position;
+            this.startPosition = startPosition;
+            this.endPosition = endPosition;
+            this.lineNumber = lineNumber;
+            this.columnNumber = columnNumber;
+            this.code = code;
+            this.message = message;
+        }
+
+        @Override
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        public JavaFileObject getSource() {
+            return source;
+        }
+
+        @Override
+        public long getPosition() {
+            return position;
+        }
+
+        @Override
+        public long getStartPosition() {
+            return startPosition;
+        }
+
+        @Override
+        public long getEndPosition() {
+            return endPosition;
+        }
+
+        @Override
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        @Override
+        public long getColumnNumber() {
+            return columnNumber;
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public String getMessage(Locale locale) {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return kind + ": " + message;
+        }
+
+    }
+
+}
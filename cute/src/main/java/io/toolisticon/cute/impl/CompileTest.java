@@ -1,12 +1,17 @@
 package io.toolisticon.cute.impl;
 
+import io.toolisticon.cute.CompilationPhasesResult;
+import io.toolisticon.cute.CompilationPhasesTest;
+import io.toolisticon.cute.CompileTestBuilder;
 import io.toolisticon.cute.Constants;
 import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.GeneratedFileObjectMatcher;
 import io.toolisticon.cute.InvalidTestConfigurationException;
+import io.toolisticon.cute.ProcessingApiUsageTest;
 import io.toolisticon.cute.extension.api.AssertionSpiServiceLocator;
 import io.toolisticon.cute.extension.api.ModuleSupportSpi;
 import io.toolisticon.cute.extension.api.ModuleSupportSpiServiceLocator;
+import io.toolisticon.cute.extension.api.TracingSpi;
 
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
@@ -15,10 +20,19 @@ import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Implementation of a compile test.
@@ -44,17 +58,81 @@ public class CompileTest {
      */
     public void executeTest() {
 
+        if (compileTestConfiguration.getTestName() == null) {
+            compileTestConfiguration.setTestName(CompileTestUtilities.getTestName());
+        }
+
+        CompileTestListeners.testStarted(compileTestConfiguration.getTestName());
+        TestProfiler.testStarted(compileTestConfiguration.getTestName());
+
         CompilationResult compilationResult = null;
+        FailingAssertionCollector failingAssertionCollector = new FailingAssertionCollector(compileTestConfiguration.getCollectAllFailures());
+        TracingSpi.Span verificationSpan = null;
+        Long verificationStartTime = null;
+        long verificationTime = 0L;
 
 
         try {
 
+            // validate configuration and instantiate processors
+            TracingSpi.Span configurationSpan = Tracing.begin(TracingSpi.Phase.CONFIGURATION, compileTestConfiguration.getTestName(), null);
+            try {
+                checkConfiguration();
+                compileTestConfiguration.getWrappedProcessors();
+            } finally {
+                configurationSpan.end(0L);
+            }
+
             // Do tests now
-            compilationResult = compile(compileTestConfiguration);
+            long compilationStartTime = System.nanoTime();
+            TestProfiler.setCompilationRunning(true);
+            try {
+                compilationResult = compileTestConfiguration.getForkedExecution() ? ForkedCompilation.compile(compileTestConfiguration) : compile(compileTestConfiguration);
+            } finally {
+                TestProfiler.setCompilationRunning(false);
+            }
+            long compilationTime = System.nanoTime() - compilationStartTime;
+
+            TestProfiler.addTime(TracingSpi.Phase.COMPILATION, compilationTime);
+
+            if (!CompileTestListeners.isEmpty()) {
+                CompileTestListeners.compilationFinished(
+                        compileTestConfiguration.getTestName(),
+                        Boolean.TRUE.equals(compilationResult.getCompilationSucceeded()),
+                        compilationResult.getDiagnosticCounts(),
+                        compilationResult.getCompileTestFileManager().getGeneratedBytes(),
+                        compilationTime);
+            }
 
+            verificationSpan = Tracing.begin(TracingSpi.Phase.VERIFICATION, compileTestConfiguration.getTestName(), null);
+            verificationStartTime = System.nanoTime();
 
             // Check if all processors have been applied
-            checkIfProcessorsHaveBeenApplied(compilationResult.getDiagnostics());
+            checkIfProcessorsHaveBeenApplied(compilationResult.getDiagnostics(), failingAssertionCollector);
+
+            // Check number of annotation processing rounds
+            RoundTrace roundTrace = compilationResult.getRoundTrace();
+            if (compileTestConfiguration.getMaxRounds() != null && roundTrace.getRounds().size() > compileTestConfiguration.getMaxRounds()) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_TOO_MANY_ROUNDS.produceMessage(roundTrace.getRounds().size(), compileTestConfiguration.getMaxRounds(), roundTrace)));
+            }
+
+            // Check number of processing api calls
+            for (Map.Entry<String, Long> entry : compileTestConfiguration.getMaxProcessingApiCalls().entrySet()) {
+                long calls = compilationResult.getProcessingApiCalls().getCalls(entry.getKey());
+                if (calls > entry.getValue()) {
+                    failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_TOO_MANY_PROCESSING_API_CALLS.produceMessage(entry.getKey(), calls, entry.getValue())));
+                }
+            }
+
+            // Check if files have been written concurrently
+            if (compileTestConfiguration.getConcurrentFileManager() && !compilationResult.getCompileTestFileManager().getMultiplyWrittenFileObjects().isEmpty()) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_FILES_WRITTEN_MORE_THAN_ONCE.produceMessage(compilationResult.getCompileTestFileManager().getMultiplyWrittenFileObjects())));
+            }
+
+            // Check if processors obey incremental annotation processing contract
+            if (compileTestConfiguration.getIncrementalProcessingType() != null) {
+                checkIncrementalProcessingContract(compilationResult.getCompileTestFileManager(), failingAssertionCollector);
+            }
 
             // check if error messages and shouldSucceed aren't set contradictionary
             if (compileTestConfiguration.getCompilationShouldSucceed() != null
@@ -67,124 +145,179 @@ public class CompileTest {
             // Check if compilation succeeded
             if (compileTestConfiguration.getCompilationShouldSucceed() != null && !compileTestConfiguration.getCompilationShouldSucceed().equals(compilationResult.getCompilationSucceeded())) {
 
-                throw new FailingAssertionException(
+                failingAssertionCollector.report(new FailingAssertionException(
                         compileTestConfiguration.getCompilationShouldSucceed()
-                                ? Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_SUCCEEDED_BUT_FAILED.produceMessage() + "\nERRORS:\n" + CompileTestUtilities.getMessages(compilationResult.getDiagnostics(), Diagnostic.Kind.ERROR)
+                                ? Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_SUCCEEDED_BUT_FAILED.produceMessage() + "\nERRORS:\n" + CompileTestUtilities.getMessages(compilationResult.getDiagnostics(), Diagnostic.Kind.ERROR) + getDroppedDiagnosticsMessage(compilationResult, Diagnostic.Kind.ERROR)
                                 : Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED.produceMessage()
-                );
+                ));
 
             }
 
 
             // Check messages
-            checkMessages(compilationResult.getDiagnostics());
+            checkMessages(compilationResult.getDiagnostics(), failingAssertionCollector);
 
+            // Check number of messages
+            for (Map.Entry<Diagnostic.Kind, Long> entry : compileTestConfiguration.getMaxMessageCounts().entrySet()) {
+                long count = compilationResult.getDiagnosticCount(entry.getKey());
+                if (count > entry.getValue()) {
+                    failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_TOO_MANY_MESSAGES.produceMessage(count, entry.getKey().name(), entry.getValue())));
+                }
+            }
 
-            for (CompileTestConfiguration.GeneratedJavaFileObjectCheck generatedJavaFileObjectCheck : this.compileTestConfiguration.getGeneratedJavaFileObjectChecks()) {
-                if (CompileTestConfiguration.FileObjectCheckType.EXISTS.equals(generatedJavaFileObjectCheck.getCheckType())) {
-                    if (!compilationResult.getCompileTestFileManager().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_DOESNT_EXIST.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
-                    } else {
 
-                        try {
+            // Check generated files
+            checkGeneratedFiles(compilationResult, failingAssertionCollector);
 
-                            JavaFileObject foundJavaFileObject = compilationResult.getCompileTestFileManager().getJavaFileForInput(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind());
+            // Run tests of generated classes
+            checkGeneratedClasses(compilationResult, failingAssertionCollector);
 
-                            // check with passed matcher
-                            if (generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher() != null) {
+            // Simulate incremental recompilations
+            checkIncrementalRecompilations(compilationResult, failingAssertionCollector);
 
-                                try {
-                                    if (!generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().check(foundJavaFileObject)) {
+            // Run tests of measured compiler phases
+            checkCompilationPhases(compilationResult, failingAssertionCollector);
 
-                                        // Throw Exception as fallback if not done by matcher
-                                        throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().getClass().getCanonicalName()));
+            // Run tests of counted processing api calls
+            checkProcessingApiUsage(compilationResult, failingAssertionCollector);
 
+            // Check generated files against snapshot
+            if (compileTestConfiguration.getSnapshotDirectory() != null) {
+                try {
+                    checkGeneratedOutputSnapshot(compilationResult);
+                } catch (FailingAssertionException e) {
+                    failingAssertionCollector.report(e);
+                }
+            }
 
-                                    }
-                                } catch (FailingAssertionException e) {
-                                    throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck), e.getMessage()));
-                                }
+            // Report all collected failures
+            failingAssertionCollector.throwIfFailed();
 
-                            }
+            verificationTime = System.nanoTime() - verificationStartTime;
 
-                        } catch (IOException e) {
-                            // ignore
-                        }
+        } catch (FailingAssertionException e) {
 
+            verificationTime = getElapsedTime(verificationStartTime);
+            CompileTestListeners.testFailed(compileTestConfiguration.getTestName(), e.getMessage());
 
-                    }
-                } else {
-                    if (compilationResult.getCompileTestFileManager().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
-                    }
-                }
+            // now trigger failing assertion, but also enrich message with debug output
+            AssertionSpiServiceLocator.locate().fail(e.getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, e));
 
+        } catch (RuntimeException e) {
 
+            verificationTime = getElapsedTime(verificationStartTime);
+            CompileTestListeners.testFailed(compileTestConfiguration.getTestName(), e.getCause() != null && FailingAssertionException.class.isAssignableFrom(e.getCause().getClass()) ? e.getCause().getMessage() : e.toString());
+
+            if (e.getCause() != null && FailingAssertionException.class.isAssignableFrom(e.getCause().getClass())) {
+                // now trigger failing assertion, but also enrich message with debug output
+                AssertionSpiServiceLocator.locate().fail(e.getCause().getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, (FailingAssertionException) e.getCause()));
+                throw (FailingAssertionException) (e.getCause());
             }
 
-            for (CompileTestConfiguration.GeneratedFileObjectCheck generatedFileObjectCheck : this.compileTestConfiguration.getGeneratedFileObjectChecks()) {
+            throw e;
 
-                if (CompileTestConfiguration.FileObjectCheckType.EXISTS.equals(generatedFileObjectCheck.getCheckType())) {
 
-                    if (!compilationResult.getCompileTestFileManager().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_DOESNT_EXIST.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
-                    } else {
+        } finally {
 
-                        try {
+            if (verificationSpan != null) {
+                verificationSpan.end(0L);
+            }
 
-                            FileObject foundFileObject = compilationResult.getCompileTestFileManager().getFileForInput(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName());
+            if (compilationResult != null) {
+                compilationResult.release();
+            }
 
-                            // check with passed matcher
-                            if (generatedFileObjectCheck.getGeneratedFileObjectMatchers() != null) {
+            CompileTestListeners.verificationFinished(compileTestConfiguration.getTestName(), verificationTime);
 
-                                try {
-                                    for (GeneratedFileObjectMatcher matcher : generatedFileObjectCheck.getGeneratedFileObjectMatchers()) {
-                                        if (!matcher.check(foundFileObject)) {
-                                            // Throw Exception as fallback if not done by matcher
-                                            throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(matcher.getClass().getCanonicalName()));
-                                        }
-                                    }
-                                } catch (FailingAssertionException e) {
-                                    throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getFileObjectInfoString(generatedFileObjectCheck), e.getMessage()));
-                                }
+            TestProfiler.addTime(TracingSpi.Phase.VERIFICATION, verificationTime);
+            TestProfiler.testFinished();
 
-                            }
+        }
 
-                        } catch (IOException e) {
-                            throw new FailingAssertionException(Constants.Messages.MESSAGE_TECHNICAL_ERROR.produceMessage(e.getMessage()));
-                        }
+    }
 
+    /**
+     * Gets the hint about diagnostics of a kind that haven't been retained.
+     *
+     * @param compilationResult the compilation result
+     * @param kind              the kind of diagnostics
+     * @return the hint prefixed with a line break, or an empty String if all diagnostics of the kind have been retained
+     */
+    private static String getDroppedDiagnosticsMessage(CompilationResult compilationResult, Diagnostic.Kind kind) {
+        long droppedDiagnostics = compilationResult.getDroppedDiagnosticCount(kind);
+        return droppedDiagnostics > 0 ? "\n" + Constants.Messages.MESSAGE_DIAGNOSTICS_NOT_RETAINED.produceMessage(droppedDiagnostics, Constants.SYSTEM_PROPERTY_MAX_RETAINED_DIAGNOSTICS) : "";
+    }
 
-                    }
-                } else {
-                    if (compilationResult.getCompileTestFileManager().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
-                        throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
-                    }
-                }
+    private static long getElapsedTime(Long startTime) {
+        return startTime != null ? System.nanoTime() - startTime : 0L;
+    }
 
-            }
+    /**
+     * Checks if the configuration is supported.
+     *
+     * @throws InvalidTestConfigurationException if configuration isn't supported
+     */
+    private void checkConfiguration() {
 
-        } catch (FailingAssertionException e) {
+        // class files aren't generated if compilation stops after annotation processing
+        if (compileTestConfiguration.getProcessorOnly() && expectsGeneratedClasses()) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_PROCESSOR_ONLY_AND_CLASS_CHECK.produceMessage());
+        }
 
-            // now trigger failing assertion, but also enrich message with debug output
-            AssertionSpiServiceLocator.locate().fail(e.getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, e));
+        // originating elements are recorded in the processors JVM only
+        if (compileTestConfiguration.getForkedExecution() && compileTestConfiguration.getIncrementalProcessingType() != null) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_INCREMENTAL_PROCESSING_AND_FORKED_EXECUTION.produceMessage());
+        }
 
-        } catch (RuntimeException e) {
+        // files written more than once are detected in the workers JVM only
+        if (compileTestConfiguration.getForkedExecution() && compileTestConfiguration.getConcurrentFileManager()) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_CONCURRENT_FILE_MANAGER_AND_FORKED_EXECUTION.produceMessage());
+        }
 
-            if (e.getCause() != null && FailingAssertionException.class.isAssignableFrom(e.getCause().getClass())) {
-                // now trigger failing assertion, but also enrich message with debug output
-                AssertionSpiServiceLocator.locate().fail(e.getCause().getMessage() + "\n" + DebugOutputGenerator.getDebugOutput(compilationResult, compileTestConfiguration, (FailingAssertionException) e.getCause()));
-                throw (FailingAssertionException) (e.getCause());
-            }
+        // incremental recompilation needs the originating elements and class files of the previous compilation
+        if ((compileTestConfiguration.getForkedExecution() || compileTestConfiguration.getProcessorOnly()) && !compileTestConfiguration.getIncrementalRecompilationChecks().isEmpty()) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_INCREMENTAL_RECOMPILATION_NOT_SUPPORTED.produceMessage());
+        }
 
-            throw e;
+        // compiler phases are measured in the workers JVM only
+        if (compileTestConfiguration.getForkedExecution() && compileTestConfiguration.getMeasureCompilationPhases()) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_COMPILATION_PHASES_AND_FORKED_EXECUTION.produceMessage());
+        }
 
+        // rounds are traced in the workers JVM only
+        if (compileTestConfiguration.getForkedExecution() && compileTestConfiguration.getMaxRounds() != null) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_ROUND_TRACE_AND_FORKED_EXECUTION.produceMessage());
+        }
+
+        // processing api calls are counted in the workers JVM only
+        if (compileTestConfiguration.getForkedExecution() && (compileTestConfiguration.getMeasureProcessingApiCalls() || !compileTestConfiguration.getMaxProcessingApiCalls().isEmpty())) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_PROCESSING_API_CALLS_AND_FORKED_EXECUTION.produceMessage());
+        }
 
+        // diagnostics are counted in the workers JVM only
+        if (compileTestConfiguration.getForkedExecution() && !compileTestConfiguration.getMaxMessageCounts().isEmpty()) {
+            throw new InvalidTestConfigurationException(Constants.Messages.MESSAGE_MESSAGE_COUNTS_AND_FORKED_EXECUTION.produceMessage());
         }
 
     }
 
 
+    private boolean expectsGeneratedClasses() {
+
+        if (!compileTestConfiguration.getGeneratedClassesChecks().isEmpty()) {
+            return true;
+        }
+
+        for (CompileTestConfiguration.GeneratedJavaFileObjectCheck generatedJavaFileObjectCheck : compileTestConfiguration.getGeneratedJavaFileObjectChecks()) {
+            if (generatedJavaFileObjectCheck.getCheckType() == CompileTestConfiguration.FileObjectCheckType.EXISTS && generatedJavaFileObjectCheck.getKind() == JavaFileObject.Kind.CLASS) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
     static String getJavaFileObjectInfoString(CompileTestConfiguration.GeneratedJavaFileObjectCheck generatedJavaFileObjectCheck) {
         return generatedJavaFileObjectCheck.getLocation() + "; " + generatedJavaFileObjectCheck.getClassName() + "; " + generatedJavaFileObjectCheck.getKind();
     }
@@ -200,24 +333,54 @@ public class CompileTest {
      * @return the compilation result
      */
     public static CompilationResult compile(CompileTestConfiguration compileTestConfiguration) {
+        return compile(compileTestConfiguration, Collections.<JavaFileObject>emptyList(), Collections.<JavaFileObject>emptyList());
+    }
+
+    /**
+     * Init the compilation and compile with files kept from a previous compilation.
+     *
+     * @param compileTestConfiguration the compile test configuration to use
+     * @param keptJavaFileObjects      the java files kept from a previous compilation
+     * @param keptFileObjects          the resources kept from a previous compilation
+     * @return the compilation result
+     */
+    static CompilationResult compile(CompileTestConfiguration compileTestConfiguration, List<JavaFileObject> keptJavaFileObjects, List<JavaFileObject> keptFileObjects) {
 
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        BoundedDiagnosticListener diagnostics = new BoundedDiagnosticListener(compileTestConfiguration);
 
-        StandardJavaFileManager stdJavaFileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        StandardJavaFileManager stdJavaFileManager = StandardFileManagerCache.getStandardJavaFileManager(compiler, diagnostics, compileTestConfiguration);
 
 
         // Configure java compilation task
-        CompileTestFileManager javaFileManager = new CompileTestFileManager(stdJavaFileManager);
+        CompilationContext compilationContext = new CompilationContext(stdJavaFileManager, compileTestConfiguration.getConcurrentFileManager());
+        CompileTestFileManager javaFileManager = compilationContext.getCompileTestFileManager();
+
+        for (JavaFileObject keptJavaFileObject : keptJavaFileObjects) {
+            javaFileManager.addPreviouslyGeneratedFileObject(keptJavaFileObject, true);
+        }
+        for (JavaFileObject keptFileObject : keptFileObjects) {
+            javaFileManager.addPreviouslyGeneratedFileObject(keptFileObject, false);
+        }
+
+        List<String> compilerOptions = compileTestConfiguration.getNormalizedCompilerOptions();
 
         JavaCompiler.CompilationTask compilationTask = compiler.getTask(
                 null,
                 javaFileManager,
                 diagnostics,
-                compileTestConfiguration.getCompilerOptions().isEmpty() ? null : compileTestConfiguration.getNormalizedCompilerOptions(),
+                compilerOptions.isEmpty() ? null : compilerOptions,
                 null,
                 compileTestConfiguration.getSourceFiles());
 
+        for (AnnotationProcessorWrapper processor : compileTestConfiguration.getWrappedProcessors()) {
+            processor.bindToCompilation(
+                    compilationContext,
+                    compileTestConfiguration.getTestName(),
+                    compileTestConfiguration.getIncrementalProcessingType() != null || !compileTestConfiguration.getIncrementalRecompilationChecks().isEmpty(),
+                    compileTestConfiguration.getMeasureProcessingApiCalls() || !compileTestConfiguration.getMaxProcessingApiCalls().isEmpty());
+        }
+
         compilationTask.setProcessors(compileTestConfiguration.getWrappedProcessors());
 
         // handle java 9 module support via SPI to be backward compatible with older Java versions prior to java 9
@@ -228,18 +391,27 @@ public class CompileTest {
             }
         }
 
-        Boolean compilationSucceeded = compilationTask.call();
+        CompilationPhaseTimes compilationPhaseTimes = compileTestConfiguration.getMeasureCompilationPhases() ? CompilationPhaseTimes.register(compilationTask) : null;
+
+        TracingSpi.Span span = Tracing.begin(TracingSpi.Phase.COMPILATION, compileTestConfiguration.getTestName(), null);
+        Boolean compilationSucceeded;
+        try {
+            compilationSucceeded = compilationTask.call();
+        } finally {
+            span.end(span.isEnabled() ? javaFileManager.getGeneratedBytes() : 0L);
+        }
 
-        return new CompilationResult(compilationSucceeded, diagnostics, javaFileManager);
+        return new CompilationResult(compilationSucceeded, diagnostics, compilationContext, compilationPhaseTimes);
 
     }
 
     /**
      * Allows checking if annotation processor has been applied during the compilation test.
      *
-     * @param diagnostics the DiagnosticCollector instance
+     * @param diagnostics               the DiagnosticCollector instance
+     * @param failingAssertionCollector the collector used to report failing assertions
      */
-    void checkIfProcessorsHaveBeenApplied(DiagnosticCollector<JavaFileObject> diagnostics) {
+    void checkIfProcessorsHaveBeenApplied(DiagnosticCollector<JavaFileObject> diagnostics, FailingAssertionCollector failingAssertionCollector) {
 
         Set<String> messages = CompileTestUtilities.getMessages(diagnostics, Diagnostic.Kind.NOTE);
 
@@ -252,17 +424,374 @@ public class CompileTest {
                 }
             }
 
-            throw new FailingAssertionException(Constants.Messages.MESSAGE_PROCESSOR_HASNT_BEEN_APPLIED.produceMessage(processor.getWrappedProcessor().getClass().getCanonicalName(), processor.getSupportedAnnotationTypes()));
+            failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_PROCESSOR_HASNT_BEEN_APPLIED.produceMessage(processor.getWrappedProcessor().getClass().getCanonicalName(), processor.getSupportedAnnotationTypes())));
+
+        }
+
+    }
+
+
+    /**
+     * Checks if the originating elements passed to the Filer for each generated file obey the configured incremental annotation processing contract.
+     *
+     * @param compileTestFileManager    the file manager containing the recorded originating elements
+     * @param failingAssertionCollector the collector used to report failing assertions
+     */
+    void checkIncrementalProcessingContract(CompileTestFileManager compileTestFileManager, FailingAssertionCollector failingAssertionCollector) {
+
+        Map<String, Set<String>> violatingFiles = new TreeMap<>();
+
+        for (Map.Entry<String, Set<String>> entry : compileTestFileManager.getOriginatingTypesOfGeneratedFiles().entrySet()) {
+
+            int numberOfOriginatingTypes = entry.getValue().size();
+            if (compileTestConfiguration.getIncrementalProcessingType() == CompileTestBuilder.IncrementalProcessingType.ISOLATING ? numberOfOriginatingTypes != 1 : numberOfOriginatingTypes == 0) {
+                violatingFiles.put(entry.getKey(), entry.getValue());
+            }
+
+        }
+
+        if (!violatingFiles.isEmpty()) {
+            failingAssertionCollector.report(new FailingAssertionException(
+                    compileTestConfiguration.getIncrementalProcessingType() == CompileTestBuilder.IncrementalProcessingType.ISOLATING
+                            ? Constants.Messages.MESSAGE_ISOLATING_PROCESSING_CONTRACT_VIOLATED.produceMessage(violatingFiles)
+                            : Constants.Messages.MESSAGE_AGGREGATING_PROCESSING_CONTRACT_VIOLATED.produceMessage(violatingFiles.keySet())
+            ));
+        }
+
+    }
+
+    /**
+     * Checks all generated JavaFileObjects and FileObjects.
+     * Checks will be done concurrently if configured and all failures will be reported together.
+     *
+     * @param compilationResult         the compilation result
+     * @param failingAssertionCollector the collector used to report failing assertions
+     */
+    void checkGeneratedFiles(final CompilationResult compilationResult, FailingAssertionCollector failingAssertionCollector) {
+
+        if (!compileTestConfiguration.getParallelGeneratedFileChecks()) {
+
+            for (CompileTestConfiguration.GeneratedJavaFileObjectCheck generatedJavaFileObjectCheck : this.compileTestConfiguration.getGeneratedJavaFileObjectChecks()) {
+                try {
+                    checkGeneratedJavaFileObject(compilationResult, generatedJavaFileObjectCheck);
+                } catch (FailingAssertionException e) {
+                    failingAssertionCollector.report(e);
+                }
+            }
+
+            for (CompileTestConfiguration.GeneratedFileObjectCheck generatedFileObjectCheck : this.compileTestConfiguration.getGeneratedFileObjectChecks()) {
+                try {
+                    checkGeneratedFileObject(compilationResult, generatedFileObjectCheck);
+                } catch (FailingAssertionException e) {
+                    failingAssertionCollector.report(e);
+                }
+            }
+
+            return;
+        }
+
+        List<Callable<FailingAssertionException>> checks = new ArrayList<>();
+
+        for (final CompileTestConfiguration.GeneratedJavaFileObjectCheck generatedJavaFileObjectCheck : this.compileTestConfiguration.getGeneratedJavaFileObjectChecks()) {
+            checks.add(new Callable<FailingAssertionException>() {
+                @Override
+                public FailingAssertionException call() {
+                    try {
+                        checkGeneratedJavaFileObject(compilationResult, generatedJavaFileObjectCheck);
+                        return null;
+                    } catch (FailingAssertionException e) {
+                        return e;
+                    }
+                }
+            });
+        }
+
+        for (final CompileTestConfiguration.GeneratedFileObjectCheck generatedFileObjectCheck : this.compileTestConfiguration.getGeneratedFileObjectChecks()) {
+            checks.add(new Callable<FailingAssertionException>() {
+                @Override
+                public FailingAssertionException call() {
+                    try {
+                        checkGeneratedFileObject(compilationResult, generatedFileObjectCheck);
+                        return null;
+                    } catch (FailingAssertionException e) {
+                        return e;
+                    }
+                }
+            });
+        }
+
+        if (checks.isEmpty()) {
+            return;
+        }
+
+        FailingAssertionCollector parallelFailingAssertionCollector = new FailingAssertionCollector(true);
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(checks.size(), Runtime.getRuntime().availableProcessors()));
+
+        try {
+
+            for (Future<FailingAssertionException> future : executorService.invokeAll(checks)) {
+                if (future.get() != null) {
+                    parallelFailingAssertionCollector.report(future.get());
+                }
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FailingAssertionException(Constants.Messages.MESSAGE_TECHNICAL_ERROR.produceMessage(e.getMessage()));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw (Error) e.getCause();
+        } finally {
+            executorService.shutdownNow();
+        }
 
+        if (failingAssertionCollector.isCollectingAllFailures()) {
+            for (FailingAssertionException failingAssertion : parallelFailingAssertionCollector.getFailingAssertions()) {
+                failingAssertionCollector.report(failingAssertion);
+            }
+        } else {
+            parallelFailingAssertionCollector.throwIfFailed();
         }
 
     }
 
+    /**
+     * Checks a generated JavaFileObject.
+     *
+     * @param compilationResult            the compilation result
+     * @param generatedJavaFileObjectCheck the check to do
+     */
+    void checkGeneratedJavaFileObject(CompilationResult compilationResult, CompileTestConfiguration.GeneratedJavaFileObjectCheck generatedJavaFileObjectCheck) {
+
+        if (CompileTestConfiguration.FileObjectCheckType.EXISTS.equals(generatedJavaFileObjectCheck.getCheckType())) {
+            if (!compilationResult.getCompileTestFileManager().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
+                throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_DOESNT_EXIST.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
+            } else {
+
+                try {
+
+                    JavaFileObject foundJavaFileObject = compilationResult.getCompileTestFileManager().getJavaFileForInput(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind());
+
+                    // check with passed matcher
+                    if (generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher() != null) {
+
+                        try {
+                            if (!generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().check(foundJavaFileObject)) {
+
+                                // Throw Exception as fallback if not done by matcher
+                                throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(generatedJavaFileObjectCheck.getGeneratedFileObjectMatcher().getClass().getCanonicalName()));
+
+
+                            }
+                        } catch (FailingAssertionException e) {
+                            throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck), e.getMessage()));
+                        }
+
+                    }
+
+                } catch (IOException e) {
+                    // ignore
+                }
+
+
+            }
+        } else {
+            if (compilationResult.getCompileTestFileManager().existsExpectedJavaFileObject(generatedJavaFileObjectCheck.getLocation(), generatedJavaFileObjectCheck.getClassName(), generatedJavaFileObjectCheck.getKind())) {
+                throw new FailingAssertionException(Constants.Messages.MESSAGE_JFO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getJavaFileObjectInfoString(generatedJavaFileObjectCheck)));
+            }
+        }
+
+    }
+
+    /**
+     * Checks a generated FileObject.
+     *
+     * @param compilationResult        the compilation result
+     * @param generatedFileObjectCheck the check to do
+     */
+    void checkGeneratedFileObject(CompilationResult compilationResult, CompileTestConfiguration.GeneratedFileObjectCheck generatedFileObjectCheck) {
+
+        if (CompileTestConfiguration.FileObjectCheckType.EXISTS.equals(generatedFileObjectCheck.getCheckType())) {
+
+            if (!compilationResult.getCompileTestFileManager().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
+                throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_DOESNT_EXIST.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
+            } else {
+
+                try {
+
+                    FileObject foundFileObject = compilationResult.getCompileTestFileManager().getFileForInput(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName());
+
+                    // check with passed matcher
+                    if (generatedFileObjectCheck.getGeneratedFileObjectMatchers() != null) {
+
+                        try {
+                            for (GeneratedFileObjectMatcher matcher : generatedFileObjectCheck.getGeneratedFileObjectMatchers()) {
+                                if (!matcher.check(foundFileObject)) {
+                                    // Throw Exception as fallback if not done by matcher
+                                    throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_COMPARISION_FAILED.produceMessage(matcher.getClass().getCanonicalName()));
+                                }
+                            }
+                        } catch (FailingAssertionException e) {
+                            throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_DOESNT_MATCH_MATCHER.produceMessage(getFileObjectInfoString(generatedFileObjectCheck), e.getMessage()));
+                        }
+
+                    }
+
+                } catch (IOException e) {
+                    throw new FailingAssertionException(Constants.Messages.MESSAGE_TECHNICAL_ERROR.produceMessage(e.getMessage()));
+                }
+
+
+            }
+        } else {
+            if (compilationResult.getCompileTestFileManager().existsExpectedFileObject(generatedFileObjectCheck.getLocation(), generatedFileObjectCheck.getPackageName(), generatedFileObjectCheck.getRelativeName())) {
+                throw new FailingAssertionException(Constants.Messages.MESSAGE_FO_EXISTS_BUT_SHOULD_BE_NON_EXISTENT.produceMessage(getFileObjectInfoString(generatedFileObjectCheck)));
+            }
+        }
+
+    }
+
+    /**
+     * Runs all configured tests of generated classes.
+     * Each test gets its own ClassLoader, so static state isn't shared between tests.
+     *
+     * @param compilationResult         the compilation result
+     * @param failingAssertionCollector the collector used to report failing assertions
+     */
+    void checkGeneratedClasses(CompilationResult compilationResult, FailingAssertionCollector failingAssertionCollector) {
+
+        for (CompileTestConfiguration.GeneratedClassesCheck generatedClassesCheck : compileTestConfiguration.getGeneratedClassesChecks()) {
+
+            ClassLoader classLoader = new InMemoryClassLoader(CompileTest.class.getClassLoader(), compilationResult.getCompileTestFileManager(), generatedClassesCheck.getClassLoadingPolicy());
+
+            try {
+                generatedClassesCheck.getGeneratedClassesTest().doTests(classLoader);
+            } catch (FailingAssertionException e) {
+                failingAssertionCollector.report(e);
+            } catch (AssertionError e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_GENERATED_CLASSES_TEST_FAILED.produceMessage(e.getMessage()), e));
+            } catch (Exception e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_GENERATED_CLASSES_TEST_FAILED.produceMessage(e.toString()), e));
+            }
+
+        }
+
+    }
+
+    /**
+     * Runs all configured tests of the measured compiler phase times.
+     *
+     * @param compilationResult         the compilation result
+     * @param failingAssertionCollector the collector used to report failing assertions
+     */
+    void checkCompilationPhases(CompilationResult compilationResult, FailingAssertionCollector failingAssertionCollector) {
+
+        if (compileTestConfiguration.getCompilationPhasesTests().isEmpty()) {
+            return;
+        }
+
+        // compilers that aren't javac based don't provide phase times
+        CompilationPhasesResult compilationPhasesResult = new CompilationPhasesResult(compilationResult.getCompilationPhaseTimes() != null
+                ? compilationResult.getCompilationPhaseTimes().getDurations()
+                : Collections.<String, Long>emptyMap());
+
+        for (CompilationPhasesTest compilationPhasesTest : compileTestConfiguration.getCompilationPhasesTests()) {
+
+            try {
+                compilationPhasesTest.doTests(compilationPhasesResult);
+            } catch (FailingAssertionException e) {
+                failingAssertionCollector.report(e);
+            } catch (AssertionError e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_COMPILATION_PHASES_TEST_FAILED.produceMessage(e.getMessage()), e));
+            } catch (Exception e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_COMPILATION_PHASES_TEST_FAILED.produceMessage(e.toString()), e));
+            }
+
+        }
+
+    }
+
+    /**
+     * Runs all configured tests of the counted processing api calls.
+     *
+     * @param compilationResult         the compilation result
+     * @param failingAssertionCollector the collector used to report failing assertions
+     */
+    void checkProcessingApiUsage(CompilationResult compilationResult, FailingAssertionCollector failingAssertionCollector) {
+
+        for (ProcessingApiUsageTest processingApiUsageTest : compileTestConfiguration.getProcessingApiUsageTests()) {
+
+            try {
+                processingApiUsageTest.doTests(compilationResult.getProcessingApiCalls().createResult());
+            } catch (FailingAssertionException e) {
+                failingAssertionCollector.report(e);
+            } catch (AssertionError e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_PROCESSING_API_USAGE_TEST_FAILED.produceMessage(e.getMessage()), e));
+            } catch (Exception e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_PROCESSING_API_USAGE_TEST_FAILED.produceMessage(e.toString()), e));
+            }
+
+        }
+
+    }
+
+    /**
+     * Simulates the configured incremental recompilations and runs their tests.
+     *
+     * @param compilationResult         the compilation result
+     * @param failingAssertionCollector the collector used to report failing assertions
+     */
+    void checkIncrementalRecompilations(CompilationResult compilationResult, FailingAssertionCollector failingAssertionCollector) {
+
+        for (CompileTestConfiguration.IncrementalRecompilationCheck incrementalRecompilationCheck : compileTestConfiguration.getIncrementalRecompilationChecks()) {
+
+            try {
+                incrementalRecompilationCheck.getIncrementalRecompilationTest().doTests(IncrementalRecompilation.simulate(compileTestConfiguration, compilationResult, incrementalRecompilationCheck));
+            } catch (FailingAssertionException e) {
+                failingAssertionCollector.report(e);
+            } catch (AssertionError e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_INCREMENTAL_RECOMPILATION_TEST_FAILED.produceMessage(e.getMessage()), e));
+            } catch (Exception e) {
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_INCREMENTAL_RECOMPILATION_TEST_FAILED.produceMessage(e.toString()), e));
+            }
+
+        }
+
+    }
+
+    /**
+     * Compares all generated files with the configured snapshot or updates the snapshot if requested via system property.
+     *
+     * @param compilationResult the compilation result
+     */
+    void checkGeneratedOutputSnapshot(CompilationResult compilationResult) {
+
+        File snapshotDirectory = compileTestConfiguration.getSnapshotDirectory();
+
+        try {
+
+            if (Boolean.getBoolean(Constants.SYSTEM_PROPERTY_UPDATE_SNAPSHOTS)) {
+                GeneratedOutputSnapshot.update(snapshotDirectory, compilationResult.getCompileTestFileManager());
+                return;
+            }
+
+            GeneratedOutputSnapshot.Report report = GeneratedOutputSnapshot.compare(snapshotDirectory, compilationResult.getCompileTestFileManager());
+            if (!report.isEmpty()) {
+                throw new FailingAssertionException(Constants.Messages.MESSAGE_GENERATED_OUTPUT_DOESNT_MATCH_SNAPSHOT.produceMessage(snapshotDirectory.getPath(), report));
+            }
+
+        } catch (IOException e) {
+            throw new FailingAssertionException(Constants.Messages.MESSAGE_TECHNICAL_ERROR.produceMessage(e.getMessage()));
+        }
+
+    }
 
     /**
      * Method to check for specific messages.
      */
-    void checkMessages(DiagnosticCollector<JavaFileObject> diagnostics) {
+    void checkMessages(DiagnosticCollector<JavaFileObject> diagnostics, FailingAssertionCollector failingAssertionCollector) {
 
         // Just check messages of matching kind
         Map<Diagnostic.Kind, List<CompileTestConfiguration.CompilerMessageCheck>> compileMessageChecks = compileTestConfiguration.getCompilerMessageCheckByKindMap();
@@ -317,7 +846,7 @@ public class CompileTest {
                 }
 
                 // Not found ==> assertion fails
-                throw new FailingAssertionException(Constants.Messages.MESSAGE_HAVENT_FOUND_MESSSAGE.produceMessage(messageToCheck.getExpectedMessage(), messageToCheck.getKind().name()));
+                failingAssertionCollector.report(new FailingAssertionException(Constants.Messages.MESSAGE_HAVENT_FOUND_MESSSAGE.produceMessage(messageToCheck.getExpectedMessage(), messageToCheck.getKind().name())));
 
             }
 
@@ -1,17 +1,25 @@
 package io.toolisticon.cute.impl;
 
+import io.toolisticon.cute.CompileTestBuilder;
+import io.toolisticon.cute.Constants;
+import io.toolisticon.cute.CompilationPhasesTest;
+import io.toolisticon.cute.GeneratedClassesTest;
+import io.toolisticon.cute.ProcessingApiUsageTest;
 import io.toolisticon.cute.GeneratedFileObjectMatcher;
+import io.toolisticon.cute.IncrementalRecompilationTest;
 
 import javax.annotation.processing.Processor;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -493,6 +501,67 @@ public class CompileTestConfiguration {
         }
     }
 
+    public static class GeneratedClassesCheck {
+
+        private final CompileTestBuilder.ClassLoadingPolicy classLoadingPolicy;
+        private final GeneratedClassesTest generatedClassesTest;
+
+        public GeneratedClassesCheck(CompileTestBuilder.ClassLoadingPolicy classLoadingPolicy, GeneratedClassesTest generatedClassesTest) {
+            this.classLoadingPolicy = classLoadingPolicy;
+            this.generatedClassesTest = generatedClassesTest;
+        }
+
+        public CompileTestBuilder.ClassLoadingPolicy getClassLoadingPolicy() {
+            return classLoadingPolicy;
+        }
+
+        public GeneratedClassesTest getGeneratedClassesTest() {
+            return generatedClassesTest;
+        }
+
+        @Override
+        public String toString() {
+            return "GeneratedClassesCheck{" +
+                    "classLoadingPolicy=" + classLoadingPolicy +
+                    ", generatedClassesTest=" + generatedClassesTest +
+                    '}';
+        }
+    }
+
+    public static class IncrementalRecompilationCheck {
+
+        private final List<JavaFileObject> changedSources;
+        private final List<JavaFileObject> removedSources;
+        private final IncrementalRecompilationTest incrementalRecompilationTest;
+
+        public IncrementalRecompilationCheck(List<JavaFileObject> changedSources, List<JavaFileObject> removedSources, IncrementalRecompilationTest incrementalRecompilationTest) {
+            this.changedSources = changedSources;
+            this.removedSources = removedSources;
+            this.incrementalRecompilationTest = incrementalRecompilationTest;
+        }
+
+        public List<JavaFileObject> getChangedSources() {
+            return changedSources;
+        }
+
+        public List<JavaFileObject> getRemovedSources() {
+            return removedSources;
+        }
+
+        public IncrementalRecompilationTest getIncrementalRecompilationTest() {
+            return incrementalRecompilationTest;
+        }
+
+        @Override
+        public String toString() {
+            return "IncrementalRecompilationCheck{" +
+                    "changedSources=" + changedSources +
+                    ", removedSources=" + removedSources +
+                    ", incrementalRecompilationTest=" + incrementalRecompilationTest +
+                    '}';
+        }
+    }
+
     public class PassInConfiguration {
         private final Class<?> passedInClass;
         private final Class<? extends Annotation> annotationToScanFor;
@@ -584,6 +653,96 @@ public class CompileTestConfiguration {
      */
     private final Set<GeneratedFileObjectCheck> generatedFileObjectChecks = new HashSet<>();
 
+    /**
+     * Runtime checks of generated classes.
+     */
+    private final List<GeneratedClassesCheck> generatedClassesChecks = new ArrayList<>();
+
+    /**
+     * Simulated incremental recompilations to check.
+     */
+    private final List<IncrementalRecompilationCheck> incrementalRecompilationChecks = new ArrayList<>();
+
+    /**
+     * Snapshot directory used to compare all generated files.
+     */
+    private File snapshotDirectory;
+
+    /**
+     * Flag that defines whether checks of generated files should be evaluated concurrently.
+     */
+    private boolean parallelGeneratedFileChecks = false;
+
+    /**
+     * Flag that defines whether all failing assertions should be collected and reported together.
+     */
+    private boolean collectAllFailures = false;
+
+    /**
+     * Flag that defines whether compilation should be done in a forked worker JVM.
+     */
+    private boolean forkedExecution = false;
+
+    /**
+     * Flag that defines whether time spent in the compiler phases should be measured.
+     */
+    private boolean measureCompilationPhases = false;
+
+    /**
+     * The tests of the measured compiler phase times.
+     */
+    private final List<CompilationPhasesTest> compilationPhasesTests = new ArrayList<>();
+
+    /**
+     * Flag that defines whether compilation should stop after annotation processing.
+     */
+    private boolean processorOnly = false;
+
+    /**
+     * Flag that defines whether a file manager should be used that supports generation of files by multiple threads.
+     */
+    private boolean concurrentFileManager = false;
+
+    /**
+     * The incremental annotation processing contract the processors must obey or null if it shouldn't be checked.
+     */
+    private CompileTestBuilder.IncrementalProcessingType incrementalProcessingType;
+
+    /**
+     * The maximal number of annotation processing rounds expected or null if it shouldn't be checked.
+     */
+    private Integer maxRounds;
+
+    /**
+     * Flag that defines whether calls of the processing api should be counted.
+     */
+    private boolean measureProcessingApiCalls = false;
+
+    /**
+     * The tests of the counted processing api calls.
+     */
+    private final List<ProcessingApiUsageTest> processingApiUsageTests = new ArrayList<>();
+
+    /**
+     * The maximal number of calls expected per processing api method.
+     */
+    private final Map<String, Long> maxProcessingApiCalls = new LinkedHashMap<>();
+
+    /**
+     * The maximal number of compiler messages expected per kind.
+     */
+    private final Map<Diagnostic.Kind, Long> maxMessageCounts = new LinkedHashMap<>();
+
+    /**
+     * Flag that defines whether all diagnostics should be retained, regardless of configured message checks.
+     */
+    private boolean retainAllDiagnostics = false;
+
+    /**
+     * The name of the test, used for tracing - null if unknown.
+     */
+    private String testName;
+
     /**
      * Noarg constructor.
      */
@@ -617,6 +776,24 @@ public class CompileTestConfiguration {
 
         this.generatedJavaFileObjectChecks.addAll(source.getGeneratedJavaFileObjectChecks());
         this.generatedFileObjectChecks.addAll(source.getGeneratedFileObjectChecks());
+        this.generatedClassesChecks.addAll(source.getGeneratedClassesChecks());
+        this.incrementalRecompilationChecks.addAll(source.getIncrementalRecompilationChecks());
+        this.snapshotDirectory = source.getSnapshotDirectory();
+        this.parallelGeneratedFileChecks = source.getParallelGeneratedFileChecks();
+        this.collectAllFailures = source.getCollectAllFailures();
+        this.forkedExecution = source.getForkedExecution();
+        this.measureCompilationPhases = source.getMeasureCompilationPhases();
+        this.compilationPhasesTests.addAll(source.getCompilationPhasesTests());
+        this.processorOnly = source.getProcessorOnly();
+        this.concurrentFileManager = source.getConcurrentFileManager();
+        this.incrementalProcessingType = source.getIncrementalProcessingType();
+        this.maxRounds = source.getMaxRounds();
+        this.measureProcessingApiCalls = source.getMeasureProcessingApiCalls();
+        this.processingApiUsageTests.addAll(source.getProcessingApiUsageTests());
+        this.maxProcessingApiCalls.putAll(source.getMaxProcessingApiCalls());
+        this.maxMessageCounts.putAll(source.getMaxMessageCounts());
+        this.retainAllDiagnostics = source.getRetainAllDiagnostics();
+        this.testName = source.getTestName();
 
         this.passInConfiguration = source.passInConfiguration;
 
@@ -778,6 +955,10 @@ public class CompileTestConfiguration {
             }
         }
 
+        if (processorOnly) {
+            normalizedCompilerOptions.add("-proc:only");
+        }
+
         return normalizedCompilerOptions;
 
     }
@@ -889,6 +1070,156 @@ public class CompileTestConfiguration {
         return generatedFileObjectChecks;
     }
 
+    public void addGeneratedClassesCheck(CompileTestBuilder.ClassLoadingPolicy classLoadingPolicy, GeneratedClassesTest generatedClassesTest) {
+        this.generatedClassesChecks.add(new GeneratedClassesCheck(classLoadingPolicy, generatedClassesTest));
+    }
+
+    public List<GeneratedClassesCheck> getGeneratedClassesChecks() {
+        return generatedClassesChecks;
+    }
+
+    public void addIncrementalRecompilationCheck(List<JavaFileObject> changedSources, List<JavaFileObject> removedSources, IncrementalRecompilationTest incrementalRecompilationTest) {
+        this.incrementalRecompilationChecks.add(new IncrementalRecompilationCheck(changedSources, removedSources, incrementalRecompilationTest));
+    }
+
+    public List<IncrementalRecompilationCheck> getIncrementalRecompilationChecks() {
+        return incrementalRecompilationChecks;
+    }
+
+    public File getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    public void setSnapshotDirectory(File snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    public boolean getParallelGeneratedFileChecks() {
+        return parallelGeneratedFileChecks;
+    }
+
+    public void setParallelGeneratedFileChecks(boolean parallelGeneratedFileChecks) {
+        this.parallelGeneratedFileChecks = parallelGeneratedFileChecks;
+    }
+
+    public boolean getCollectAllFailures() {
+        return collectAllFailures;
+    }
+
+    public void setCollectAllFailures(boolean collectAllFailures) {
+        this.collectAllFailures = collectAllFailures;
+    }
+
+    public boolean getForkedExecution() {
+        return forkedExecution;
+    }
+
+    public void setForkedExecution(boolean forkedExecution) {
+        this.forkedExecution = forkedExecution;
+    }
+
+    public boolean getMeasureCompilationPhases() {
+        return measureCompilationPhases;
+    }
+
+    public void setMeasureCompilationPhases(boolean measureCompilationPhases) {
+        this.measureCompilationPhases = measureCompilationPhases;
+    }
+
+    public void addCompilationPhasesTest(CompilationPhasesTest compilationPhasesTest) {
+        this.compilationPhasesTests.add(compilationPhasesTest);
+    }
+
+    public List<CompilationPhasesTest> getCompilationPhasesTests() {
+        return compilationPhasesTests;
+    }
+
+    public boolean getProcessorOnly() {
+        return processorOnly;
+    }
+
+    public void setProcessorOnly(boolean processorOnly) {
+        this.processorOnly = processorOnly;
+    }
+
+    public boolean getConcurrentFileManager() {
+        return concurrentFileManager;
+    }
+
+    public void setConcurrentFileManager(boolean concurrentFileManager) {
+        this.concurrentFileManager = concurrentFileManager;
+    }
+
+    public CompileTestBuilder.IncrementalProcessingType getIncrementalProcessingType() {
+        return incrementalProcessingType;
+    }
+
+    public void setIncrementalProcessingType(CompileTestBuilder.IncrementalProcessingType incrementalProcessingType) {
+        this.incrementalProcessingType = incrementalProcessingType;
+    }
+
+    public Integer getMaxRounds() {
+        return maxRounds;
+    }
+
+    public void setMaxRounds(Integer maxRounds) {
+        this.maxRounds = maxRounds;
+    }
+
+    public boolean getMeasureProcessingApiCalls() {
+        return measureProcessingApiCalls;
+    }
+
+    public void setMeasureProcessingApiCalls(boolean measureProcessingApiCalls) {
+        this.measureProcessingApiCalls = measureProcessingApiCalls;
+    }
+
+    public void addProcessingApiUsageTest(ProcessingApiUsageTest processingApiUsageTest) {
+        this.processingApiUsageTests.add(processingApiUsageTest);
+    }
+
+    public List<ProcessingApiUsageTest> getProcessingApiUsageTests() {
+        return processingApiUsageTests;
+    }
+
+    public void addMaxProcessingApiCalls(String method, long maxCalls) {
+
+        if (!ProcessingApiCalls.isInstrumentedMethod(method)) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_UNKNOWN_PROCESSING_API_METHOD.produceMessage(method));
+        }
+
+        this.maxProcessingApiCalls.put(method, maxCalls);
+
+    }
+
+    public Map<String, Long> getMaxProcessingApiCalls() {
+        return maxProcessingApiCalls;
+    }
+
+    public void addMaxMessageCount(Diagnostic.Kind kind, long maxCount) {
+        this.maxMessageCounts.put(kind, maxCount);
+    }
+
+    public Map<Diagnostic.Kind, Long> getMaxMessageCounts() {
+        return maxMessageCounts;
+    }
+
+    public boolean getRetainAllDiagnostics() {
+        return retainAllDiagnostics;
+    }
+
+    public void setRetainAllDiagnostics(boolean retainAllDiagnostics) {
+        this.retainAllDiagnostics = retainAllDiagnostics;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public void setTestName(String testName) {
+        this.testName = testName;
+    }
+
     public Class<? extends Throwable> getExpectedThrownException() {
         return expectedThrownException;
     }
@@ -916,6 +1247,24 @@ public class CompileTestConfiguration {
                 ",\n\t compilerMessageChecks=" + compilerMessageChecks +
                 ",\n\t generatedJavaFileObjectChecks=" + generatedJavaFileObjectChecks +
                 ",\n\t generatedFileObjectChecks=" + generatedFileObjectChecks +
+                ",\n\t generatedClassesChecks=" + generatedClassesChecks +
+                ",\n\t incrementalRecompilationChecks=" + incrementalRecompilationChecks +
+                ",\n\t snapshotDirectory=" + snapshotDirectory +
+                ",\n\t parallelGeneratedFileChecks=" + parallelGeneratedFileChecks +
+                ",\n\t collectAllFailures=" + collectAllFailures +
+                ",\n\t forkedExecution=" + forkedExecution +
+                ",\n\t measureCompilationPhases=" + measureCompilationPhases +
+                ",\n\t compilationPhasesTests=" + compilationPhasesTests +
+                ",\n\t processorOnly=" + processorOnly +
+                ",\n\t concurrentFileManager=" + concurrentFileManager +
+                ",\n\t incrementalProcessingType=" + incrementalProcessingType +
+                ",\n\t maxRounds=" + maxRounds +
+                ",\n\t measureProcessingApiCalls=" + measureProcessingApiCalls +
+                ",\n\t processingApiUsageTests=" + processingApiUsageTests +
+                ",\n\t maxProcessingApiCalls=" + maxProcessingApiCalls +
+                ",\n\t maxMessageCounts=" + maxMessageCounts +
+                ",\n\t retainAllDiagnostics=" + retainAllDiagnostics +
+                ",\n\t testName=" + testName +
                 ",\n\t passInConfiguration=" + passInConfiguration +
                 "\n" +
                 '}';
@@ -8,21 +8,27 @@ import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.SimpleJavaFileObject;
 import javax.tools.StandardJavaFileManager;
-import java.io.ByteArrayInputStream;
+import javax.tools.StandardLocation;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Forwarding file manager to be able to test for generated sources and resources
@@ -30,50 +36,394 @@ import java.util.Map;
 class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
 
 
+    /**
+     * Index of generated files per location.
+     * <p>
+     * Files are indexed by location name and resource name (e.g. "io/toolisticon/Test.java"), so lookups don't need to create and parse URIs.
+     * The list of all files is materialized lazily and shared as read-only view until the next file is added.
+     * <p>
+     * The concurrent variant can be used by multiple threads. Its files aren't ordered and the list of all files is materialized on each call.
+     *
+     * @param <T> the file object type
+     */
     public static class FileObjectCache<T extends FileObject> {
 
-        final Map<URI, T> fileObjectCache = new HashMap<>();
+        final Map<String, Map<String, T>> fileObjectsByLocation;
+
+        private final boolean concurrent;
+
+        /**
+         * Resource names of files that have been added more than once, prefixed by their location names.
+         */
+        private final Set<String> multiplyAddedFileObjects = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        private volatile List<T> entries;
 
+        public FileObjectCache() {
+            this(false);
+        }
+
+        public FileObjectCache(boolean concurrent) {
+            this.concurrent = concurrent;
+            this.fileObjectsByLocation = concurrent ? new ConcurrentHashMap<String, Map<String, T>>() : new LinkedHashMap<String, Map<String, T>>();
+        }
 
         public boolean contains(URI uri) {
-            return fileObjectCache.containsKey(uri);
+            String[] key = keyForUri(uri);
+            return contains(key[0], key[1]);
         }
 
         public T getFileObject(URI uri) {
-            return fileObjectCache.get(uri);
+            String[] key = keyForUri(uri);
+            return getFileObject(key[0], key[1]);
         }
 
         public void addFileObject(URI uri, T fileObject) {
-            fileObjectCache.put(uri, fileObject);
+            String[] key = keyForUri(uri);
+            addFileObject(key[0], key[1], fileObject);
         }
 
-        public Collection<T> getEntries() {
-            return fileObjectCache.values();
+        public boolean contains(String locationName, String resourceName) {
+            Map<String, T> fileObjects = fileObjectsByLocation.get(locationName);
+            return fileObjects != null && fileObjects.containsKey(resourceName);
+        }
+
+        public T getFileObject(String locationName, String resourceName) {
+            Map<String, T> fileObjects = fileObjectsByLocation.get(locationName);
+            return fileObjects != null ? fileObjects.get(resourceName) : null;
+        }
+
+        public void addFileObject(String locationName, String resourceName, T fileObject) {
+
+            Map<String, T> fileObjects = fileObjectsByLocation.get(locationName);
+            if (fileObjects == null) {
+                if (concurrent) {
+                    ((ConcurrentHashMap<String, Map<String, T>>) fileObjectsByLocation).putIfAbsent(locationName, new ConcurrentHashMap<String, T>());
+                    fileObjects = fileObjectsByLocation.get(locationName);
+                } else {
+                    fileObjects = new LinkedHashMap<>();
+                    fileObjectsByLocation.put(locationName, fileObjects);
+                }
+            }
+
+            if (fileObjects.put(resourceName, fileObject) != null) {
+                multiplyAddedFileObjects.add(locationName + '/' + resourceName);
+            }
+            entries = null;
+
+        }
+
+        /**
+         * Gets the files that have been added more than once.
+         *
+         * @return the location and resource names of all files added more than once
+         */
+        public Set<String> getMultiplyAddedFileObjects() {
+            return Collections.unmodifiableSet(multiplyAddedFileObjects);
+        }
+
+        /**
+         * Gets all files as read-only list.
+         *
+         * @return all files
+         */
+        public List<T> getEntries() {
+
+            List<T> result = entries;
+            if (result == null) {
+
+                List<T> allFileObjects = new ArrayList<>();
+                for (Map<String, T> fileObjects : fileObjectsByLocation.values()) {
+                    allFileObjects.addAll(fileObjects.values());
+                }
+
+                result = Collections.unmodifiableList(allFileObjects);
+
+                // files may be added concurrently while list is materialized
+                if (!concurrent) {
+                    entries = result;
+                }
+
+            }
+
+            return result;
+
         }
 
         public boolean isEmpty() {
-            return fileObjectCache.isEmpty();
+            return getEntries().isEmpty();
         }
 
+        /**
+         * Splits the scheme specific part of an uri like "mem://LOCATION/package/File.ext" into location and resource name.
+         *
+         * @param uri the uri
+         * @return an array containing location name and resource name
+         */
+        private static String[] keyForUri(URI uri) {
+
+            String path = uri.getSchemeSpecificPart();
+            if (path.startsWith("//")) {
+                path = path.substring(2);
+            }
+
+            int separatorIndex = path.indexOf('/');
+            return separatorIndex < 0 ? new String[]{path, ""} : new String[]{path.substring(0, separatorIndex), path.substring(separatorIndex + 1)};
+
+        }
 
     }
 
 
-    private final FileObjectCache<JavaFileObject> generatedJavaFileObjectCache = new FileObjectCache<>();
-    private final FileObjectCache<FileObject> generatedFileObjectCache = new FileObjectCache<>();
+    private final FileObjectCache<JavaFileObject> generatedJavaFileObjectCache;
+    private final FileObjectCache<FileObject> generatedFileObjectCache;
+
+    /**
+     * The qualified names of the originating top level types of files generated via the Filer, if recorded.
+     */
+    private final Map<String, Set<String>> originatingTypesOfGeneratedFiles = Collections.synchronizedMap(new TreeMap<String, Set<String>>());
+
+    /**
+     * The siblings passed by the compiler for generated files, e.g. the source files of class files.
+     */
+    private final Map<String, URI> siblingsOfGeneratedFiles = Collections.synchronizedMap(new TreeMap<String, URI>());
+
+    /**
+     * Class files kept from a previous compilation, which are provided via the class path.
+     */
+    private final Map<JavaFileObject, String> binaryNamesOfPreviouslyGeneratedClassFiles = new IdentityHashMap<>();
+
+    /**
+     * Files kept from a previous compilation, which are released by the file manager of the previous compilation.
+     */
+    private final Set<FileObject> previouslyGeneratedFileObjects = Collections.newSetFromMap(new IdentityHashMap<FileObject, Boolean>());
+
+    /**
+     * The listener notified about files opened for output, or null.
+     */
+    private final GeneratedFileListener generatedFileListener;
 
 
     public CompileTestFileManager(StandardJavaFileManager standardJavaFileManager) {
+        this(standardJavaFileManager, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param standardJavaFileManager the file manager to forward to
+     * @param concurrent              true if files may be generated by multiple threads
+     */
+    public CompileTestFileManager(StandardJavaFileManager standardJavaFileManager, boolean concurrent) {
+        this(standardJavaFileManager, concurrent, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param standardJavaFileManager the file manager to forward to
+     * @param concurrent              true if files may be generated by multiple threads
+     * @param generatedFileListener   the listener notified about files opened for output, or null
+     */
+    CompileTestFileManager(StandardJavaFileManager standardJavaFileManager, boolean concurrent, GeneratedFileListener generatedFileListener) {
         super(standardJavaFileManager);
 
+        this.generatedJavaFileObjectCache = new FileObjectCache<>(concurrent);
+        this.generatedFileObjectCache = new FileObjectCache<>(concurrent);
+        this.generatedFileListener = generatedFileListener;
+
     }
 
+    /**
+     * Gets all generated java file objects.
+     *
+     * @return a read-only list of all generated java file objects
+     */
     List<JavaFileObject> getGeneratedJavaFileObjects() {
-        return new ArrayList<JavaFileObject>(generatedJavaFileObjectCache.getEntries());
+        return generatedJavaFileObjectCache.getEntries();
     }
 
+    /**
+     * Gets all generated resources.
+     *
+     * @return a read-only list of all generated resources
+     */
     List<FileObject> getGeneratedFileObjects() {
-        return new ArrayList<FileObject>(generatedFileObjectCache.getEntries());
+        return generatedFileObjectCache.getEntries();
+    }
+
+    /**
+     * Gets the total size of all files generated in memory.
+     *
+     * @return the size in bytes
+     */
+    long getGeneratedBytes() {
+
+        long bytes = 0L;
+        for (JavaFileObject javaFileObject : getGeneratedJavaFileObjects()) {
+            bytes += javaFileObject instanceof InMemoryOutputJavaFileObject ? ((InMemoryOutputJavaFileObject) javaFileObject).getSize() : 0L;
+        }
+        for (FileObject fileObject : getGeneratedFileObjects()) {
+            bytes += fileObject instanceof InMemoryOutputJavaFileObject ? ((InMemoryOutputJavaFileObject) fileObject).getSize() : 0L;
+        }
+
+        return bytes;
+
+    }
+
+    /**
+     * Releases the contents of all files generated by the compilation, e.g. deletes the temporary files of spilled contents.
+     * Generated files mustn't be read after they have been released.
+     */
+    void releaseGeneratedFiles() {
+
+        List<FileObject> generatedFiles = new ArrayList<FileObject>(getGeneratedJavaFileObjects());
+        generatedFiles.addAll(getGeneratedFileObjects());
+
+        for (FileObject fileObject : generatedFiles) {
+            if (fileObject instanceof InMemoryOutputJavaFileObject && !previouslyGeneratedFileObjects.contains(fileObject)) {
+                ((InMemoryOutputJavaFileObject) fileObject).release();
+            }
+        }
+
+    }
+
+    /**
+     * Gets all generated files that have been opened for output more than once.
+     *
+     * @return the location and resource names of all files opened for output more than once
+     */
+    Set<String> getMultiplyWrittenFileObjects() {
+
+        Set<String> result = new TreeSet<>(generatedJavaFileObjectCache.getMultiplyAddedFileObjects());
+        result.addAll(generatedFileObjectCache.getMultiplyAddedFileObjects());
+        return result;
+
+    }
+
+    /**
+     * Records the originating top level types passed to the Filer for a generated file.
+     *
+     * @param fileObject       the generated file
+     * @param originatingTypes the qualified names of the originating top level types
+     */
+    void recordOriginatingTypes(FileObject fileObject, Set<String> originatingTypes) {
+        originatingTypesOfGeneratedFiles.put(GeneratedOutputSnapshot.getRelativePath(fileObject), originatingTypes);
+    }
+
+    /**
+     * Gets the recorded originating top level types of generated files.
+     *
+     * @return the originating top level types mapped by the location and resource name of generated files
+     */
+    Map<String, Set<String>> getOriginatingTypesOfGeneratedFiles() {
+        synchronized (originatingTypesOfGeneratedFiles) {
+            return new TreeMap<>(originatingTypesOfGeneratedFiles);
+        }
+    }
+
+    /**
+     * Gets the siblings passed by the compiler for generated files.
+     *
+     * @return the uris of the siblings mapped by the location and resource name of generated files
+     */
+    Map<String, URI> getSiblingsOfGeneratedFiles() {
+        synchronized (siblingsOfGeneratedFiles) {
+            return new TreeMap<>(siblingsOfGeneratedFiles);
+        }
+    }
+
+    /**
+     * Adds a file that has been generated by a previous compilation.
+     * Class files in the class output location will be provided to the compiler via the class path.
+     *
+     * @param fileObject       the generated file
+     * @param isJavaFileObject true if file was created as JavaFileObject, false if it was created as resource
+     */
+    void addPreviouslyGeneratedFileObject(JavaFileObject fileObject, boolean isJavaFileObject) {
+
+        addGeneratedFileObject(fileObject, isJavaFileObject);
+        previouslyGeneratedFileObjects.add(fileObject);
+
+        String relativePath = GeneratedOutputSnapshot.getRelativePath(fileObject);
+        String classOutputPrefix = StandardLocation.CLASS_OUTPUT.getName() + '/';
+        if (isJavaFileObject && fileObject.getKind() == JavaFileObject.Kind.CLASS && relativePath.startsWith(classOutputPrefix)) {
+            String resourceName = relativePath.substring(classOutputPrefix.length());
+            binaryNamesOfPreviouslyGeneratedClassFiles.put(fileObject, resourceName.substring(0, resourceName.length() - JavaFileObject.Kind.CLASS.extension.length()).replace('/', '.'));
+        }
+
+    }
+
+    @Override
+    public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
+
+        Iterable<JavaFileObject> result = super.list(location, packageName, kinds, recurse);
+
+        if (binaryNamesOfPreviouslyGeneratedClassFiles.isEmpty() || location != StandardLocation.CLASS_PATH || !kinds.contains(JavaFileObject.Kind.CLASS)) {
+            return result;
+        }
+
+        List<JavaFileObject> combinedResult = new ArrayList<>();
+        for (JavaFileObject javaFileObject : result) {
+            combinedResult.add(javaFileObject);
+        }
+
+        for (Map.Entry<JavaFileObject, String> entry : binaryNamesOfPreviouslyGeneratedClassFiles.entrySet()) {
+
+            int lastDotIndex = entry.getValue().lastIndexOf('.');
+            String classPackageName = lastDotIndex < 0 ? "" : entry.getValue().substring(0, lastDotIndex);
+
+            if (classPackageName.equals(packageName) || (recurse && (packageName.isEmpty() || classPackageName.startsWith(packageName + '.')))) {
+                combinedResult.add(entry.getKey());
+            }
+
+        }
+
+        return combinedResult;
+
+    }
+
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file) {
+
+        String binaryName = binaryNamesOfPreviouslyGeneratedClassFiles.get(file);
+        return binaryName != null ? binaryName : super.inferBinaryName(location, file);
+
+    }
+
+    /**
+     * Gets a generated file by its location and resource name.
+     * Generated class files and resources are both taken into account.
+     *
+     * @param location     the location to search in
+     * @param resourceName the resource name, using '/' as separator (e.g. "io/toolisticon/Test.class")
+     * @return the generated file or null if no file exists for passed resource name
+     */
+    FileObject getGeneratedFileObject(JavaFileManager.Location location, String resourceName) {
+
+        JavaFileObject javaFileObject = generatedJavaFileObjectCache.getFileObject(location.getName(), resourceName);
+        if (javaFileObject != null) {
+            return javaFileObject;
+        }
+
+        return generatedFileObjectCache.getFileObject(location.getName(), resourceName);
+
+    }
+
+    /**
+     * Adds a file that has been generated outside of this file manager, e.g. by a forked compilation or read from a snapshot.
+     *
+     * @param fileObject       the generated file
+     * @param isJavaFileObject true if file was created as JavaFileObject, false if it was created as resource
+     */
+    void addGeneratedFileObject(JavaFileObject fileObject, boolean isJavaFileObject) {
+
+        if (isJavaFileObject) {
+            generatedJavaFileObjectCache.addFileObject(fileObject.toUri(), fileObject);
+        } else {
+            generatedFileObjectCache.addFileObject(fileObject.toUri(), fileObject);
+        }
+
     }
 
     @Override
@@ -85,16 +435,22 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
     public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) throws IOException {
 
 
-        JavaFileObject result = new InMemoryOutputJavaFileObject(uriForJavaFileObject(location, className, kind), kind);
-        generatedJavaFileObjectCache.addFileObject(result.toUri(), result);
+        String resourceName = resourceNameForJavaFileObject(className, kind);
+        JavaFileObject result = new InMemoryOutputJavaFileObject(uriForResourceName(location, resourceName), kind);
+        generatedJavaFileObjectCache.addFileObject(location.getName(), resourceName, result);
+        recordSibling(location, resourceName, sibling);
+        notifyGeneratedFileListener(location, resourceName);
         return result;
 
     }
 
     @Override
     public FileObject getFileForOutput(Location location, String packageName, String relativeName, FileObject sibling) throws IOException {
-        JavaFileObject result = new InMemoryOutputJavaFileObject(uriForFileObject(location, packageName, relativeName), JavaFileObject.Kind.OTHER);
-        generatedFileObjectCache.addFileObject(result.toUri(), result);
+        String resourceName = resourceNameForFileObject(packageName, relativeName);
+        JavaFileObject result = new InMemoryOutputJavaFileObject(uriForResourceName(location, resourceName), JavaFileObject.Kind.OTHER);
+        generatedFileObjectCache.addFileObject(location.getName(), resourceName, result);
+        recordSibling(location, resourceName, sibling);
+        notifyGeneratedFileListener(location, resourceName);
         return result;
     }
 
@@ -103,12 +459,12 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         if (location.isOutputLocation()) {
 
-            URI uri = uriForJavaFileObject(location, className, kind);
+            JavaFileObject javaFileObject = generatedJavaFileObjectCache.getFileObject(location.getName(), resourceNameForJavaFileObject(className, kind));
 
-            if (generatedJavaFileObjectCache.contains(uri)) {
-                return generatedJavaFileObjectCache.getFileObject(uri);
+            if (javaFileObject != null) {
+                return javaFileObject;
             } else {
-                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_JAVAFILEOBJECT.produceMessage(uri.toString()));
+                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_JAVAFILEOBJECT.produceMessage(uriForResourceName(location, resourceNameForJavaFileObject(className, kind)).toString()));
             }
         }
         return super.getJavaFileForInput(location, className, kind);
@@ -120,12 +476,12 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         if (location.isOutputLocation()) {
 
-            URI uri = uriForFileObject(location, packageName, relativeName);
+            FileObject fileObject = generatedFileObjectCache.getFileObject(location.getName(), resourceNameForFileObject(packageName, relativeName));
 
-            if (generatedFileObjectCache.contains(uri)) {
-                return generatedFileObjectCache.getFileObject(uri);
+            if (fileObject != null) {
+                return fileObject;
             } else {
-                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_FILEOBJECT.produceMessage(uri.toString()));
+                throw new IllegalArgumentException(Constants.Messages.IAE_CANNOT_FIND_FILEOBJECT.produceMessage(uriForResourceName(location, resourceNameForFileObject(packageName, relativeName)).toString()));
             }
         }
         return super.getFileForInput(location, packageName, relativeName);
@@ -142,7 +498,7 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
      */
     public boolean existsExpectedJavaFileObject(JavaFileManager.Location location, String className, JavaFileObject.Kind kind) {
 
-        return this.generatedJavaFileObjectCache.contains(uriForJavaFileObject(location, className, kind));
+        return this.generatedJavaFileObjectCache.contains(location.getName(), resourceNameForJavaFileObject(className, kind));
 
     }
 
@@ -156,7 +512,7 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
      */
     public boolean existsExpectedFileObject(JavaFileManager.Location location, String packageName, String relativeName) {
 
-        return this.generatedFileObjectCache.contains(uriForFileObject(location, packageName, relativeName));
+        return this.generatedFileObjectCache.contains(location.getName(), resourceNameForFileObject(packageName, relativeName));
 
 
     }
@@ -168,25 +524,53 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
     }
 
+    /**
+     * Listener for files opened for output.
+     */
+    interface GeneratedFileListener {
+
+        /**
+         * Called when a file is opened for output.
+         *
+         * @param generatedFile the location and resource name of the generated file
+         */
+        void fileGenerated(String generatedFile);
+
+    }
+
+    private void notifyGeneratedFileListener(Location location, String resourceName) {
+        if (generatedFileListener != null) {
+            generatedFileListener.fileGenerated(location.getName() + '/' + resourceName);
+        }
+    }
+
 
-    private static URI uriForFileObject(Location location, String packageName, String relativeName) {
-        StringBuilder uri = new StringBuilder("mem://").append(location.getName()).append('/');
-        if (!packageName.isEmpty()) {
-            uri.append(packageName.replace('.', '/')).append('/');
+    private void recordSibling(Location location, String resourceName, FileObject sibling) {
+        if (sibling != null) {
+            siblingsOfGeneratedFiles.put(location.getName() + '/' + resourceName, sibling.toUri());
         }
-        uri.append(relativeName);
-        return URI.create(uri.toString());
     }
 
-    private static URI uriForJavaFileObject(Location location, String className, JavaFileObject.Kind kind) {
-        return URI.create(
-                "mem://" + location.getName() + '/' + className.replace('.', '/') + kind.extension);
+    private static String resourceNameForFileObject(String packageName, String relativeName) {
+        return packageName.isEmpty() ? relativeName : packageName.replace('.', '/') + '/' + relativeName;
+    }
+
+    private static String resourceNameForJavaFileObject(String className, JavaFileObject.Kind kind) {
+        return className.replace('.', '/') + kind.extension;
+    }
+
+    private static URI uriForResourceName(Location location, String resourceName) {
+        return URI.create("mem://" + location.getName() + '/' + resourceName);
     }
 
 
     public static class InMemoryOutputJavaFileObject extends SimpleJavaFileObject implements OutputStreamCallback {
 
-        private byte[] content = new byte[0];
+        /**
+         * Content is set on close of output streams, possibly by other threads than the ones reading it.
+         * It's stored on heap, compressed or on disk depending on its size.
+         */
+        private volatile TieredContent content = TieredContent.EMPTY;
 
         public InMemoryOutputJavaFileObject(URI uri, Kind kind) {
             super(uri, kind);
@@ -194,12 +578,31 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         @Override
         public void setContent(byte[] content) {
-            this.content = content != null ? content : new byte[0];
+            TieredContent previousContent = this.content;
+            this.content = content != null ? TieredContent.create(content) : TieredContent.EMPTY;
+            previousContent.release();
+        }
+
+        /**
+         * Releases the content, e.g. deletes its temporary file if it has been written to disk.
+         */
+        void release() {
+            content.release();
+            content = TieredContent.EMPTY;
+        }
+
+        /**
+         * Gets the size of the content.
+         *
+         * @return the size in bytes
+         */
+        public long getSize() {
+            return content.size();
         }
 
         @Override
         public InputStream openInputStream() throws IOException {
-            return new ByteArrayInputStream(content);
+            return content.openInputStream();
         }
 
         @Override
@@ -209,27 +612,36 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
 
         @Override
         public Reader openReader(boolean ignoreEncodingErrors) throws IOException {
-            return new InputStreamReader(openInputStream());
+            return new StringReader(content.getCharContent());
         }
 
+        /**
+         * Gets the content decoded as {@link TieredContent#CHARSET}.
+         * The content is decoded once and shared by all readers until the file is rewritten.
+         *
+         * @param ignoreEncodingErrors ignored
+         * @return the decoded content
+         * @throws IOException if content can't be read
+         */
         @Override
         public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
-            return new String(content);
+            return content.getCharContent();
         }
 
         @Override
         public Writer openWriter() throws IOException {
-            return new OutputStreamWriter(openOutputStream());
+            return new OutputStreamWriter(openOutputStream(), TieredContent.CHARSET);
         }
     }
 
     /**
      * Does call a callback function on close to set content.
-     * Have to check if it is sufficient to pass content on close.
+     * Content is just buffered while it's written, so the storage of the content is chosen only once.
      */
     public static class InMemoryOutputStream extends ByteArrayOutputStream {
 
         private final OutputStreamCallback outputStreamCallback;
+        private boolean closed;
 
         public InMemoryOutputStream(OutputStreamCallback outputStreamCallback) {
             this.outputStreamCallback = outputStreamCallback;
@@ -239,14 +651,12 @@ class CompileTestFileManager extends ForwardingJavaFileManager<StandardJavaFileM
         public void close() throws IOException {
 
             super.close();
-            outputStreamCallback.setContent(this.toByteArray());
 
-        }
+            if (!closed) {
+                closed = true;
+                outputStreamCallback.setContent(this.toByteArray());
+            }
 
-        @Override
-        public void write(byte[] b) throws IOException {
-            super.write(b);
-            outputStreamCallback.setContent(this.toByteArray());
         }
     }
 }
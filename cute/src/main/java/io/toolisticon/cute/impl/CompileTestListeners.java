@@ -0,0 +1,67 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.extension.api.CompileTestListenerSpi;
+import io.toolisticon.cute.extension.api.CompileTestListenerSpiServiceLocator;
+
+import javax.tools.Diagnostic;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+
+/**
+ * Notifies all {@link CompileTestListenerSpi} implementations found on the classpath.
+ */
+final class CompileTestListeners {
+
+    private final static List<CompileTestListenerSpi> LISTENERS = locateListeners();
+
+    /**
+     * Hidden constructor.
+     */
+    private CompileTestListeners() {
+
+    }
+
+    private static List<CompileTestListenerSpi> locateListeners() {
+        try {
+            return CompileTestListenerSpiServiceLocator.locateAll();
+        } catch (ServiceConfigurationError e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Checks if there are any listeners, so that expensive values passed to the listeners can be skipped otherwise.
+     *
+     * @return true if there are listeners, otherwise false
+     */
+    static boolean isEmpty() {
+        return LISTENERS.isEmpty();
+    }
+
+    static void testStarted(String testName) {
+        for (CompileTestListenerSpi listener : LISTENERS) {
+            listener.testStarted(testName);
+        }
+    }
+
+    static void compilationFinished(String testName, boolean succeeded, Map<Diagnostic.Kind, Long> diagnosticCounts, long generatedBytes, long compilationTime) {
+        for (CompileTestListenerSpi listener : LISTENERS) {
+            listener.compilationFinished(testName, succeeded, diagnosticCounts, generatedBytes, compilationTime);
+        }
+    }
+
+    static void testFailed(String testName, String message) {
+        for (CompileTestListenerSpi listener : LISTENERS) {
+            listener.testFailed(testName, message);
+        }
+    }
+
+    static void verificationFinished(String testName, long verificationTime) {
+        for (CompileTestListenerSpi listener : LISTENERS) {
+            listener.verificationFinished(testName, verificationTime);
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.toolisticon.cute.impl;
 
+import io.toolisticon.cute.CompileTestBuilder;
 
 import javax.annotation.processing.Processor;
 import javax.tools.Diagnostic;
@@ -84,5 +85,35 @@ final class CompileTestUtilities {
 
     }
 
+    /**
+     * Determines the name of the test by the stack of the current thread.
+     * The test is the first caller of the {@link io.toolisticon.cute.CompileTestBuilder}.
+     *
+     * @return the class and method name of the test, like "com.acme.ProcessorTest.test_success", or null if test isn't executed via CompileTestBuilder
+     */
+    static String getTestName() {
+
+        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+        for (int i = stackTrace.length - 2; i >= 0; i--) {
+
+            if (isCompileTestBuilderClass(stackTrace[i].getClassName())) {
+                return stackTrace[i + 1].getClassName() + "." + stackTrace[i + 1].getMethodName();
+            }
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Checks if a class name is the name of CompileTestBuilder or one of its nested classes.
+     *
+     * @param className the class name to check
+     * @return true if class name belongs to CompileTestBuilder, otherwise false
+     */
+    static boolean isCompileTestBuilderClass(String className) {
+        return className.equals(CompileTestBuilder.class.getName()) || className.startsWith(CompileTestBuilder.class.getName() + "$");
+    }
 
-}
\ No newline at end of file
+}
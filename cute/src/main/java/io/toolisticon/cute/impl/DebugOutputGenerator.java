@@ -1,8 +1,10 @@
 package io.toolisticon.cute.impl;
 
+import io.toolisticon.cute.Constants;
 import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.extension.api.ModuleSupportSpi;
 import io.toolisticon.cute.extension.api.ModuleSupportSpiServiceLocator;
+import io.toolisticon.cute.extension.api.TracingSpi;
 
 import javax.tools.Diagnostic;
 import javax.tools.FileObject;
@@ -30,6 +32,19 @@ final class DebugOutputGenerator {
 
     static String getDebugOutput(CompilationResult compilationResult, CompileTestConfiguration compileTestConfiguration, FailingAssertionException failingAssertionException) {
 
+        TracingSpi.Span span = Tracing.begin(TracingSpi.Phase.DEBUG_OUTPUT, compileTestConfiguration.getTestName(), null);
+        String debugOutput = null;
+        try {
+            debugOutput = createDebugOutput(compilationResult, compileTestConfiguration, failingAssertionException);
+            return debugOutput;
+        } finally {
+            span.end(debugOutput != null ? debugOutput.length() : 0L);
+        }
+
+    }
+
+    private static String createDebugOutput(CompilationResult compilationResult, CompileTestConfiguration compileTestConfiguration, FailingAssertionException failingAssertionException) {
+
         StringBuilder stringBuilder = new StringBuilder();
 
         // unexpected exception
@@ -56,6 +71,21 @@ final class DebugOutputGenerator {
             // Generated File objects
             stringBuilder.append(getDebugOutputHeader("GENERATED FILEOBJECTS")).append(getGeneratedFileOverview(compilationResult));
 
+            // Annotation processing rounds
+            if (!compilationResult.getRoundTrace().getRounds().isEmpty()) {
+                stringBuilder.append(getDebugOutputHeader("ANNOTATION PROCESSING ROUNDS")).append(compilationResult.getRoundTrace().toString());
+            }
+
+            // Calls of processing api
+            if (!compilationResult.getProcessingApiCalls().isEmpty()) {
+                stringBuilder.append(getDebugOutputHeader("PROCESSING API CALLS")).append(compilationResult.getProcessingApiCalls().toString());
+            }
+
+            // Time spent in compiler phases
+            if (compilationResult.getCompilationPhaseTimes() != null) {
+                stringBuilder.append(getDebugOutputHeader("COMPILATION PHASE TIMES")).append(compilationResult.getCompilationPhaseTimes().toString());
+            }
+
         }
 
         // Compile test configuration
@@ -88,7 +118,7 @@ final class DebugOutputGenerator {
      *
      * @return the build folder name
      */
-    private static String determineBuildFolder() {
+    static String determineBuildFolder() {
 
         if (new File("target").isDirectory()) {
             return "target";
@@ -118,7 +148,8 @@ final class DebugOutputGenerator {
         StringBuilder stringBuilder = new StringBuilder();
 
         Set<Diagnostic> filteredDiagnostics = CompileTestUtilities.getDiagnosticByKind(compilationResult.getDiagnostics(), kind);
-        if (!filteredDiagnostics.isEmpty()) {
+        long droppedDiagnostics = compilationResult.getDroppedDiagnosticCount(kind);
+        if (!filteredDiagnostics.isEmpty() || droppedDiagnostics > 0) {
             stringBuilder.append(getDebugOutputHeader(kind.toString() + " MESSAGES"));
 
             int i = 1;
@@ -135,6 +166,10 @@ final class DebugOutputGenerator {
                 i++;
             }
 
+            if (droppedDiagnostics > 0) {
+                stringBuilder.append(Constants.Messages.MESSAGE_DIAGNOSTICS_NOT_RETAINED.produceMessage(droppedDiagnostics, Constants.SYSTEM_PROPERTY_MAX_RETAINED_DIAGNOSTICS)).append("\n");
+            }
+
         }
 
         return stringBuilder.toString();
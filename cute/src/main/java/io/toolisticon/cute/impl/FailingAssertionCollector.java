@@ -0,0 +1,95 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+import io.toolisticon.cute.FailingAssertionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects FailingAssertionExceptions to be able to report all failing assertions at once.
+ */
+class FailingAssertionCollector {
+
+    private final boolean collectAllFailures;
+
+    private final List<FailingAssertionException> failingAssertions = new ArrayList<>();
+
+    /**
+     * Main constructor.
+     *
+     * @param collectAllFailures whether failing assertions should be collected or rethrown immediately
+     */
+    FailingAssertionCollector(boolean collectAllFailures) {
+        this.collectAllFailures = collectAllFailures;
+    }
+
+    /**
+     * Reports a failing assertion.
+     * The failing assertion will be collected if all failures should be collected, otherwise it will be thrown immediately.
+     *
+     * @param failingAssertionException the failing assertion
+     * @throws FailingAssertionException if failing assertions shouldn't be collected
+     */
+    void report(FailingAssertionException failingAssertionException) {
+
+        if (!collectAllFailures) {
+            throw failingAssertionException;
+        }
+
+        failingAssertions.add(failingAssertionException);
+    }
+
+    /**
+     * Checks whether failing assertions are collected or rethrown immediately.
+     *
+     * @return true if failing assertions are collected, otherwise false
+     */
+    boolean isCollectingAllFailures() {
+        return collectAllFailures;
+    }
+
+    /**
+     * Checks whether failing assertions have been collected.
+     *
+     * @return true if no failing assertion has been collected, otherwise false
+     */
+    boolean isEmpty() {
+        return failingAssertions.isEmpty();
+    }
+
+    /**
+     * Gets all collected failing assertions.
+     *
+     * @return the collected failing assertions in order of occurrence
+     */
+    List<FailingAssertionException> getFailingAssertions() {
+        return failingAssertions;
+    }
+
+    /**
+     * Throws a FailingAssertionException if at least one failing assertion has been collected.
+     * A single failing assertion will be rethrown, multiple failing assertions will be reported together.
+     *
+     * @throws FailingAssertionException if at least one failing assertion has been collected
+     */
+    void throwIfFailed() {
+
+        if (failingAssertions.isEmpty()) {
+            return;
+        }
+
+        if (failingAssertions.size() == 1) {
+            throw failingAssertions.get(0);
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < failingAssertions.size(); i++) {
+            stringBuilder.append(i + 1).append(") ").append(failingAssertions.get(i).getMessage()).append("\n");
+        }
+
+        throw new FailingAssertionException(Constants.Messages.MESSAGE_MULTIPLE_ASSERTIONS_FAILED.produceMessage(failingAssertions.size(), stringBuilder.toString()));
+
+    }
+
+}
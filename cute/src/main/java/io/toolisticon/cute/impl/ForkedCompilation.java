@@ -0,0 +1,203 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+import io.toolisticon.cute.FailingAssertionException;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executes the compilation of a compilation test in a worker JVM of the {@link ForkedCompilerPool}.
+ * <p>
+ * Processors are loaded by a new class loader of the worker for each compilation, so processors relying on static state are isolated from the test JVM
+ * and from previous compilations executed by the same worker.
+ * Workers not responding within the timeout configured via system property {@value Constants#SYSTEM_PROPERTY_FORK_TIMEOUT} are terminated.
+ * Diagnostics and generated files are transferred back and used to create a CompilationResult in the test JVM.
+ * Messages of transferred diagnostics are localized with the default locale of the worker JVM.
+ */
+final class ForkedCompilation {
+
+    /**
+     * Terminates workers of timed out compilations.
+     */
+    private final static Timer WATCHDOG = new Timer("cute-forked-compilation-watchdog", true);
+
+    /**
+     * Hidden constructor.
+     */
+    private ForkedCompilation() {
+
+    }
+
+    /**
+     * Compiles in a worker JVM.
+     *
+     * @param compileTestConfiguration the compile test configuration to use
+     * @return the compilation result
+     */
+    static CompilationResult compile(CompileTestConfiguration compileTestConfiguration) {
+
+        ForkedCompilerPool pool = ForkedCompilerPool.getInstance();
+
+        ForkedCompilerPool.Worker worker;
+        try {
+            worker = pool.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(Constants.Messages.ISE_FORKED_COMPILATION_FAILED.produceMessage(e.getMessage()), e);
+        } catch (IOException e) {
+            throw new IllegalStateException(Constants.Messages.ISE_FORKED_COMPILATION_FAILED.produceMessage(e.getMessage()), e);
+        }
+
+        final ForkedCompilerPool.Worker timedWorker = worker;
+        final AtomicBoolean timedOut = new AtomicBoolean();
+        final int timeout = Integer.getInteger(Constants.SYSTEM_PROPERTY_FORK_TIMEOUT, Constants.DEFAULT_FORK_TIMEOUT);
+
+        TimerTask timeoutTask = new TimerTask() {
+            @Override
+            public void run() {
+                timedOut.set(true);
+                timedWorker.destroy();
+            }
+        };
+        WATCHDOG.schedule(timeoutTask, timeout * 1000L);
+
+        boolean workerIsReusable = false;
+        try {
+
+            writeRequest(worker.getOutput(), compileTestConfiguration);
+            worker.getOutput().flush();
+
+            int status = worker.getInput().readInt();
+            if (status != ForkedCompilerWorker.STATUS_COMPILED) {
+                String message = CompilationResultSnapshot.readString(worker.getInput());
+                workerIsReusable = true;
+                throwException(status, message);
+            }
+
+            CompilationResult compilationResult = readCompilationResult(worker.getInput(), compileTestConfiguration);
+            workerIsReusable = true;
+            return compilationResult;
+
+        } catch (IOException e) {
+            if (timedOut.get()) {
+                throw new IllegalStateException(Constants.Messages.ISE_FORKED_COMPILATION_TIMED_OUT.produceMessage(timeout), e);
+            }
+            throw new IllegalStateException(Constants.Messages.ISE_FORKED_COMPILATION_FAILED.produceMessage(e.getMessage()), e);
+        } finally {
+            timeoutTask.cancel();
+            if (workerIsReusable && !timedOut.get()) {
+                pool.release(worker);
+            } else {
+                pool.discard(worker);
+            }
+        }
+
+    }
+
+    private static void throwException(int status, String message) {
+
+        switch (status) {
+            case ForkedCompilerWorker.STATUS_FAILING_ASSERTION:
+                throw new FailingAssertionException(message);
+            case ForkedCompilerWorker.STATUS_ASSERTION_ERROR:
+                throw new AssertionError(message);
+            default:
+                throw new IllegalStateException(Constants.Messages.ISE_FORKED_COMPILATION_FAILED.produceMessage(message));
+        }
+
+    }
+
+    private static void writeRequest(DataOutputStream output, CompileTestConfiguration compileTestConfiguration) throws IOException {
+
+        output.writeInt(ForkedCompilerWorker.COMMAND_COMPILE);
+
+        // compiler options
+        List<String> compilerOptions = compileTestConfiguration.getNormalizedCompilerOptions();
+
+        output.writeInt(compilerOptions.size());
+        for (String compilerOption : compilerOptions) {
+            CompilationResultSnapshot.writeString(output, compilerOption);
+        }
+
+        // modules
+        Set<String> modules = compileTestConfiguration.getModules();
+        output.writeInt(modules != null ? modules.size() : 0);
+        if (modules != null) {
+            for (String module : modules) {
+                CompilationResultSnapshot.writeString(output, module);
+            }
+        }
+
+        // expected exception
+        CompilationResultSnapshot.writeNullableString(output, compileTestConfiguration.getExpectedThrownException() != null ? compileTestConfiguration.getExpectedThrownException().getName() : null);
+
+        // processors
+        output.writeInt(compileTestConfiguration.getProcessorTypes().size() + compileTestConfiguration.getProcessorsWithExpectedExceptions().size());
+        for (Class<?> processorType : compileTestConfiguration.getProcessorTypes()) {
+            CompilationResultSnapshot.writeString(output, processorType.getName());
+            CompilationResultSnapshot.writeNullableString(output, null);
+        }
+        for (CompileTestConfiguration.ProcessorWithExpectedException processor : compileTestConfiguration.getProcessorsWithExpectedExceptions()) {
+            CompilationResultSnapshot.writeString(output, processor.getProcessorType().getName());
+            CompilationResultSnapshot.writeNullableString(output, processor.getThrowable() != null ? processor.getThrowable().getName() : null);
+        }
+
+        // sources
+        output.writeInt(compileTestConfiguration.getSourceFiles().size());
+        for (JavaFileObject sourceFile : compileTestConfiguration.getSourceFiles()) {
+            CompilationResultSnapshot.writeString(output, sourceFile.toUri().toString());
+            CompilationResultSnapshot.writeString(output, sourceFile.getName());
+            CompilationResultSnapshot.writeString(output, sourceFile.getCharContent(true).toString());
+        }
+
+    }
+
+    private static CompilationResult readCompilationResult(DataInputStream input, CompileTestConfiguration compileTestConfiguration) throws IOException {
+
+        // applied processors - notes expected by the test JVM are added after the compilation result has been read
+        List<AnnotationProcessorWrapper> appliedProcessors = new ArrayList<>();
+
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+
+            String processorType = CompilationResultSnapshot.readString(input);
+            String expectedThrownException = CompilationResultSnapshot.readNullableString(input);
+
+            for (AnnotationProcessorWrapper processor : compileTestConfiguration.getWrappedProcessors()) {
+                if (processor.getWrappedProcessor().getClass().getName().equals(processorType)
+                        && (expectedThrownException == null ? processor.getExpectedThrownException() == null : processor.getExpectedThrownException() != null && processor.getExpectedThrownException().getName().equals(expectedThrownException))) {
+                    appliedProcessors.add(processor);
+                }
+            }
+
+        }
+
+        // diagnostics should refer to the source files of the test JVM
+        Map<String, JavaFileObject> knownSources = new HashMap<>();
+        for (JavaFileObject sourceFile : compileTestConfiguration.getSourceFiles()) {
+            knownSources.put(sourceFile.toUri().toString(), sourceFile);
+        }
+
+        CompilationResult compilationResult = CompilationResultSnapshot.readContent(input, null, knownSources);
+
+        for (AnnotationProcessorWrapper processor : appliedProcessors) {
+            compilationResult.getDiagnostics().report(new CompilationResultSnapshot.StoredDiagnostic(Diagnostic.Kind.NOTE, null, Diagnostic.NOPOS, Diagnostic.NOPOS, Diagnostic.NOPOS, Diagnostic.NOPOS, Diagnostic.NOPOS, null, processor.getProcessorWasAppliedMessage()));
+        }
+
+        return compilationResult;
+
+    }
+
+}
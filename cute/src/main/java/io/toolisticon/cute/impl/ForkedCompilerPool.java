@@ -0,0 +1,205 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of long living worker JVMs used to execute compilation tests isolated from the test JVM.
+ * <p>
+ * Workers are started lazily with the classpath of the test JVM and are reused for subsequent compilations.
+ * The maximal number of workers can be configured via system property {@value Constants#SYSTEM_PROPERTY_FORK_COUNT}
+ * and defaults to the number of available processors.
+ */
+final class ForkedCompilerPool {
+
+    /**
+     * A single worker JVM.
+     */
+    static class Worker {
+
+        private final Process process;
+        private final DataOutputStream output;
+        private final DataInputStream input;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.output = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            this.input = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        DataOutputStream getOutput() {
+            return output;
+        }
+
+        DataInputStream getInput() {
+            return input;
+        }
+
+        void destroy() {
+            process.destroy();
+        }
+
+        static Worker start() throws IOException {
+
+            String javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+            Process process = new ProcessBuilder(javaExecutable, "-cp", System.getProperty("java.class.path"), ForkedCompilerWorker.class.getName()).start();
+            pipeToSystemErr(process.getErrorStream());
+
+            return new Worker(process);
+
+        }
+
+        private static void pipeToSystemErr(final InputStream inputStream) {
+
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        byte[] buffer = new byte[4096];
+                        int read = inputStream.read(buffer);
+                        while (read != -1) {
+                            System.err.write(buffer, 0, read);
+                            read = inputStream.read(buffer);
+                        }
+                    } catch (IOException e) {
+                        // worker has been terminated
+                    }
+                }
+            }, "cute-forked-worker-stderr");
+
+            thread.setDaemon(true);
+            thread.start();
+
+        }
+
+    }
+
+    private static ForkedCompilerPool instance;
+
+    private final static AtomicLong ACQUISITION_COUNT = new AtomicLong();
+    private final static AtomicLong REUSE_COUNT = new AtomicLong();
+
+    private final int maxWorkers;
+    private final List<Worker> workers = new ArrayList<>();
+    private final LinkedList<Worker> idleWorkers = new LinkedList<>();
+
+    ForkedCompilerPool(int maxWorkers) {
+        this.maxWorkers = maxWorkers;
+    }
+
+    /**
+     * Gets the shared pool instance.
+     * Workers of the shared pool will be terminated on shutdown of the test JVM.
+     *
+     * @return the shared pool instance
+     */
+    static synchronized ForkedCompilerPool getInstance() {
+
+        if (instance == null) {
+
+            instance = new ForkedCompilerPool(Integer.getInteger(Constants.SYSTEM_PROPERTY_FORK_COUNT, Runtime.getRuntime().availableProcessors()));
+
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    instance.shutdown();
+                }
+            }, "cute-forked-worker-shutdown"));
+
+        }
+
+        return instance;
+    }
+
+    /**
+     * Gets an idle worker or starts a new one. Blocks if all workers are busy.
+     *
+     * @return the worker
+     * @throws IOException          if worker JVM can't be started
+     * @throws InterruptedException if interrupted while waiting for a worker
+     */
+    synchronized Worker acquire() throws IOException, InterruptedException {
+
+        while (idleWorkers.isEmpty() && workers.size() >= maxWorkers) {
+            wait();
+        }
+
+        ACQUISITION_COUNT.incrementAndGet();
+
+        if (!idleWorkers.isEmpty()) {
+            REUSE_COUNT.incrementAndGet();
+            return idleWorkers.removeFirst();
+        }
+
+        Worker worker = Worker.start();
+        workers.add(worker);
+        return worker;
+
+    }
+
+    /**
+     * Gets the number of workers acquired from all pools.
+     *
+     * @return the number of acquired workers
+     */
+    static long getAcquisitionCount() {
+        return ACQUISITION_COUNT.get();
+    }
+
+    /**
+     * Gets the number of acquisitions that have been served by an idle worker instead of starting a new worker JVM.
+     *
+     * @return the number of reused workers
+     */
+    static long getReuseCount() {
+        return REUSE_COUNT.get();
+    }
+
+    /**
+     * Returns a worker to the pool.
+     *
+     * @param worker the worker
+     */
+    synchronized void release(Worker worker) {
+        idleWorkers.addLast(worker);
+        notifyAll();
+    }
+
+    /**
+     * Terminates a worker that is in an undefined state.
+     *
+     * @param worker the worker
+     */
+    synchronized void discard(Worker worker) {
+        worker.destroy();
+        workers.remove(worker);
+        notifyAll();
+    }
+
+    /**
+     * Terminates all workers.
+     */
+    synchronized void shutdown() {
+
+        for (Worker worker : workers) {
+            worker.destroy();
+        }
+
+        workers.clear();
+        idleWorkers.clear();
+
+    }
+
+}
@@ -0,0 +1,325 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.FailingAssertionException;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Main class of the worker JVMs used for forked compilation tests.
+ * <p>
+ * A worker reads compilation requests from stdin and writes the compilation results to stdout until stdin is closed.
+ * Output of processors written to System.out is redirected to System.err to keep the protocol stream clean.
+ * <p>
+ * Processors and expected exceptions are loaded by a new {@link RequestClassLoader} for each request,
+ * so static state of processors doesn't leak into subsequent compilations executed by the same worker.
+ * <p>
+ * Request: COMMAND_COMPILE, compiler options, modules, expected exception, processors, sources.
+ * <br>
+ * Response: status, followed either by a message or by the applied processors and the content of a {@link CompilationResultSnapshot}.
+ */
+public final class ForkedCompilerWorker {
+
+    final static int COMMAND_COMPILE = 1;
+
+    final static int STATUS_COMPILED = 0;
+    final static int STATUS_FAILING_ASSERTION = 1;
+    final static int STATUS_ASSERTION_ERROR = 2;
+    final static int STATUS_EXCEPTION = 3;
+
+    /**
+     * Class loader of a single request, which loads classes of the classpath itself instead of delegating to the application class loader.
+     * Classes of the JDK and of cute are shared, so they are still loaded by the application class loader.
+     */
+    static class RequestClassLoader extends URLClassLoader {
+
+        private final static String[] SHARED_PACKAGE_PREFIXES = {"java.", "javax.", "jdk.", "sun.", "com.sun.", "org.w3c.", "org.xml."};
+
+        RequestClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+            for (String sharedPackagePrefix : SHARED_PACKAGE_PREFIXES) {
+                if (name.startsWith(sharedPackagePrefix)) {
+                    return super.loadClass(name, resolve);
+                }
+            }
+
+            synchronized (this) {
+
+                Class<?> result = findLoadedClass(name);
+                if (result == null) {
+                    try {
+                        result = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        result = super.loadClass(name, false);
+                    }
+                }
+
+                if (resolve) {
+                    resolveClass(result);
+                }
+
+                return result;
+
+            }
+
+        }
+
+        /**
+         * Creates a class loader for the classpath of the worker JVM without the location of cute itself.
+         *
+         * @return the class loader
+         */
+        static RequestClassLoader create() {
+
+            File cuteLocation = null;
+            CodeSource codeSource = ForkedCompilerWorker.class.getProtectionDomain().getCodeSource();
+            if (codeSource != null && codeSource.getLocation() != null) {
+                try {
+                    cuteLocation = new File(codeSource.getLocation().toURI()).getAbsoluteFile();
+                } catch (URISyntaxException e) {
+                    // share nothing but the JDK then
+                }
+            }
+
+            List<URL> urls = new ArrayList<>();
+            for (String classpathEntry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+
+                File file = new File(classpathEntry).getAbsoluteFile();
+                if (classpathEntry.isEmpty() || file.equals(cuteLocation)) {
+                    continue;
+                }
+
+                try {
+                    urls.add(file.toURI().toURL());
+                } catch (MalformedURLException e) {
+                    // skip entry, its classes will be loaded by the application class loader
+                }
+
+            }
+
+            return new RequestClassLoader(urls.toArray(new URL[urls.size()]), ForkedCompilerWorker.class.getClassLoader());
+
+        }
+
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private ForkedCompilerWorker() {
+
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        DataInputStream input = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+        // keep protocol stream clean
+        System.setOut(System.err);
+
+        while (true) {
+
+            int command;
+            try {
+                command = input.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+
+            if (command != COMMAND_COMPILE) {
+                return;
+            }
+
+            handleCompileRequest(input, output);
+            output.flush();
+
+        }
+
+    }
+
+    static void handleCompileRequest(DataInputStream input, DataOutputStream output) throws IOException {
+
+        RequestClassLoader requestClassLoader = RequestClassLoader.create();
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(requestClassLoader);
+
+        try {
+            handleCompileRequest(input, output, requestClassLoader);
+        } finally {
+            currentThread.setContextClassLoader(contextClassLoader);
+            // URLClassLoaders are closeable since Java 7
+            if (requestClassLoader instanceof Closeable) {
+                ((Closeable) requestClassLoader).close();
+            }
+        }
+
+    }
+
+    private static void handleCompileRequest(DataInputStream input, DataOutputStream output, ClassLoader classLoader) throws IOException {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        String errorMessage = null;
+
+        // message checks are done by the client
+        compileTestConfiguration.setRetainAllDiagnostics(true);
+
+        try {
+            readRequest(input, compileTestConfiguration, classLoader);
+        } catch (ClassNotFoundException e) {
+            errorMessage = e.toString();
+        }
+
+        if (errorMessage != null) {
+            output.writeInt(STATUS_EXCEPTION);
+            CompilationResultSnapshot.writeString(output, errorMessage);
+            return;
+        }
+
+        CompilationResult compilationResult;
+        try {
+            compilationResult = CompileTest.compile(compileTestConfiguration);
+        } catch (Throwable e) {
+            writeThrowable(output, e);
+            return;
+        }
+
+        output.writeInt(STATUS_COMPILED);
+        try {
+            writeCompilationResult(output, compileTestConfiguration, compilationResult);
+        } finally {
+            compilationResult.release();
+        }
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void readRequest(DataInputStream input, CompileTestConfiguration compileTestConfiguration, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+
+        // compiler options
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            compileTestConfiguration.addCompilerOptions(CompilationResultSnapshot.readString(input));
+        }
+
+        // modules
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            compileTestConfiguration.addModules(CompilationResultSnapshot.readString(input));
+        }
+
+        // expected exception
+        String expectedThrownException = CompilationResultSnapshot.readNullableString(input);
+        if (expectedThrownException != null) {
+            compileTestConfiguration.setExpectedThrownException((Class<? extends Throwable>) loadClass(expectedThrownException, classLoader));
+        }
+
+        // processors
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            Class<? extends Processor> processorType = (Class<? extends Processor>) loadClass(CompilationResultSnapshot.readString(input), classLoader);
+            String exception = CompilationResultSnapshot.readNullableString(input);
+
+            if (exception != null) {
+                compileTestConfiguration.addProcessorWithExpectedException(processorType, (Class<? extends Throwable>) loadClass(exception, classLoader));
+            } else {
+                compileTestConfiguration.addProcessorTypes(processorType);
+            }
+        }
+
+        // sources
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            compileTestConfiguration.addSourceFiles(new CompilationResultSnapshot.StoredSourceFile(URI.create(CompilationResultSnapshot.readString(input)), CompilationResultSnapshot.readString(input), CompilationResultSnapshot.readString(input)));
+        }
+
+    }
+
+    private static void writeThrowable(DataOutputStream output, Throwable throwable) throws IOException {
+
+        // unwrap exceptions passed through by the compiler
+        Throwable cause = throwable;
+        while (cause != null) {
+
+            if (cause instanceof FailingAssertionException) {
+                output.writeInt(STATUS_FAILING_ASSERTION);
+                CompilationResultSnapshot.writeString(output, String.valueOf(cause.getMessage()));
+                return;
+            }
+
+            if (cause instanceof AssertionError) {
+                output.writeInt(STATUS_ASSERTION_ERROR);
+                CompilationResultSnapshot.writeString(output, String.valueOf(cause.getMessage()));
+                return;
+            }
+
+            cause = cause.getCause();
+        }
+
+        output.writeInt(STATUS_EXCEPTION);
+        CompilationResultSnapshot.writeString(output, throwable.toString());
+
+    }
+
+    private static void writeCompilationResult(DataOutputStream output, CompileTestConfiguration compileTestConfiguration, CompilationResult compilationResult) throws IOException {
+
+        // applied processors - their identity based notes can't be used by the client
+        List<String> processorWasAppliedMessages = new ArrayList<>();
+        List<AnnotationProcessorWrapper> appliedProcessors = new ArrayList<>();
+        for (AnnotationProcessorWrapper processor : compileTestConfiguration.getWrappedProcessors()) {
+            processorWasAppliedMessages.add(processor.getProcessorWasAppliedMessage());
+            if (CompileTestUtilities.getMessages(compilationResult.getDiagnostics(), Diagnostic.Kind.NOTE).contains(processor.getProcessorWasAppliedMessage())) {
+                appliedProcessors.add(processor);
+            }
+        }
+
+        output.writeInt(appliedProcessors.size());
+        for (AnnotationProcessorWrapper processor : appliedProcessors) {
+            CompilationResultSnapshot.writeString(output, processor.getWrappedProcessor().getClass().getName());
+            CompilationResultSnapshot.writeNullableString(output, processor.getExpectedThrownException() != null ? processor.getExpectedThrownException().getName() : null);
+        }
+
+        // diagnostics without notes of applied processors and generated files
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : compilationResult.getDiagnostics().getDiagnostics()) {
+            if (!(diagnostic.getKind() == Diagnostic.Kind.NOTE && processorWasAppliedMessages.contains(diagnostic.getMessage(null)))) {
+                diagnostics.report(diagnostic);
+            }
+        }
+
+        CompilationResultSnapshot.writeContent(output, new CompilationResult(compilationResult.getCompilationSucceeded(), diagnostics, compilationResult.getCompilationContext()));
+
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) throws ClassNotFoundException {
+        return Class.forName(className, true, classLoader);
+    }
+
+}
@@ -0,0 +1,283 @@
+package io.toolisticon.cute.impl;
+
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares all generated FileObjects of a compilation with the files stored in a snapshot directory.
+ * <p>
+ * Each generated file is stored at &lt;snapshot directory&gt;/&lt;location name&gt;/&lt;package path&gt;/&lt;file name&gt;.
+ * Class files written by the compiler are ignored since their content depends on the used compiler version.
+ */
+final class GeneratedOutputSnapshot {
+
+    /**
+     * Result of a snapshot comparison.
+     */
+    static class Report {
+
+        private final List<String> added = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> changed = new ArrayList<>();
+
+        List<String> getAdded() {
+            return added;
+        }
+
+        List<String> getRemoved() {
+            return removed;
+        }
+
+        List<String> getChanged() {
+            return changed;
+        }
+
+        boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder stringBuilder = new StringBuilder();
+            appendEntries(stringBuilder, "ADDED   : ", added);
+            appendEntries(stringBuilder, "REMOVED : ", removed);
+            appendEntries(stringBuilder, "CHANGED : ", changed);
+            return stringBuilder.toString();
+        }
+
+        private static void appendEntries(StringBuilder stringBuilder, String prefix, List<String> entries) {
+            for (String entry : entries) {
+                stringBuilder.append(prefix).append(entry).append("\n");
+            }
+        }
+
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private GeneratedOutputSnapshot() {
+
+    }
+
+    /**
+     * Compares the generated files with the snapshot.
+     * File contents are compared concurrently.
+     *
+     * @param snapshotDirectory      the snapshot directory
+     * @param compileTestFileManager the file manager used during compilation
+     * @return the comparison report
+     * @throws IOException if a file can't be read
+     */
+    static Report compare(File snapshotDirectory, CompileTestFileManager compileTestFileManager) throws IOException {
+
+        final Map<String, FileObject> generatedFiles = getGeneratedFiles(compileTestFileManager);
+        Set<String> snapshotFiles = getSnapshotFiles(snapshotDirectory);
+
+        Report report = new Report();
+
+        List<Callable<String>> comparisons = new ArrayList<>();
+        for (final Map.Entry<String, FileObject> entry : generatedFiles.entrySet()) {
+
+            final File snapshotFile = new File(snapshotDirectory, entry.getKey());
+
+            if (!snapshotFiles.contains(entry.getKey())) {
+                report.getAdded().add(entry.getKey());
+            } else {
+                comparisons.add(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return Arrays.equals(readContent(entry.getValue().openInputStream()), readContent(new FileInputStream(snapshotFile))) ? null : entry.getKey();
+                    }
+                });
+            }
+
+        }
+
+        for (String snapshotFile : snapshotFiles) {
+            if (!generatedFiles.containsKey(snapshotFile)) {
+                report.getRemoved().add(snapshotFile);
+            }
+        }
+
+        report.getChanged().addAll(invokeAll(comparisons));
+
+        Collections.sort(report.getAdded());
+        Collections.sort(report.getRemoved());
+        Collections.sort(report.getChanged());
+
+        return report;
+
+    }
+
+    /**
+     * Replaces the snapshot with the generated files.
+     *
+     * @param snapshotDirectory      the snapshot directory
+     * @param compileTestFileManager the file manager used during compilation
+     * @throws IOException if a file can't be written
+     */
+    static void update(File snapshotDirectory, CompileTestFileManager compileTestFileManager) throws IOException {
+
+        Map<String, FileObject> generatedFiles = getGeneratedFiles(compileTestFileManager);
+
+        // remove files that aren't generated anymore
+        for (String snapshotFile : getSnapshotFiles(snapshotDirectory)) {
+            if (!generatedFiles.containsKey(snapshotFile)) {
+                new File(snapshotDirectory, snapshotFile).delete();
+            }
+        }
+
+        for (Map.Entry<String, FileObject> entry : generatedFiles.entrySet()) {
+
+            File snapshotFile = new File(snapshotDirectory, entry.getKey());
+            snapshotFile.getParentFile().mkdirs();
+
+            OutputStream outputStream = new FileOutputStream(snapshotFile);
+            try {
+                outputStream.write(readContent(entry.getValue().openInputStream()));
+            } finally {
+                outputStream.close();
+            }
+
+        }
+
+    }
+
+    /**
+     * Gets all generated files that are part of the snapshot mapped by their relative path.
+     *
+     * @param compileTestFileManager the file manager used during compilation
+     * @return the generated files mapped by their relative path
+     */
+    static Map<String, FileObject> getGeneratedFiles(CompileTestFileManager compileTestFileManager) {
+
+        Map<String, FileObject> result = new HashMap<>();
+
+        for (JavaFileObject javaFileObject : compileTestFileManager.getGeneratedJavaFileObjects()) {
+            if (javaFileObject.getKind() != JavaFileObject.Kind.CLASS) {
+                result.put(getRelativePath(javaFileObject), javaFileObject);
+            }
+        }
+
+        for (FileObject fileObject : compileTestFileManager.getGeneratedFileObjects()) {
+            result.put(getRelativePath(fileObject), fileObject);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the path of a generated file relative to the snapshot directory.
+     * The in memory uri "mem://LOCATION/package/File.ext" is mapped to "LOCATION/package/File.ext".
+     *
+     * @param fileObject the generated file
+     * @return the relative path
+     */
+    static String getRelativePath(FileObject fileObject) {
+        String path = fileObject.toUri().getSchemeSpecificPart();
+        return path.startsWith("//") ? path.substring(2) : path;
+    }
+
+    /**
+     * Gets all files in the snapshot directory.
+     *
+     * @param snapshotDirectory the snapshot directory
+     * @return the paths of all files relative to the snapshot directory, using '/' as separator
+     */
+    static Set<String> getSnapshotFiles(File snapshotDirectory) {
+        Set<String> result = new HashSet<>();
+        collectFiles(snapshotDirectory, "", result);
+        return result;
+    }
+
+    private static void collectFiles(File directory, String relativePath, Set<String> result) {
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectFiles(file, relativePath + file.getName() + "/", result);
+            } else {
+                result.add(relativePath + file.getName());
+            }
+        }
+
+    }
+
+    private static List<String> invokeAll(List<Callable<String>> comparisons) throws IOException {
+
+        List<String> result = new ArrayList<>();
+        if (comparisons.isEmpty()) {
+            return result;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(comparisons.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+
+            for (Future<String> future : executorService.invokeAll(comparisons)) {
+                String changedFile = future.get();
+                if (changedFile != null) {
+                    result.add(changedFile);
+                }
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return result;
+    }
+
+    static byte[] readContent(InputStream inputStream) throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try {
+            byte[] buffer = new byte[20000];
+
+            int read = inputStream.read(buffer);
+            while (read != -1) {
+                outputStream.write(buffer, 0, read);
+                read = inputStream.read(buffer);
+            }
+
+        } finally {
+            inputStream.close();
+        }
+
+        return outputStream.toByteArray();
+    }
+
+}
@@ -0,0 +1,153 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.CompileTestBuilder;
+
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * ClassLoader that defines classes straight from the class files generated during a compilation test.
+ * <p>
+ * Classes are loaded lazily from the in memory CLASS_OUTPUT location of the CompileTestFileManager.
+ * Generated resources of the CLASS_OUTPUT location are accessible via getResource(s) and getResourceAsStream.
+ */
+class InMemoryClassLoader extends ClassLoader {
+
+    private final CompileTestFileManager compileTestFileManager;
+
+    private final CompileTestBuilder.ClassLoadingPolicy classLoadingPolicy;
+
+    /**
+     * Main constructor.
+     *
+     * @param parent                 the parent ClassLoader
+     * @param compileTestFileManager the file manager used during compilation
+     * @param classLoadingPolicy     defines if generated classes or classes of parent ClassLoader take precedence
+     */
+    InMemoryClassLoader(ClassLoader parent, CompileTestFileManager compileTestFileManager, CompileTestBuilder.ClassLoadingPolicy classLoadingPolicy) {
+        super(parent);
+        this.compileTestFileManager = compileTestFileManager;
+        this.classLoadingPolicy = classLoadingPolicy;
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+        if (classLoadingPolicy != CompileTestBuilder.ClassLoadingPolicy.CHILD_FIRST) {
+            return super.loadClass(name, resolve);
+        }
+
+        Class<?> result = findLoadedClass(name);
+
+        if (result == null && getGeneratedClassFile(name) != null) {
+            result = findClass(name);
+        }
+
+        if (result == null) {
+            return super.loadClass(name, resolve);
+        }
+
+        if (resolve) {
+            resolveClass(result);
+        }
+
+        return result;
+
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+
+        FileObject classFile = getGeneratedClassFile(name);
+        if (classFile == null) {
+            throw new ClassNotFoundException(name);
+        }
+
+        try {
+            byte[] bytecode = GeneratedOutputSnapshot.readContent(classFile.openInputStream());
+            return defineClass(name, bytecode, 0, bytecode.length);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+
+    }
+
+    @Override
+    public URL getResource(String name) {
+
+        if (classLoadingPolicy != CompileTestBuilder.ClassLoadingPolicy.CHILD_FIRST) {
+            return super.getResource(name);
+        }
+
+        URL result = findResource(name);
+        return result != null ? result : super.getResource(name);
+
+    }
+
+    @Override
+    public Enumeration<URL> getResources(String name) throws IOException {
+
+        List<URL> result = new ArrayList<>();
+
+        URL generatedResource = findResource(name);
+        if (generatedResource != null) {
+            result.add(generatedResource);
+        }
+
+        List<URL> parentResources = getParent() != null ? Collections.list(getParent().getResources(name)) : Collections.<URL>emptyList();
+        if (classLoadingPolicy == CompileTestBuilder.ClassLoadingPolicy.CHILD_FIRST) {
+            result.addAll(parentResources);
+        } else {
+            result.addAll(0, parentResources);
+        }
+
+        return Collections.enumeration(result);
+
+    }
+
+    @Override
+    protected URL findResource(String name) {
+
+        final FileObject fileObject = compileTestFileManager.getGeneratedFileObject(StandardLocation.CLASS_OUTPUT, name);
+        if (fileObject == null) {
+            return null;
+        }
+
+        try {
+            return new URL(null, fileObject.toUri().toString(), new URLStreamHandler() {
+                @Override
+                protected URLConnection openConnection(URL url) {
+                    return new URLConnection(url) {
+                        @Override
+                        public void connect() {
+                            connected = true;
+                        }
+
+                        @Override
+                        public InputStream getInputStream() throws IOException {
+                            return fileObject.openInputStream();
+                        }
+                    };
+                }
+            });
+        } catch (MalformedURLException e) {
+            return null;
+        }
+
+    }
+
+    private FileObject getGeneratedClassFile(String name) {
+        return compileTestFileManager.getGeneratedFileObject(StandardLocation.CLASS_OUTPUT, name.replace('.', '/') + ".class");
+    }
+
+}
@@ -0,0 +1,209 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.IncrementalRecompilationResult;
+
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Simulates an incremental recompilation based on the result of a previous compilation.
+ * <p>
+ * Generated files are invalidated, if the compiler created them for a changed source or an invalidated generated source,
+ * or if a processor passed an originating element of an invalidated top level type or no originating elements at all.
+ * All other generated files are kept and class files are provided to the incremental compilation via the class path.
+ * Unlike real incremental builds, sources depending on the changed sources aren't recompiled.
+ */
+final class IncrementalRecompilation {
+
+    private final static String CLASS_OUTPUT_PREFIX = StandardLocation.CLASS_OUTPUT.getName() + '/';
+
+    /**
+     * Hidden constructor.
+     */
+    private IncrementalRecompilation() {
+
+    }
+
+    /**
+     * Simulates the incremental recompilation and a full rebuild with the changed sources.
+     *
+     * @param compileTestConfiguration      the configuration of the previous compilation
+     * @param previousCompilationResult     the result of the previous compilation
+     * @param incrementalRecompilationCheck the changed and removed sources
+     * @return the result of the incremental recompilation
+     */
+    static IncrementalRecompilationResult simulate(CompileTestConfiguration compileTestConfiguration, CompilationResult previousCompilationResult, CompileTestConfiguration.IncrementalRecompilationCheck incrementalRecompilationCheck) {
+
+        Set<URI> changedSourceUris = new HashSet<>();
+        for (JavaFileObject source : incrementalRecompilationCheck.getChangedSources()) {
+            changedSourceUris.add(source.toUri());
+        }
+        for (JavaFileObject source : incrementalRecompilationCheck.getRemovedSources()) {
+            changedSourceUris.add(source.toUri());
+        }
+
+        // sources of the full rebuild
+        CompileTestConfiguration fullRebuildConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+        fullRebuildConfiguration.clearSourceFiles();
+        for (JavaFileObject source : compileTestConfiguration.getSourceFiles()) {
+            if (!changedSourceUris.contains(source.toUri())) {
+                fullRebuildConfiguration.addSourceFiles(source);
+            }
+        }
+        fullRebuildConfiguration.addSourceFiles(incrementalRecompilationCheck.getChangedSources().toArray(new JavaFileObject[0]));
+
+        // split generated files of previous compilation in kept and invalidated files
+        CompileTestFileManager previousFileManager = previousCompilationResult.getCompileTestFileManager();
+
+        Map<String, FileObject> previouslyGeneratedFiles = new LinkedHashMap<>();
+        Set<String> previouslyGeneratedJavaFiles = new HashSet<>();
+        for (JavaFileObject javaFileObject : previousFileManager.getGeneratedJavaFileObjects()) {
+            previouslyGeneratedFiles.put(GeneratedOutputSnapshot.getRelativePath(javaFileObject), javaFileObject);
+            previouslyGeneratedJavaFiles.add(GeneratedOutputSnapshot.getRelativePath(javaFileObject));
+        }
+        for (FileObject fileObject : previousFileManager.getGeneratedFileObjects()) {
+            previouslyGeneratedFiles.put(GeneratedOutputSnapshot.getRelativePath(fileObject), fileObject);
+        }
+
+        Set<String> invalidatedFiles = determineInvalidatedFiles(previouslyGeneratedFiles, changedSourceUris, previousFileManager.getSiblingsOfGeneratedFiles(), previousFileManager.getOriginatingTypesOfGeneratedFiles());
+
+        List<JavaFileObject> keptJavaFileObjects = new ArrayList<>();
+        List<JavaFileObject> keptFileObjects = new ArrayList<>();
+        Map<FileObject, String> keptFiles = new IdentityHashMap<>();
+        for (Map.Entry<String, FileObject> entry : previouslyGeneratedFiles.entrySet()) {
+            if (!invalidatedFiles.contains(entry.getKey())) {
+                (previouslyGeneratedJavaFiles.contains(entry.getKey()) ? keptJavaFileObjects : keptFileObjects).add((JavaFileObject) entry.getValue());
+                keptFiles.put(entry.getValue(), entry.getKey());
+            }
+        }
+
+        // full rebuild
+        long fullRebuildStartTime = System.nanoTime();
+        CompileTest.compile(fullRebuildConfiguration).release();
+        long fullRebuildTime = System.nanoTime() - fullRebuildStartTime;
+
+        // incremental compilation of changed sources
+        Set<String> regeneratedFiles = new TreeSet<>();
+        Set<String> keptFileNames = new TreeSet<>(keptFiles.values());
+        boolean compilationSucceeded = true;
+        long incrementalCompilationTime = 0L;
+
+        if (!incrementalRecompilationCheck.getChangedSources().isEmpty()) {
+
+            CompileTestConfiguration incrementalConfiguration = CompileTestConfiguration.cloneConfiguration(compileTestConfiguration);
+            incrementalConfiguration.clearSourceFiles();
+            incrementalConfiguration.addSourceFiles(incrementalRecompilationCheck.getChangedSources().toArray(new JavaFileObject[0]));
+
+            long incrementalCompilationStartTime = System.nanoTime();
+            CompilationResult incrementalCompilationResult = CompileTest.compile(incrementalConfiguration, keptJavaFileObjects, keptFileObjects);
+            incrementalCompilationTime = System.nanoTime() - incrementalCompilationStartTime;
+
+            compilationSucceeded = incrementalCompilationResult.getCompilationSucceeded();
+
+            List<FileObject> generatedFiles = new ArrayList<FileObject>(incrementalCompilationResult.getCompileTestFileManager().getGeneratedJavaFileObjects());
+            generatedFiles.addAll(incrementalCompilationResult.getCompileTestFileManager().getGeneratedFileObjects());
+            for (FileObject fileObject : generatedFiles) {
+                if (!keptFiles.containsKey(fileObject)) {
+                    String relativePath = GeneratedOutputSnapshot.getRelativePath(fileObject);
+                    regeneratedFiles.add(relativePath);
+                    keptFileNames.remove(relativePath);
+                }
+            }
+
+            incrementalCompilationResult.release();
+
+        }
+
+        Set<String> deletedFiles = new TreeSet<>(invalidatedFiles);
+        deletedFiles.removeAll(regeneratedFiles);
+
+        return new IncrementalRecompilationResult(compilationSucceeded, regeneratedFiles, deletedFiles, keptFileNames, fullRebuildTime, incrementalCompilationTime);
+
+    }
+
+    /**
+     * Determines the generated files that are invalidated by the changed sources.
+     *
+     * @param generatedFiles    the generated files mapped by location and resource name
+     * @param changedSourceUris the uris of the changed and removed sources
+     * @param siblings          the siblings passed by the compiler for generated files
+     * @param originatingTypes  the originating top level types passed to the Filer for generated files
+     * @return the location and resource names of the invalidated files
+     */
+    static Set<String> determineInvalidatedFiles(Map<String, FileObject> generatedFiles, Set<URI> changedSourceUris, Map<String, URI> siblings, Map<String, Set<String>> originatingTypes) {
+
+        Set<String> invalidatedFiles = new TreeSet<>();
+        Set<URI> invalidatedUris = new HashSet<>(changedSourceUris);
+        Set<String> invalidatedTypes = new HashSet<>();
+
+        // invalidation is transitive, e.g. for class files of generated sources
+        boolean changed = true;
+        while (changed) {
+
+            changed = false;
+
+            for (Map.Entry<String, FileObject> entry : generatedFiles.entrySet()) {
+
+                if (invalidatedFiles.contains(entry.getKey())) {
+                    continue;
+                }
+
+                URI sibling = siblings.get(entry.getKey());
+                Set<String> fileOriginatingTypes = originatingTypes.get(entry.getKey());
+
+                if ((sibling != null && invalidatedUris.contains(sibling))
+                        || (fileOriginatingTypes != null && (fileOriginatingTypes.isEmpty() || containsAny(invalidatedTypes, fileOriginatingTypes)))) {
+
+                    invalidatedFiles.add(entry.getKey());
+                    invalidatedUris.add(entry.getValue().toUri());
+
+                    if (entry.getKey().startsWith(CLASS_OUTPUT_PREFIX) && entry.getKey().endsWith(JavaFileObject.Kind.CLASS.extension)) {
+                        invalidatedTypes.add(getTopLevelTypeName(entry.getKey()));
+                    }
+
+                    changed = true;
+
+                }
+
+            }
+
+        }
+
+        return invalidatedFiles;
+
+    }
+
+    private static boolean containsAny(Set<String> set, Set<String> values) {
+        for (String value : values) {
+            if (set.contains(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the top level type name of a class file.
+     *
+     * @param classFile the location and resource name of the class file, e.g. "CLASS_OUTPUT/io/toolisticon/Test$Inner.class"
+     * @return the qualified name of the top level type, e.g. "io.toolisticon.Test"
+     */
+    static String getTopLevelTypeName(String classFile) {
+
+        String binaryName = classFile.substring(CLASS_OUTPUT_PREFIX.length(), classFile.length() - JavaFileObject.Kind.CLASS.extension.length()).replace('/', '.');
+        int innerClassSeparatorIndex = binaryName.indexOf('$');
+        return innerClassSeparatorIndex < 0 ? binaryName : binaryName.substring(0, innerClassSeparatorIndex);
+
+    }
+
+}
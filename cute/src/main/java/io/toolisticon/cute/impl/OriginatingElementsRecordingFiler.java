@@ -0,0 +1,104 @@
+package io.toolisticon.cute.impl;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Filer that records the originating elements passed for each generated file at the {@link CompileTestFileManager}.
+ * <p>
+ * Originating elements are recorded as the qualified names of their top level types, which is the granularity used by Gradle's incremental annotation processing.
+ */
+final class OriginatingElementsRecordingFiler implements Filer {
+
+    private final Filer wrappedFiler;
+    private final CompileTestFileManager compileTestFileManager;
+
+    private OriginatingElementsRecordingFiler(Filer wrappedFiler, CompileTestFileManager compileTestFileManager) {
+        this.wrappedFiler = wrappedFiler;
+        this.compileTestFileManager = compileTestFileManager;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException {
+        return record(wrappedFiler.createSourceFile(name, originatingElements), originatingElements);
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) throws IOException {
+        return record(wrappedFiler.createClassFile(name, originatingElements), originatingElements);
+    }
+
+    @Override
+    public FileObject createResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) throws IOException {
+        return record(wrappedFiler.createResource(location, pkg, relativeName, originatingElements), originatingElements);
+    }
+
+    @Override
+    public FileObject getResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName) throws IOException {
+        return wrappedFiler.getResource(location, pkg, relativeName);
+    }
+
+    private <T extends FileObject> T record(T fileObject, Element... originatingElements) {
+
+        Set<String> originatingTypes = new TreeSet<>();
+        if (originatingElements != null) {
+            for (Element originatingElement : originatingElements) {
+                if (originatingElement != null) {
+                    originatingTypes.add(getTopLevelName(originatingElement));
+                }
+            }
+        }
+
+        compileTestFileManager.recordOriginatingTypes(fileObject, originatingTypes);
+
+        return fileObject;
+
+    }
+
+    /**
+     * Gets the qualified name of the top level type of an element.
+     * Returns the package name for package elements.
+     *
+     * @param element the element
+     * @return the qualified name of the top level type or package
+     */
+    static String getTopLevelName(Element element) {
+
+        Element topLevelElement = element;
+        while (topLevelElement.getEnclosingElement() != null
+                && !(topLevelElement instanceof PackageElement)
+                && !(topLevelElement.getEnclosingElement() instanceof PackageElement)) {
+            topLevelElement = topLevelElement.getEnclosingElement();
+        }
+
+        if (topLevelElement instanceof TypeElement) {
+            return ((TypeElement) topLevelElement).getQualifiedName().toString();
+        } else if (topLevelElement instanceof PackageElement) {
+            return ((PackageElement) topLevelElement).getQualifiedName().toString();
+        }
+
+        return topLevelElement.getSimpleName().toString();
+
+    }
+
+    /**
+     * Wraps the processing environment, so that files created via its Filer get their originating elements recorded.
+     *
+     * @param processingEnvironment  the processing environment to wrap
+     * @param compileTestFileManager the file manager used to record the originating elements
+     * @return the wrapped processing environment
+     */
+    static ProcessingEnvironment wrapProcessingEnvironment(ProcessingEnvironment processingEnvironment, CompileTestFileManager compileTestFileManager) {
+        return WrappedProcessingEnvironment.withFiler(processingEnvironment, new OriginatingElementsRecordingFiler(processingEnvironment.getFiler(), compileTestFileManager));
+    }
+
+}
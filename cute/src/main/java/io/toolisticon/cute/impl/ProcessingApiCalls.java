@@ -0,0 +1,194 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.ProcessingApiUsageResult;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Call counts and cumulative times of the processing api methods called by processors during a single compilation.
+ * <p>
+ * Calls are counted by proxies of the Elements, Types, Filer, Messager and RoundEnvironment interfaces.
+ * Methods are identified by the simple name of the interface and the method name, like "Elements.getAllMembers".
+ */
+final class ProcessingApiCalls {
+
+    /**
+     * The instrumented interfaces.
+     */
+    final static List<Class<?>> INSTRUMENTED_TYPES = Collections.unmodifiableList(Arrays.<Class<?>>asList(Elements.class, Types.class, Filer.class, Messager.class, RoundEnvironment.class));
+
+    /**
+     * Call count and cumulative time of a method.
+     */
+    private static class Counter {
+
+        private long calls;
+        private long duration;
+
+    }
+
+    private final Map<String, Counter> counters = new TreeMap<>();
+
+    /**
+     * Checks if the passed method name denotes a method of an instrumented interface.
+     *
+     * @param method the method, like "Elements.getAllMembers"
+     * @return true if method exists, otherwise false
+     */
+    static boolean isInstrumentedMethod(String method) {
+
+        int separatorIndex = method != null ? method.indexOf('.') : -1;
+        if (separatorIndex < 0) {
+            return false;
+        }
+
+        for (Class<?> instrumentedType : INSTRUMENTED_TYPES) {
+
+            if (instrumentedType.getSimpleName().equals(method.substring(0, separatorIndex))) {
+
+                for (Method instrumentedMethod : instrumentedType.getMethods()) {
+                    if (instrumentedMethod.getName().equals(method.substring(separatorIndex + 1))) {
+                        return true;
+                    }
+                }
+
+            }
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Wraps the processing environment, so that calls of its Elements, Types, Filer and Messager are counted.
+     *
+     * @param processingEnvironment the processing environment to wrap
+     * @return the wrapped processing environment
+     */
+    ProcessingEnvironment instrument(ProcessingEnvironment processingEnvironment) {
+        return new WrappedProcessingEnvironment(
+                processingEnvironment,
+                instrument(Elements.class, processingEnvironment.getElementUtils()),
+                instrument(Types.class, processingEnvironment.getTypeUtils()),
+                instrument(Filer.class, processingEnvironment.getFiler()),
+                instrument(Messager.class, processingEnvironment.getMessager()));
+    }
+
+    /**
+     * Creates a proxy that counts the calls of the passed instance.
+     *
+     * @param type     the interface to instrument
+     * @param instance the instance to forward calls to
+     * @param <T>      the interface type
+     * @return the counting proxy
+     */
+    <T> T instrument(final Class<T> type, final T instance) {
+
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                if (method.getDeclaringClass() == Object.class) {
+                    return "equals".equals(method.getName()) ? proxy == args[0] : method.invoke(instance, args);
+                }
+
+                long startTime = System.nanoTime();
+                try {
+                    return method.invoke(instance, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    called(type.getSimpleName() + "." + method.getName(), System.nanoTime() - startTime);
+                }
+
+            }
+        }));
+
+    }
+
+    synchronized void called(String method, long duration) {
+
+        Counter counter = counters.get(method);
+        if (counter == null) {
+            counter = new Counter();
+            counters.put(method, counter);
+        }
+
+        counter.calls++;
+        counter.duration += duration;
+
+    }
+
+    /**
+     * Gets the number of calls of a method.
+     *
+     * @param method the method, like "Elements.getAllMembers"
+     * @return the number of calls
+     */
+    synchronized long getCalls(String method) {
+        Counter counter = counters.get(method);
+        return counter != null ? counter.calls : 0L;
+    }
+
+    /**
+     * Gets the cumulative time spent in a method.
+     *
+     * @param method the method, like "Elements.getAllMembers"
+     * @return the duration in nanoseconds
+     */
+    synchronized long getDuration(String method) {
+        Counter counter = counters.get(method);
+        return counter != null ? counter.duration : 0L;
+    }
+
+    /**
+     * Creates the public result of the counted calls.
+     *
+     * @return the result
+     */
+    synchronized ProcessingApiUsageResult createResult() {
+
+        Map<String, Long> calls = new HashMap<>();
+        Map<String, Long> durations = new HashMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            calls.put(entry.getKey(), entry.getValue().calls);
+            durations.put(entry.getKey(), entry.getValue().duration);
+        }
+
+        return new ProcessingApiUsageResult(calls, durations);
+
+    }
+
+    synchronized boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    @Override
+    public synchronized String toString() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            stringBuilder.append(String.format("%s : %d calls, %.3f ms\n", entry.getKey(), entry.getValue().calls, entry.getValue().duration / 1000000.0));
+        }
+
+        return stringBuilder.toString();
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package io.toolisticon.cute.impl;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Trace of the annotation processing rounds of a single compilation.
+ * <p>
+ * Rounds are recorded by the {@link AnnotationProcessorWrapper}s, which share one RoundEnvironment per round.
+ * Files are attributed to the current round only while a processor is being called, so class files written by the compiler after annotation processing aren't traced.
+ */
+final class RoundTrace implements CompileTestFileManager.GeneratedFileListener {
+
+    /**
+     * A single annotation processing round.
+     */
+    static final class Round {
+
+        private final int number;
+        private final boolean processingOver;
+        private final Set<String> rootElements = new LinkedHashSet<>();
+        private final Set<String> annotations = new LinkedHashSet<>();
+        private final Set<String> generatedFiles = Collections.synchronizedSet(new LinkedHashSet<String>());
+
+        private Round(int number, RoundEnvironment roundEnvironment) {
+
+            this.number = number;
+            this.processingOver = roundEnvironment.processingOver();
+
+            for (Element rootElement : roundEnvironment.getRootElements()) {
+                rootElements.add(rootElement instanceof TypeElement ? ((TypeElement) rootElement).getQualifiedName().toString() : rootElement.toString());
+            }
+
+        }
+
+        int getNumber() {
+            return number;
+        }
+
+        boolean isProcessingOver() {
+            return processingOver;
+        }
+
+        Set<String> getRootElements() {
+            return rootElements;
+        }
+
+        Set<String> getAnnotations() {
+            return annotations;
+        }
+
+        Set<String> getGeneratedFiles() {
+            synchronized (generatedFiles) {
+                return new LinkedHashSet<>(generatedFiles);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Round " + number + (processingOver ? " (processing over)" : "")
+                    + " : root elements=" + rootElements
+                    + ", annotations=" + annotations
+                    + ", generated files=" + getGeneratedFiles();
+        }
+
+    }
+
+    private final List<Round> rounds = new ArrayList<>();
+
+    private RoundEnvironment currentRoundEnvironment;
+
+    /**
+     * Number of processor calls in progress.
+     * Files may be generated by other threads started by the processor, so it's read without holding the lock.
+     */
+    private volatile int activeProcessorCalls = 0;
+
+    /**
+     * Must be called before a processor processes a round.
+     *
+     * @param annotations      the annotations passed to the processor
+     * @param roundEnvironment the round environment passed to the processor
+     * @return the number of the current round, starting with 1
+     */
+    synchronized int startProcessorCall(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+
+        if (roundEnvironment != currentRoundEnvironment) {
+            currentRoundEnvironment = roundEnvironment;
+            rounds.add(new Round(rounds.size() + 1, roundEnvironment));
+        }
+
+        Round currentRound = rounds.get(rounds.size() - 1);
+        if (annotations != null) {
+            for (TypeElement annotation : annotations) {
+                currentRound.annotations.add(annotation.getQualifiedName().toString());
+            }
+        }
+
+        activeProcessorCalls++;
+
+        return currentRound.number;
+
+    }
+
+    /**
+     * Must be called after a processor has processed a round.
+     */
+    synchronized void endProcessorCall() {
+        activeProcessorCalls--;
+    }
+
+    /**
+     * Attributes a generated file to the current round, if a processor is being called.
+     *
+     * @param generatedFile the location and resource name of the generated file
+     */
+    @Override
+    public void fileGenerated(String generatedFile) {
+
+        if (activeProcessorCalls > 0) {
+            synchronized (this) {
+                rounds.get(rounds.size() - 1).generatedFiles.add(generatedFile);
+            }
+        }
+
+    }
+
+    /**
+     * Gets all traced rounds.
+     *
+     * @return the rounds in order of processing
+     */
+    synchronized List<Round> getRounds() {
+        return new ArrayList<>(rounds);
+    }
+
+    @Override
+    public synchronized String toString() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (Round round : rounds) {
+            stringBuilder.append(round).append("\n");
+        }
+
+        return stringBuilder.toString();
+
+    }
+
+}
@@ -0,0 +1,208 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the StandardJavaFileManager of the last compilation per thread, so it can be reused by subsequent compilations.
+ * <p>
+ * Creating a StandardJavaFileManager and indexing the platform classes and classpath is a fixed cost of every compilation,
+ * which dominates the compilation time of small unit tests.
+ * Compiler options may configure the file manager, so file managers are only reused for compilations with the same compiler options.
+ * Compilations using modules always get a new file manager, because the module path is set directly at the file manager.
+ * <p>
+ * Cached file managers are closed when their thread has terminated, which is checked whenever a file manager is created, and on shutdown of the test JVM.
+ * <p>
+ * Reuse can be disabled via system property {@value Constants#SYSTEM_PROPERTY_REUSE_FILE_MANAGER}.
+ */
+final class StandardFileManagerCache {
+
+    /**
+     * Forwards diagnostics of a cached file manager to the diagnostic listener of the compilation currently using it.
+     */
+    private static class ForwardingDiagnosticListener implements DiagnosticListener<JavaFileObject> {
+
+        private volatile DiagnosticListener<? super JavaFileObject> diagnosticListener;
+
+        @Override
+        public void report(Diagnostic<? extends JavaFileObject> diagnostic) {
+            DiagnosticListener<? super JavaFileObject> currentDiagnosticListener = diagnosticListener;
+            if (currentDiagnosticListener != null) {
+                currentDiagnosticListener.report(diagnostic);
+            }
+        }
+
+    }
+
+    /**
+     * A cached file manager, the compiler options it has been used with and the thread it's cached for.
+     */
+    private static class Entry {
+
+        private final JavaCompiler compiler;
+        private final List<String> compilerOptions;
+        private final StandardJavaFileManager standardJavaFileManager;
+        private final ForwardingDiagnosticListener forwardingDiagnosticListener;
+        private final Thread thread = Thread.currentThread();
+
+        private Entry(JavaCompiler compiler, List<String> compilerOptions, StandardJavaFileManager standardJavaFileManager, ForwardingDiagnosticListener forwardingDiagnosticListener) {
+            this.compiler = compiler;
+            this.compilerOptions = compilerOptions;
+            this.standardJavaFileManager = standardJavaFileManager;
+            this.forwardingDiagnosticListener = forwardingDiagnosticListener;
+        }
+
+    }
+
+    private final static ThreadLocal<Entry> CACHED_ENTRY = new ThreadLocal<>();
+
+    /**
+     * The cached entries of all threads, used to close the file managers of terminated threads.
+     */
+    private final static List<Entry> CACHED_ENTRIES = new LinkedList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (CACHED_ENTRIES) {
+                    for (Entry entry : CACHED_ENTRIES) {
+                        close(entry.standardJavaFileManager);
+                    }
+                    CACHED_ENTRIES.clear();
+                }
+            }
+        }, "cute-file-manager-shutdown"));
+    }
+
+    private final static AtomicLong REQUEST_COUNT = new AtomicLong();
+    private final static AtomicLong REUSE_COUNT = new AtomicLong();
+
+    /**
+     * Hidden constructor.
+     */
+    private StandardFileManagerCache() {
+
+    }
+
+    /**
+     * Gets a StandardJavaFileManager for the compilation.
+     * <p>
+     * Diagnostics of reused file managers are forwarded to the diagnostic listener of the latest compilation of the thread.
+     *
+     * @param compiler                 the compiler to use
+     * @param diagnostics              the diagnostic listener used for not reused file managers
+     * @param compileTestConfiguration the compile test configuration
+     * @return a reused or newly created StandardJavaFileManager
+     */
+    static StandardJavaFileManager getStandardJavaFileManager(JavaCompiler compiler, DiagnosticListener<? super JavaFileObject> diagnostics, CompileTestConfiguration compileTestConfiguration) {
+
+        REQUEST_COUNT.incrementAndGet();
+
+        if (compileTestConfiguration.getModules() != null || !isReuseEnabled()) {
+            return compiler.getStandardFileManager(diagnostics, null, null);
+        }
+
+        List<String> compilerOptions = new ArrayList<>(compileTestConfiguration.getNormalizedCompilerOptions());
+
+        Entry entry = CACHED_ENTRY.get();
+        // newer JDKs return a new compiler instance on each lookup, so compilers are compared by their type
+        if (entry != null && entry.compiler.getClass() == compiler.getClass() && entry.compilerOptions.equals(compilerOptions)) {
+            REUSE_COUNT.incrementAndGet();
+            entry.forwardingDiagnosticListener.diagnosticListener = diagnostics;
+            return entry.standardJavaFileManager;
+        }
+
+        clear();
+        closeEntriesOfTerminatedThreads();
+
+        ForwardingDiagnosticListener forwardingDiagnosticListener = new ForwardingDiagnosticListener();
+        forwardingDiagnosticListener.diagnosticListener = diagnostics;
+
+        StandardJavaFileManager standardJavaFileManager = compiler.getStandardFileManager(forwardingDiagnosticListener, null, null);
+        entry = new Entry(compiler, compilerOptions, standardJavaFileManager, forwardingDiagnosticListener);
+
+        CACHED_ENTRY.set(entry);
+        synchronized (CACHED_ENTRIES) {
+            CACHED_ENTRIES.add(entry);
+        }
+
+        return standardJavaFileManager;
+
+    }
+
+    /**
+     * Closes and removes the file manager cached for the current thread.
+     */
+    static void clear() {
+
+        Entry entry = CACHED_ENTRY.get();
+        if (entry != null) {
+            CACHED_ENTRY.remove();
+            synchronized (CACHED_ENTRIES) {
+                CACHED_ENTRIES.remove(entry);
+            }
+            close(entry.standardJavaFileManager);
+        }
+
+    }
+
+    private static void closeEntriesOfTerminatedThreads() {
+
+        synchronized (CACHED_ENTRIES) {
+
+            Iterator<Entry> iterator = CACHED_ENTRIES.iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!entry.thread.isAlive()) {
+                    iterator.remove();
+                    close(entry.standardJavaFileManager);
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Gets the number of file managers requested by compilations of all threads.
+     *
+     * @return the number of requested file managers
+     */
+    static long getRequestCount() {
+        return REQUEST_COUNT.get();
+    }
+
+    /**
+     * Gets the number of requests that have been served by a reused file manager.
+     *
+     * @return the number of reused file managers
+     */
+    static long getReuseCount() {
+        return REUSE_COUNT.get();
+    }
+
+    private static boolean isReuseEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(Constants.SYSTEM_PROPERTY_REUSE_FILE_MANAGER));
+    }
+
+    private static void close(StandardJavaFileManager standardJavaFileManager) {
+        try {
+            standardJavaFileManager.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+}
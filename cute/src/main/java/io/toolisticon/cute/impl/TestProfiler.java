@@ -0,0 +1,332 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+import io.toolisticon.cute.extension.api.TracingSpi;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Profiles all compile tests of the test JVM and reports the slowest tests on shutdown.
+ * <p>
+ * Profiling is enabled via system property {@value Constants#SYSTEM_PROPERTY_PROFILE_TESTS}.
+ * The compilation and verification times are recorded by the {@link CompileTest}, the times spent in processors and in creating the debug output
+ * are recorded by the spans of {@link Tracing}. Processors of forked compilations are executed in the worker JVM, so their time is accounted to javac.
+ * Processor spans are only attributed to processors while the compilation of the test runs, processors of recompilations during the verification
+ * are part of the verification time.
+ * <p>
+ * Just the slowest tests are retained, all other tests are only added to the totals.
+ */
+final class TestProfiler {
+
+    /**
+     * The recorded times of a single compile test.
+     */
+    static final class Profile {
+
+        private final String testName;
+        private final long startTime = System.nanoTime();
+        private final Map<TracingSpi.Phase, Long> times = new EnumMap<>(TracingSpi.Phase.class);
+        private long totalTime;
+        private boolean compilationRunning;
+
+        Profile(String testName) {
+            this.testName = testName;
+        }
+
+        String getTestName() {
+            return testName;
+        }
+
+        void addTime(TracingSpi.Phase phase, long duration) {
+
+            // processor time is subtracted from the compilation time, so it must be spent within the compilation
+            if (!compilationRunning && (phase == TracingSpi.Phase.PROCESSOR_INIT || phase == TracingSpi.Phase.PROCESSOR_ROUND)) {
+                return;
+            }
+
+            times.put(phase, getTime(phase) + duration);
+
+        }
+
+        void setCompilationRunning(boolean compilationRunning) {
+            this.compilationRunning = compilationRunning;
+        }
+
+        long getTime(TracingSpi.Phase phase) {
+            Long time = times.get(phase);
+            return time != null ? time : 0L;
+        }
+
+        long getProcessorTime() {
+            return getTime(TracingSpi.Phase.PROCESSOR_INIT) + getTime(TracingSpi.Phase.PROCESSOR_ROUND);
+        }
+
+        /**
+         * Gets the time spent in the compiler itself.
+         *
+         * @return the compilation time without the time spent in processors
+         */
+        long getJavacTime() {
+            return Math.max(0L, getTime(TracingSpi.Phase.COMPILATION) - getProcessorTime());
+        }
+
+        long getTotalTime() {
+            return totalTime;
+        }
+
+        void setTotalTime(long totalTime) {
+            this.totalTime = totalTime;
+        }
+
+    }
+
+    private final static Comparator<Profile> BY_TOTAL_TIME = new Comparator<Profile>() {
+        @Override
+        public int compare(Profile o1, Profile o2) {
+            return o1.getTotalTime() < o2.getTotalTime() ? -1 : (o1.getTotalTime() == o2.getTotalTime() ? 0 : 1);
+        }
+    };
+
+    private final static TestProfiler INSTANCE = createInstance();
+
+    private final static ThreadLocal<Profile> CURRENT_PROFILE = new ThreadLocal<>();
+
+    private final int slowestTestCount;
+
+    /**
+     * The slowest tests, the fastest of them at the head of the queue.
+     */
+    private final PriorityQueue<Profile> slowestTests;
+
+    private long testCount;
+    private long totalTime;
+    private long javacTime;
+    private long processorTime;
+    private long verificationTime;
+    private long debugOutputTime;
+
+    /**
+     * Constructor.
+     *
+     * @param slowestTestCount the number of slowest tests to retain
+     */
+    TestProfiler(int slowestTestCount) {
+        this.slowestTestCount = Math.max(1, slowestTestCount);
+        this.slowestTests = new PriorityQueue<>(this.slowestTestCount, BY_TOTAL_TIME);
+    }
+
+    private static TestProfiler createInstance() {
+
+        final String target = System.getProperty(Constants.SYSTEM_PROPERTY_PROFILE_TESTS);
+        if (target == null || target.isEmpty() || "false".equalsIgnoreCase(target)) {
+            return null;
+        }
+
+        final TestProfiler testProfiler = new TestProfiler(Integer.getInteger(Constants.SYSTEM_PROPERTY_SLOWEST_TEST_COUNT, Constants.DEFAULT_SLOWEST_TEST_COUNT));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                testProfiler.writeReport(target);
+            }
+        }, "cute-test-profiler-shutdown"));
+
+        return testProfiler;
+
+    }
+
+    static boolean isEnabled() {
+        return INSTANCE != null;
+    }
+
+    /**
+     * Starts the profiling of a compile test in the current thread.
+     *
+     * @param testName the name of the test
+     */
+    static void testStarted(String testName) {
+        if (INSTANCE != null) {
+            CURRENT_PROFILE.set(new Profile(testName));
+        }
+    }
+
+    /**
+     * Marks the start or the end of the compilation of the compile test profiled in the current thread.
+     *
+     * @param compilationRunning true if the compilation has been started, false if it has finished
+     */
+    static void setCompilationRunning(boolean compilationRunning) {
+        Profile profile = CURRENT_PROFILE.get();
+        if (profile != null) {
+            profile.setCompilationRunning(compilationRunning);
+        }
+    }
+
+    /**
+     * Adds time spent in a phase to the compile test profiled in the current thread.
+     *
+     * @param phase    the phase
+     * @param duration the duration in nanoseconds
+     */
+    static void addTime(TracingSpi.Phase phase, long duration) {
+        Profile profile = CURRENT_PROFILE.get();
+        if (profile != null) {
+            profile.addTime(phase, duration);
+        }
+    }
+
+    /**
+     * Wraps a span, so that its duration is added to the compile test profiled in the current thread.
+     *
+     * @param phase the phase of the span
+     * @param span  the span to wrap
+     * @return the wrapped span
+     */
+    static TracingSpi.Span profile(final TracingSpi.Phase phase, final TracingSpi.Span span) {
+
+        final long startTime = System.nanoTime();
+
+        return new TracingSpi.Span() {
+            @Override
+            public boolean isEnabled() {
+                return span.isEnabled();
+            }
+
+            @Override
+            public void end(long bytes) {
+                addTime(phase, System.nanoTime() - startTime);
+                span.end(bytes);
+            }
+        };
+
+    }
+
+    /**
+     * Finishes the profiling of the compile test in the current thread.
+     */
+    static void testFinished() {
+
+        Profile profile = CURRENT_PROFILE.get();
+        CURRENT_PROFILE.remove();
+
+        if (profile != null) {
+            profile.setTotalTime(System.nanoTime() - profile.startTime);
+            INSTANCE.record(profile);
+        }
+
+    }
+
+    /**
+     * Adds a finished compile test to the totals and retains it if it's one of the slowest tests.
+     *
+     * @param profile the profile of the finished test
+     */
+    synchronized void record(Profile profile) {
+
+        testCount++;
+        totalTime += profile.getTotalTime();
+        javacTime += profile.getJavacTime();
+        processorTime += profile.getProcessorTime();
+        verificationTime += profile.getTime(TracingSpi.Phase.VERIFICATION);
+        debugOutputTime += profile.getTime(TracingSpi.Phase.DEBUG_OUTPUT);
+
+        slowestTests.add(profile);
+        if (slowestTests.size() > slowestTestCount) {
+            slowestTests.poll();
+        }
+
+    }
+
+    /**
+     * Creates the summary of all recorded tests.
+     *
+     * @return the summary
+     */
+    synchronized String createReport() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(String.format("cute profiled %d compile tests taking %.3f ms : javac %.3f ms, processors %.3f ms, verification %.3f ms, debug output %.3f ms\n",
+                testCount, toMillis(totalTime), toMillis(javacTime), toMillis(processorTime), toMillis(verificationTime), toMillis(debugOutputTime)));
+
+        stringBuilder.append(formatRatio("File manager reuse", StandardFileManagerCache.getReuseCount(), StandardFileManagerCache.getRequestCount(), "compilations"));
+        stringBuilder.append(formatRatio("Forked worker reuse", ForkedCompilerPool.getReuseCount(), ForkedCompilerPool.getAcquisitionCount(), "forked compilations"));
+
+        List<Profile> profiles = new ArrayList<>(slowestTests);
+        Collections.sort(profiles, Collections.reverseOrder(BY_TOTAL_TIME));
+
+        stringBuilder.append(String.format("\nSlowest %d tests (times in ms):\n", profiles.size()));
+        stringBuilder.append(String.format("%12s %12s %12s %12s %12s  %s\n", "total", "javac", "processors", "verification", "debug output", "test"));
+        for (Profile profile : profiles) {
+            stringBuilder.append(String.format("%12.3f %12.3f %12.3f %12.3f %12.3f  %s\n",
+                    toMillis(profile.getTotalTime()),
+                    toMillis(profile.getJavacTime()),
+                    toMillis(profile.getProcessorTime()),
+                    toMillis(profile.getTime(TracingSpi.Phase.VERIFICATION)),
+                    toMillis(profile.getTime(TracingSpi.Phase.DEBUG_OUTPUT)),
+                    profile.getTestName()));
+        }
+
+        return stringBuilder.toString();
+
+    }
+
+    /**
+     * Prints the summary to System.err or writes it to a file.
+     *
+     * @param target true to print the summary, otherwise the path of the file to write to
+     */
+    void writeReport(String target) {
+
+        synchronized (this) {
+            if (testCount == 0L) {
+                return;
+            }
+        }
+
+        String report = createReport();
+
+        if ("true".equalsIgnoreCase(target)) {
+            System.err.print(report);
+            return;
+        }
+
+        File reportFile = new File(target);
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), Charset.forName("UTF-8"));
+            try {
+                writer.write(report);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Couldn't write cute test profile to " + reportFile.getAbsolutePath() + " : " + e.getMessage());
+        }
+
+    }
+
+    private static String formatRatio(String name, long count, long totalCount, String unit) {
+        return String.format("%s : %d of %d %s (%.1f %%)\n", name, count, totalCount, unit, totalCount > 0L ? count * 100.0 / totalCount : 0.0);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+}
@@ -0,0 +1,324 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Immutable content of a generated file that is stored depending on its size.
+ * <p>
+ * Small contents are kept on heap, medium sized contents are kept compressed on heap and large contents are written to a temporary file
+ * in the build folder, which is read back via memory mapping. Temporary files are deleted when the content is released.
+ * The thresholds can be configured via system properties {@value Constants#SYSTEM_PROPERTY_COMPRESS_THRESHOLD}
+ * and {@value Constants#SYSTEM_PROPERTY_SPILL_THRESHOLD}.
+ * <p>
+ * The decoded char content is cached, so it's decoded only once even if it is read by the compiler, multiple matchers and the debug output.
+ * The cache is softly referenced to keep the memory footprint of compressed and spilled contents low.
+ */
+abstract class TieredContent {
+
+    /**
+     * Default size in bytes from which on contents are compressed.
+     */
+    final static int DEFAULT_COMPRESS_THRESHOLD = 64 * 1024;
+
+    /**
+     * Default size in bytes from which on contents are written to disk.
+     */
+    final static int DEFAULT_SPILL_THRESHOLD = 8 * 1024 * 1024;
+
+    /**
+     * Charset used to encode and decode text content.
+     */
+    final static Charset CHARSET = Charset.forName("UTF-8");
+
+    final static TieredContent EMPTY = new HeapContent(new byte[0]);
+
+    /**
+     * The cached decoded content.
+     */
+    private volatile Reference<String> charContent;
+
+    /**
+     * Gets the size of the uncompressed content.
+     *
+     * @return the size in bytes
+     */
+    abstract int size();
+
+    /**
+     * Opens a new stream to read the content.
+     *
+     * @return the input stream
+     * @throws IOException if content can't be read
+     */
+    abstract InputStream openInputStream() throws IOException;
+
+    /**
+     * Releases resources held outside of the heap.
+     * The content mustn't be read after it has been released.
+     */
+    void release() {
+        // nothing to release by default
+    }
+
+    /**
+     * Gets the content as byte array.
+     *
+     * @return the content
+     * @throws IOException if content can't be read
+     */
+    byte[] getBytes() throws IOException {
+
+        byte[] result = new byte[size()];
+
+        InputStream inputStream = openInputStream();
+        try {
+
+            int offset = 0;
+            while (offset < result.length) {
+                int read = inputStream.read(result, offset, result.length - offset);
+                if (read == -1) {
+                    throw new IOException("Unexpected end of content");
+                }
+                offset += read;
+            }
+
+        } finally {
+            inputStream.close();
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Gets the content decoded as {@link #CHARSET}.
+     * Content is decoded on first access only.
+     *
+     * @return the decoded content
+     * @throws IOException if content can't be read
+     */
+    String getCharContent() throws IOException {
+
+        Reference<String> cachedCharContent = charContent;
+        String result = cachedCharContent != null ? cachedCharContent.get() : null;
+
+        if (result == null) {
+            result = new String(getBytes(), CHARSET);
+            charContent = new SoftReference<>(result);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Creates the content in the tier matching its size using the configured thresholds.
+     *
+     * @param content the content
+     * @return the stored content
+     */
+    static TieredContent create(byte[] content) {
+        return create(content, Integer.getInteger(Constants.SYSTEM_PROPERTY_COMPRESS_THRESHOLD, DEFAULT_COMPRESS_THRESHOLD), Integer.getInteger(Constants.SYSTEM_PROPERTY_SPILL_THRESHOLD, DEFAULT_SPILL_THRESHOLD));
+    }
+
+    /**
+     * Creates the content in the tier matching its size.
+     * If content can't be compressed or written to disk, it will be kept on heap.
+     *
+     * @param content           the content
+     * @param compressThreshold size from which on content is compressed
+     * @param spillThreshold    size from which on content is written to disk
+     * @return the stored content
+     */
+    static TieredContent create(byte[] content, int compressThreshold, int spillThreshold) {
+
+        try {
+
+            if (content.length >= spillThreshold) {
+                return DiskContent.spill(content);
+            } else if (content.length >= compressThreshold) {
+                return CompressedContent.compress(content);
+            }
+
+        } catch (IOException e) {
+            // fall back to heap
+        }
+
+        return new HeapContent(content);
+
+    }
+
+    /**
+     * Content kept on heap.
+     */
+    static class HeapContent extends TieredContent {
+
+        private final byte[] content;
+
+        HeapContent(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        int size() {
+            return content.length;
+        }
+
+        @Override
+        InputStream openInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        byte[] getBytes() {
+            return content;
+        }
+
+    }
+
+    /**
+     * Content kept compressed on heap.
+     */
+    static class CompressedContent extends TieredContent {
+
+        private final byte[] compressedContent;
+        private final int size;
+
+        private CompressedContent(byte[] compressedContent, int size) {
+            this.compressedContent = compressedContent;
+            this.size = size;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        InputStream openInputStream() {
+            return new InflaterInputStream(new ByteArrayInputStream(compressedContent));
+        }
+
+        static CompressedContent compress(byte[] content) throws IOException {
+
+            ByteArrayOutputStream compressedOutput = new ByteArrayOutputStream(content.length / 4);
+
+            // DeflaterOutputStream doesn't end deflaters passed to it, so native memory must be freed explicitly
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(compressedOutput, deflater);
+                deflaterOutputStream.write(content);
+                deflaterOutputStream.close();
+            } finally {
+                deflater.end();
+            }
+
+            return new CompressedContent(compressedOutput.toByteArray(), content.length);
+
+        }
+
+    }
+
+    /**
+     * Content written to a temporary file and mapped into memory.
+     */
+    static class DiskContent extends TieredContent {
+
+        /**
+         * The spilled files that haven't been released yet, which are deleted on shutdown.
+         */
+        private final static Set<File> UNRELEASED_FILES = Collections.synchronizedSet(new HashSet<File>());
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (UNRELEASED_FILES) {
+                        for (File file : UNRELEASED_FILES) {
+                            file.delete();
+                        }
+                    }
+                }
+            }, "cute-spilled-files-shutdown"));
+        }
+
+        private final File file;
+        private final ByteBuffer buffer;
+
+        private DiskContent(File file, ByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        @Override
+        int size() {
+            return buffer.capacity();
+        }
+
+        @Override
+        InputStream openInputStream() {
+            return new CompilationResultSnapshot.ByteBufferInputStream(buffer.duplicate());
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        @Override
+        void release() {
+            // if file can't be deleted while still mapped, it's deleted on shutdown
+            if (file.delete() || !file.exists()) {
+                UNRELEASED_FILES.remove(file);
+            }
+        }
+
+        static DiskContent spill(byte[] content) throws IOException {
+
+            File directory = new File(DebugOutputGenerator.determineBuildFolder(), "cute_generatedFiles");
+            directory.mkdirs();
+
+            File file = File.createTempFile("generated", ".tmp", directory);
+            UNRELEASED_FILES.add(file);
+
+            FileOutputStream outputStream = new FileOutputStream(file);
+            try {
+                outputStream.write(content);
+            } finally {
+                outputStream.close();
+            }
+
+            ByteBuffer buffer;
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, content.length);
+            } finally {
+                // mapping stays valid after file has been closed
+                randomAccessFile.close();
+            }
+
+            return new DiskContent(file, buffer);
+
+        }
+
+    }
+
+}
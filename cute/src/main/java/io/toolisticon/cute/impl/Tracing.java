@@ -0,0 +1,65 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.extension.api.TracingSpi;
+import io.toolisticon.cute.extension.api.TracingSpiServiceLocator;
+
+import java.util.ServiceConfigurationError;
+
+/**
+ * Traces the phases of compile tests via the {@link TracingSpi}, if an implementation is available.
+ * <p>
+ * The spans also feed the {@link TestProfiler}, if profiling is enabled.
+ * <p>
+ * Implementations like the JDK Flight Recorder based one need newer Java versions, so implementations that can't be loaded are ignored.
+ */
+final class Tracing {
+
+    private final static TracingSpi.Span NOOP_SPAN = new TracingSpi.Span() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void end(long bytes) {
+            // nothing to do
+        }
+    };
+
+    private final static TracingSpi TRACING_SPI = locateTracingSpi();
+
+    /**
+     * Hidden constructor.
+     */
+    private Tracing() {
+
+    }
+
+    private static TracingSpi locateTracingSpi() {
+        try {
+            return TracingSpiServiceLocator.locate();
+        } catch (ServiceConfigurationError e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Starts a phase.
+     *
+     * @param phase         the phase
+     * @param testName      the name of the test or null if unknown
+     * @param processorName the class name of the processor or null if phase isn't processor specific
+     * @return the started phase, which must be ended
+     */
+    static TracingSpi.Span begin(TracingSpi.Phase phase, String testName, String processorName) {
+
+        TracingSpi.Span span = TRACING_SPI != null ? TRACING_SPI.begin(phase, testName, processorName) : NOOP_SPAN;
+
+        // compilation and verification times are recorded by the CompileTest, since forked compilations aren't traced in the test JVM
+        return TestProfiler.isEnabled() && phase != TracingSpi.Phase.COMPILATION && phase != TracingSpi.Phase.VERIFICATION ? TestProfiler.profile(phase, span) : span;
+
+    }
+
+}
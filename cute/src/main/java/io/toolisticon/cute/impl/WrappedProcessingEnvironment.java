@@ -0,0 +1,88 @@
+package io.toolisticon.cute.impl;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ProcessingEnvironment that replaces the utilities of a wrapped ProcessingEnvironment.
+ * <p>
+ * Processors relying on javac internals, like the com.sun.source.util.Trees api, can't be used with wrapped processing environments.
+ */
+final class WrappedProcessingEnvironment implements ProcessingEnvironment {
+
+    private final ProcessingEnvironment wrappedProcessingEnvironment;
+    private final Elements elements;
+    private final Types types;
+    private final Filer filer;
+    private final Messager messager;
+
+    /**
+     * Constructor.
+     *
+     * @param wrappedProcessingEnvironment the processing environment to wrap
+     * @param elements                     the Elements utility to use
+     * @param types                        the Types utility to use
+     * @param filer                        the Filer to use
+     * @param messager                     the Messager to use
+     */
+    WrappedProcessingEnvironment(ProcessingEnvironment wrappedProcessingEnvironment, Elements elements, Types types, Filer filer, Messager messager) {
+        this.wrappedProcessingEnvironment = wrappedProcessingEnvironment;
+        this.elements = elements;
+        this.types = types;
+        this.filer = filer;
+        this.messager = messager;
+    }
+
+    /**
+     * Creates a processing environment that just replaces the Filer of the passed processing environment.
+     *
+     * @param processingEnvironment the processing environment to wrap
+     * @param filer                 the Filer to use
+     * @return the wrapped processing environment
+     */
+    static WrappedProcessingEnvironment withFiler(ProcessingEnvironment processingEnvironment, Filer filer) {
+        return new WrappedProcessingEnvironment(processingEnvironment, processingEnvironment.getElementUtils(), processingEnvironment.getTypeUtils(), filer, processingEnvironment.getMessager());
+    }
+
+    @Override
+    public Map<String, String> getOptions() {
+        return wrappedProcessingEnvironment.getOptions();
+    }
+
+    @Override
+    public Messager getMessager() {
+        return messager;
+    }
+
+    @Override
+    public Filer getFiler() {
+        return filer;
+    }
+
+    @Override
+    public Elements getElementUtils() {
+        return elements;
+    }
+
+    @Override
+    public Types getTypeUtils() {
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSourceVersion() {
+        return wrappedProcessingEnvironment.getSourceVersion();
+    }
+
+    @Override
+    public Locale getLocale() {
+        return wrappedProcessingEnvironment.getLocale();
+    }
+
+}
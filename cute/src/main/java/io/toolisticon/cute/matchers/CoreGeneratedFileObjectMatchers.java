@@ -65,6 +65,29 @@ public final class CoreGeneratedFileObjectMatchers {
         return new IgnoreLineEndingsGeneratedFileObjectMatcher(expectedFileObject);
     }
 
+    /**
+     * Static function to create a {@link IgnoreLineEndingsGeneratedFileObjectMatcher} instance.
+     * A failing comparison will show a unified diff containing at most maxDiffHunks hunks.
+     *
+     * @param expectedFileObject the expected FileObject
+     * @param maxDiffHunks       the maximal number of hunks shown in the diff of a failing comparison
+     * @param <T>                The type of FileObject
+     * @return the instance
+     * @throws IllegalArgumentException if passed expectedFileObject is null or maxDiffHunks is less than 1
+     */
+    public static <T extends FileObject> GeneratedFileObjectMatcher createIgnoreLineEndingsMatcher(T expectedFileObject, int maxDiffHunks) {
+
+        if (expectedFileObject == null) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_NOT_BE_NULL.produceMessage("expected fileobject"));
+        }
+
+        if (maxDiffHunks < 1) {
+            throw new IllegalArgumentException(Constants.Messages.IAE_PASSED_PARAMETER_MUST_BE_POSITIVE.produceMessage("maximal number of diff hunks"));
+        }
+
+        return new IgnoreLineEndingsGeneratedFileObjectMatcher(expectedFileObject, maxDiffHunks);
+    }
+
     public static <T extends FileObject> GeneratedFileObjectMatcher createBinaryMatcher(T expectedFileObject) {
 
         if (expectedFileObject == null) {
@@ -6,10 +6,13 @@ import io.toolisticon.cute.GeneratedFileObjectMatcher;
 
 import javax.tools.FileObject;
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
 /**
@@ -19,7 +22,18 @@ import java.util.regex.PatternSyntaxException;
  */
 public class IgnoreLineEndingsGeneratedFileObjectMatcher implements GeneratedFileObjectMatcher {
 
+    /**
+     * The default maximal number of hunks shown in the diff of a failing comparison.
+     */
+    final static int DEFAULT_MAX_DIFF_HUNKS = 5;
+
+    /**
+     * Charset used to decode contents that aren't available as char content, which matches the encoding of generated files.
+     */
+    final static Charset CHARSET = Charset.forName("UTF-8");
+
     final FileObject expectedFileObject;
+    final int maxDiffHunks;
 
     /**
      * Hidden constructor.
@@ -29,25 +43,87 @@ public class IgnoreLineEndingsGeneratedFileObjectMatcher implements GeneratedFil
      */
     IgnoreLineEndingsGeneratedFileObjectMatcher(FileObject expectedFileObject) {
 
+        this(expectedFileObject, DEFAULT_MAX_DIFF_HUNKS);
+
+    }
+
+    /**
+     * Hidden constructor.
+     *
+     * @param expectedFileObject the expected java file object
+     * @param maxDiffHunks       the maximal number of hunks shown in the diff of a failing comparison
+     */
+    IgnoreLineEndingsGeneratedFileObjectMatcher(FileObject expectedFileObject, int maxDiffHunks) {
+
         this.expectedFileObject = expectedFileObject;
+        this.maxDiffHunks = maxDiffHunks;
 
     }
 
     @Override
     public boolean check(FileObject fileObject) throws IOException {
 
-        if (!contentEquals(fileObject.openInputStream(), expectedFileObject.openInputStream())) {
-            throw new FailingAssertionException(Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS.produceMessage());
+        if (!contentEquals(openReader(fileObject), openReader(expectedFileObject))) {
+
+            // diff is just created for failing comparisons
+            String diff = UnifiedDiff.createDiff(readLines(expectedFileObject), readLines(fileObject), maxDiffHunks);
+            throw new FailingAssertionException(diff.isEmpty()
+                    ? Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS.produceMessage()
+                    : Constants.Messages.GFOM_FILEOBJECTS_ARENT_EQUAL_BY_TEXTUAL_COMPARISION_WITH_IGNORE_LINEENDINGS_WITH_DIFF.produceMessage(diff));
+
         }
 
         return true;
     }
 
+    /**
+     * Opens a reader for the content of a FileObject.
+     * Prefers the char content to be able to use in memory content without copying it into a stream first.
+     * Comparison and diff both read via this method, so both sides are always decoded the same way.
+     *
+     * @param fileObject the FileObject to read
+     * @return the reader
+     * @throws IOException if FileObject can't be read
+     */
+    static Reader openReader(FileObject fileObject) throws IOException {
+
+        try {
+            return new StringReader(fileObject.getCharContent(true).toString());
+        } catch (UnsupportedOperationException e) {
+            return new InputStreamReader(fileObject.openInputStream(), CHARSET);
+        }
+
+    }
+
+    /**
+     * Reads all lines of a FileObject.
+     *
+     * @param fileObject the FileObject to read
+     * @return the lines without line endings
+     * @throws IOException if FileObject can't be read
+     */
+    static List<String> readLines(FileObject fileObject) throws IOException {
+
+        List<String> lines = new ArrayList<>();
+        BufferedReader bufferedReader = new BufferedReader(openReader(fileObject));
+        try {
+            String line = bufferedReader.readLine();
+            while (line != null) {
+                lines.add(line);
+                line = bufferedReader.readLine();
+            }
+        } finally {
+            bufferedReader.close();
+        }
+
+        return lines;
+    }
+
 
-    static boolean contentEquals(InputStream input1, InputStream input2) throws IOException {
+    static boolean contentEquals(Reader reader1, Reader reader2) throws IOException {
 
-        BufferedReader br1 = new BufferedReader(new InputStreamReader(input1));
-        BufferedReader br2 = new BufferedReader(new InputStreamReader(input2));
+        BufferedReader br1 = new BufferedReader(reader1);
+        BufferedReader br2 = new BufferedReader(reader2);
 
         String br1line;
         String br2line;
@@ -78,12 +154,13 @@ public class IgnoreLineEndingsGeneratedFileObjectMatcher implements GeneratedFil
 
         IgnoreLineEndingsGeneratedFileObjectMatcher that = (IgnoreLineEndingsGeneratedFileObjectMatcher) o;
 
+        if (maxDiffHunks != that.maxDiffHunks) return false;
         return expectedFileObject != null ? expectedFileObject.equals(that.expectedFileObject) : that.expectedFileObject == null;
     }
 
     @Override
     public int hashCode() {
-        return expectedFileObject != null ? expectedFileObject.hashCode() : 0;
+        return 31 * (expectedFileObject != null ? expectedFileObject.hashCode() : 0) + maxDiffHunks;
     }
 }
 
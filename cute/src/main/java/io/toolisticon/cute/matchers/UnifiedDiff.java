@@ -0,0 +1,272 @@
+package io.toolisticon.cute.matchers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates a size bounded unified diff of two texts by using Myers' diff algorithm.
+ * Should only be used to describe failing comparisons, since it's more expensive than just checking for equality.
+ */
+final class UnifiedDiff {
+
+    /**
+     * Number of unchanged lines shown before and after each change.
+     */
+    final static int CONTEXT_LINES = 3;
+
+    /**
+     * Maximal number of edits to search for. Texts with more differences won't be diffed.
+     */
+    final static int MAX_EDIT_DISTANCE = 1000;
+
+    private enum Operation {
+        EQUAL(' '),
+        DELETE('-'),
+        INSERT('+');
+
+        private final char prefix;
+
+        Operation(char prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    private static class Edit {
+
+        private final Operation operation;
+        private final String line;
+
+        private Edit(Operation operation, String line) {
+            this.operation = operation;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private UnifiedDiff() {
+
+    }
+
+    /**
+     * Creates the unified diff.
+     *
+     * @param expected the expected lines
+     * @param actual   the actual lines
+     * @param maxHunks the maximal number of hunks to render
+     * @return the unified diff, or an empty String if both texts are equal
+     */
+    static String createDiff(List<String> expected, List<String> actual, int maxHunks) {
+
+        List<Edit> edits = createEditScript(expected, actual);
+        if (edits == null) {
+            return "--- expected\n+++ actual\nToo many differences to create a diff (more than " + MAX_EDIT_DISTANCE + " changed lines)\n";
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        int hunks = 0;
+        int index = nextChange(edits, 0);
+        while (index < edits.size()) {
+
+            if (hunks == maxHunks) {
+                stringBuilder.append("... further differences omitted\n");
+                break;
+            }
+
+            // find end of hunk - changes separated by less than 2 * CONTEXT_LINES unchanged lines are joined
+            int end = index;
+            int next = nextChange(edits, end + 1);
+            while (next < edits.size() && next - end <= 2 * CONTEXT_LINES) {
+                end = next;
+                next = nextChange(edits, end + 1);
+            }
+
+            int start = Math.max(0, index - CONTEXT_LINES);
+            end = Math.min(edits.size() - 1, end + CONTEXT_LINES);
+
+            appendHunk(stringBuilder, edits, start, end);
+            hunks++;
+
+            index = next;
+        }
+
+        return hunks > 0 ? "--- expected\n+++ actual\n" + stringBuilder : "";
+    }
+
+    private static int nextChange(List<Edit> edits, int index) {
+        while (index < edits.size() && edits.get(index).operation == Operation.EQUAL) {
+            index++;
+        }
+        return index;
+    }
+
+    private static void appendHunk(StringBuilder stringBuilder, List<Edit> edits, int start, int end) {
+
+        // determine line numbers of hunk start
+        int expectedLine = 1;
+        int actualLine = 1;
+        for (int i = 0; i < start; i++) {
+            if (edits.get(i).operation != Operation.INSERT) {
+                expectedLine++;
+            }
+            if (edits.get(i).operation != Operation.DELETE) {
+                actualLine++;
+            }
+        }
+
+        int expectedCount = 0;
+        int actualCount = 0;
+        for (int i = start; i <= end; i++) {
+            if (edits.get(i).operation != Operation.INSERT) {
+                expectedCount++;
+            }
+            if (edits.get(i).operation != Operation.DELETE) {
+                actualCount++;
+            }
+        }
+
+        stringBuilder.append("@@ -").append(expectedCount > 0 ? expectedLine : expectedLine - 1).append(',').append(expectedCount)
+                .append(" +").append(actualCount > 0 ? actualLine : actualLine - 1).append(',').append(actualCount).append(" @@\n");
+
+        for (int i = start; i <= end; i++) {
+            stringBuilder.append(edits.get(i).operation.prefix).append(edits.get(i).line).append('\n');
+        }
+
+    }
+
+    /**
+     * Creates the edit script to transform expected into actual.
+     * Common prefix and suffix are stripped before running Myers' algorithm on the remaining lines.
+     *
+     * @param expected the expected lines
+     * @param actual   the actual lines
+     * @return the edit script or null if there are more than {@link #MAX_EDIT_DISTANCE} differences
+     */
+    private static List<Edit> createEditScript(List<String> expected, List<String> actual) {
+
+        int prefix = 0;
+        while (prefix < expected.size() && prefix < actual.size() && expected.get(prefix).equals(actual.get(prefix))) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        while (suffix < expected.size() - prefix && suffix < actual.size() - prefix
+                && expected.get(expected.size() - 1 - suffix).equals(actual.get(actual.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        List<Edit> middle = myers(expected.subList(prefix, expected.size() - suffix), actual.subList(prefix, actual.size() - suffix));
+        if (middle == null) {
+            return null;
+        }
+
+        List<Edit> edits = new ArrayList<>(prefix + middle.size() + suffix);
+        for (int i = 0; i < prefix; i++) {
+            edits.add(new Edit(Operation.EQUAL, expected.get(i)));
+        }
+        edits.addAll(middle);
+        for (int i = expected.size() - suffix; i < expected.size(); i++) {
+            edits.add(new Edit(Operation.EQUAL, expected.get(i)));
+        }
+
+        return edits;
+    }
+
+    private static List<Edit> myers(List<String> a, List<String> b) {
+
+        int n = a.size();
+        int m = b.size();
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+
+        // v[offset + k] contains the furthest x reached on diagonal k
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        for (int d = 0; d <= max; d++) {
+
+            // store state of all diagonals reachable in d - 1 steps for backtracking
+            int[] snapshot = new int[2 * d + 1];
+            System.arraycopy(v, offset - d, snapshot, 0, snapshot.length);
+            trace.add(snapshot);
+
+            for (int k = -d; k <= d; k += 2) {
+
+                int x;
+                if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+                    x = v[offset + k + 1];
+                } else {
+                    x = v[offset + k - 1] + 1;
+                }
+                int y = x - k;
+
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+
+                v[offset + k] = x;
+
+                if (x >= n && y >= m) {
+                    return backtrack(a, b, trace, d);
+                }
+            }
+
+        }
+
+        return null;
+    }
+
+    private static List<Edit> backtrack(List<String> a, List<String> b, List<int[]> trace, int distance) {
+
+        List<Edit> edits = new ArrayList<>();
+
+        int x = a.size();
+        int y = b.size();
+
+        for (int d = distance; d > 0; d--) {
+
+            int[] v = trace.get(d);
+            int k = x - y;
+
+            // snapshot of step d covers diagonals -d..d
+            int prevK;
+            if (k == -d || (k != d && v[k - 1 + d] < v[k + 1 + d])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+
+            int prevX = v[prevK + d];
+            int prevY = prevX - prevK;
+
+            while (x > prevX && y > prevY) {
+                edits.add(new Edit(Operation.EQUAL, a.get(x - 1)));
+                x--;
+                y--;
+            }
+
+            if (prevK == k + 1) {
+                edits.add(new Edit(Operation.INSERT, b.get(prevY)));
+            } else {
+                edits.add(new Edit(Operation.DELETE, a.get(prevX)));
+            }
+
+            x = prevX;
+            y = prevY;
+        }
+
+        while (x > 0 && y > 0) {
+            edits.add(new Edit(Operation.EQUAL, a.get(x - 1)));
+            x--;
+            y--;
+        }
+
+        Collections.reverse(edits);
+        return edits;
+    }
+
+}
@@ -0,0 +1,11 @@
+package io.toolisticon.compiletesting.test;
+
+import io.toolisticon.cute.TestAnnotation;
+
+/**
+ * Minimal source used to trigger unit tests with passed in elements.
+ */
+@TestAnnotation
+public class PassInUnitTestClass {
+
+}
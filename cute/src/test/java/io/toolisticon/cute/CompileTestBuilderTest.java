@@ -15,6 +15,7 @@ import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
 import javax.tools.Diagnostic;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
@@ -26,7 +27,9 @@ import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 public class CompileTestBuilderTest {
@@ -843,4 +846,153 @@ public class CompileTestBuilderTest {
 
     }
 
+    @Test
+    public void test_passIn_shouldReplaceDefaultSourceByMinimalSource() {
+
+        CompileTestBuilder.UnitTestBuilder builder = CompileTestBuilder
+                .unitTest()
+                .<TypeElement>defineTestWithPassedInElement(PassInClass.class, new UnitTest<TypeElement>() {
+                    @Override
+                    public void unitTest(ProcessingEnvironment processingEnvironment, TypeElement element) {
+                        MatcherAssert.assertThat(element.getSimpleName().toString(), Matchers.is("PassInClass"));
+                    }
+                });
+
+        MatcherAssert.assertThat(builder.createCompileTestConfiguration().getSourceFiles(), Matchers.hasSize(1));
+        MatcherAssert.assertThat(builder.createCompileTestConfiguration().getSourceFiles().iterator().next().toUri().toString(), Matchers.is("resource://" + Constants.PASS_IN_UNIT_TEST_SOURCE_FILE));
+
+        builder.executeTest();
+
+    }
+
+    @Test
+    public void test_passIn_shouldKeepCustomSource() {
+
+        JavaFileObject customSource = JavaFileObjectUtils.readFromString("io.toolisticon.cute.CustomSource", "package io.toolisticon.cute;\n@TestAnnotation\npublic class CustomSource {}");
+
+        CompileTestBuilder.UnitTestBuilder builder = CompileTestBuilder
+                .unitTest()
+                .useSource(customSource)
+                .<SimpleTestProcessor1, TypeElement>defineTestWithPassedInElement(SimpleTestProcessor1.class, PassInClass.class, new UnitTestForTestingAnnotationProcessors<SimpleTestProcessor1, TypeElement>() {
+                    @Override
+                    public void unitTest(SimpleTestProcessor1 unit, ProcessingEnvironment processingEnvironment, TypeElement element) {
+
+                    }
+                });
+
+        MatcherAssert.assertThat(builder.createCompileTestConfiguration().getSourceFiles(), Matchers.contains(customSource));
+
+    }
+
+    static class MultiplePassInClass {
+
+        @PassIn("field")
+        String field;
+
+        @PassIn("method")
+        public void method() {
+
+        }
+
+    }
+
+    @Test
+    public void test_passIn_multipleUnitTestsInOneCompilation() {
+
+        final List<String> executedUnitTests = new ArrayList<>();
+
+        Map<String, UnitTest<? extends Element>> unitTests = new LinkedHashMap<>();
+        unitTests.put("field", new UnitTest<VariableElement>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, VariableElement element) {
+                MatcherAssert.assertThat(element.getSimpleName().toString(), Matchers.is("field"));
+                executedUnitTests.add("field");
+            }
+        });
+        unitTests.put("method", new UnitTest<ExecutableElement>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, ExecutableElement element) {
+                MatcherAssert.assertThat(element.getSimpleName().toString(), Matchers.is("method"));
+                executedUnitTests.add("method");
+            }
+        });
+
+        CompileTestBuilder
+                .unitTest()
+                .defineTestsWithPassedInElements(MultiplePassInClass.class, unitTests)
+                .compilationShouldSucceed()
+                .executeTest();
+
+        MatcherAssert.assertThat(executedUnitTests, Matchers.contains("field", "method"));
+
+    }
+
+    @Test
+    public void test_passIn_multipleUnitTestsShouldReportAllFailures() {
+
+        Map<String, UnitTest<? extends Element>> unitTests = new LinkedHashMap<>();
+        unitTests.put("field", new UnitTest<VariableElement>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, VariableElement element) {
+                throw new AssertionError("FIELD FAILED");
+            }
+        });
+        unitTests.put("method", new UnitTest<VariableElement>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, VariableElement element) {
+                throw new AssertionError("VARIABLE ELEMENT EXPECTED");
+            }
+        });
+        unitTests.put("unknown", new UnitTest<Element>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+
+            }
+        });
+
+        try {
+            CompileTestBuilder
+                    .unitTest()
+                    .defineTestsWithPassedInElements(MultiplePassInClass.class, unitTests)
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.UNIT_TEST_PASS_IN_UNIT_TESTS_FAILED.produceMessage(3, 3, "")));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("[field] : FIELD FAILED"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("[method] : " + Constants.Messages.UNIT_TEST_PRECONDITION_INCOMPATIBLE_ELEMENT_TYPE.getMessagePattern()));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("[unknown] : " + Constants.Messages.UNIT_TEST_PASS_IN_PRECONDITION_MUST_FIND_EXACTLY_ONE_ELEMENT_WITH_ID.produceMessage("unknown", MultiplePassInClass.class.getCanonicalName())));
+            return;
+        }
+
+        throw new AssertionError("Expected AssertionError to be thrown.");
+
+    }
+
+    @Test(expected = InvalidTestConfigurationException.class)
+    public void test_passIn_multipleUnitTestsWithExpectedExceptionShouldThrowInvalidTestConfigurationException() {
+
+        Map<String, UnitTest<? extends Element>> unitTests = new LinkedHashMap<>();
+        unitTests.put("field", new UnitTest<VariableElement>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, VariableElement element) {
+                throw new IllegalStateException();
+            }
+        });
+
+        CompileTestBuilder
+                .unitTest()
+                .defineTestsWithPassedInElements(MultiplePassInClass.class, unitTests)
+                .expectedThrownException(IllegalStateException.class)
+                .executeTest();
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_passIn_multipleUnitTestsWithEmptyMap() {
+
+        CompileTestBuilder
+                .unitTest()
+                .defineTestsWithPassedInElements(MultiplePassInClass.class, new LinkedHashMap<String, UnitTest<? extends Element>>());
+
+    }
+
 }
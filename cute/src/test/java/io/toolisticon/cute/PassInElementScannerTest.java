@@ -0,0 +1,109 @@
+package io.toolisticon.cute;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+/**
+ * Unit test for {@link PassInElementScanner}.
+ */
+public class PassInElementScannerTest {
+
+    static class SinglePassInOnParameter {
+
+        public void method(String first, @PassIn Long second) {
+
+        }
+
+    }
+
+    static class MultiplePassIns {
+
+        @PassIn
+        String first;
+
+        @PassIn
+        String second;
+
+        @PassIn
+        public void method() {
+
+        }
+
+    }
+
+    static class NoPassIn {
+
+        String field;
+
+    }
+
+    private static List<Element> scan(ProcessingEnvironment processingEnvironment, Class<?> classToScan, int maxMatches) {
+        TypeElement typeElement = processingEnvironment.getElementUtils().getTypeElement(classToScan.getCanonicalName());
+        return new PassInElementScanner(PassIn.class, maxMatches).scanForMatchingElements(typeElement);
+    }
+
+    @Test
+    public void test_shouldFindAnnotatedParameter() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(new UnitTest<Element>() {
+                    @Override
+                    public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+
+                        List<Element> result = scan(processingEnvironment, SinglePassInOnParameter.class, 2);
+
+                        MatcherAssert.assertThat(result, Matchers.hasSize(1));
+                        MatcherAssert.assertThat(result.get(0).getKind(), Matchers.is(ElementKind.PARAMETER));
+                        MatcherAssert.assertThat(result.get(0).asType().toString(), Matchers.is(Long.class.getCanonicalName()));
+
+                    }
+                })
+                .compilationShouldSucceed()
+                .executeTest();
+
+    }
+
+    @Test
+    public void test_shouldStopScanningAtMaxMatches() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(new UnitTest<Element>() {
+                    @Override
+                    public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+
+                        MatcherAssert.assertThat(scan(processingEnvironment, MultiplePassIns.class, 2), Matchers.hasSize(2));
+                        MatcherAssert.assertThat(scan(processingEnvironment, MultiplePassIns.class, 5), Matchers.hasSize(3));
+
+                    }
+                })
+                .compilationShouldSucceed()
+                .executeTest();
+
+    }
+
+    @Test
+    public void test_shouldReturnEmptyListWithoutMatches() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(new UnitTest<Element>() {
+                    @Override
+                    public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+
+                        MatcherAssert.assertThat(scan(processingEnvironment, NoPassIn.class, 2), Matchers.<Element>empty());
+                        MatcherAssert.assertThat(new PassInElementScanner(PassIn.class, 2).scanForMatchingElements(null), Matchers.<Element>empty());
+
+                    }
+                })
+                .compilationShouldSucceed()
+                .executeTest();
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.JavaFileObjectUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.util.Locale;
+
+/**
+ * Unit test for {@link BoundedDiagnosticListener}.
+ */
+public class BoundedDiagnosticListenerTest {
+
+    private static final JavaFileObject SOURCE_A = JavaFileObjectUtils.readFromString("io.toolisticon.cute.A", "package io.toolisticon.cute;\nclass A {}");
+    private static final JavaFileObject SOURCE_B = JavaFileObjectUtils.readFromString("io.toolisticon.cute.B", "package io.toolisticon.cute;\nclass B {}");
+
+    @SuppressWarnings("unchecked")
+    private static Diagnostic<JavaFileObject> createDiagnostic(Diagnostic.Kind kind, JavaFileObject source, String message) {
+
+        Diagnostic<JavaFileObject> diagnostic = Mockito.mock(Diagnostic.class);
+        Mockito.when(diagnostic.getKind()).thenReturn(kind);
+        Mockito.when(diagnostic.getSource()).thenReturn(source);
+        Mockito.when(diagnostic.getMessage(Mockito.<Locale>any())).thenReturn(message);
+        return diagnostic;
+
+    }
+
+    @Test
+    public void test_report_shouldCountAllButRetainUpToLimit() {
+
+        BoundedDiagnosticListener unit = new BoundedDiagnosticListener(new CompileTestConfiguration(), 2);
+
+        for (int i = 0; i < 5; i++) {
+            unit.report(createDiagnostic(Diagnostic.Kind.WARNING, SOURCE_A, "WARNING"));
+        }
+        unit.report(createDiagnostic(Diagnostic.Kind.NOTE, SOURCE_A, "NOTE"));
+
+        MatcherAssert.assertThat(unit.getCount(Diagnostic.Kind.WARNING), Matchers.is(5L));
+        MatcherAssert.assertThat(unit.getDroppedCount(Diagnostic.Kind.WARNING), Matchers.is(3L));
+        MatcherAssert.assertThat(unit.getCount(Diagnostic.Kind.NOTE), Matchers.is(1L));
+        MatcherAssert.assertThat(unit.getDroppedCount(Diagnostic.Kind.NOTE), Matchers.is(0L));
+        MatcherAssert.assertThat(unit.getCount(Diagnostic.Kind.ERROR), Matchers.is(0L));
+        MatcherAssert.assertThat(unit.getRetainedDiagnostics().getDiagnostics(), Matchers.hasSize(3));
+
+    }
+
+    @Test
+    public void test_report_shouldRetainDiagnosticsOfCheckedKindsAndSources() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        compileTestConfiguration.addCompilerMessageCheck(new CompileTestConfiguration.CompilerMessageCheck(Diagnostic.Kind.WARNING, CompileTestConfiguration.ComparisionKind.CONTAINS, "WARNING", null, SOURCE_A.getName(), null, null));
+        compileTestConfiguration.addNoteMessageCheck(CompileTestConfiguration.ComparisionKind.CONTAINS, "NOTE");
+
+        BoundedDiagnosticListener unit = new BoundedDiagnosticListener(compileTestConfiguration, 0);
+
+        for (int i = 0; i < 3; i++) {
+            unit.report(createDiagnostic(Diagnostic.Kind.WARNING, SOURCE_A, "WARNING"));
+            unit.report(createDiagnostic(Diagnostic.Kind.WARNING, SOURCE_B, "WARNING"));
+            unit.report(createDiagnostic(Diagnostic.Kind.NOTE, SOURCE_B, "NOTE"));
+            unit.report(createDiagnostic(Diagnostic.Kind.ERROR, SOURCE_A, "ERROR"));
+        }
+
+        MatcherAssert.assertThat(unit.getCount(Diagnostic.Kind.WARNING), Matchers.is(6L));
+        MatcherAssert.assertThat(unit.getDroppedCount(Diagnostic.Kind.WARNING), Matchers.is(3L));
+        MatcherAssert.assertThat(unit.getDroppedCount(Diagnostic.Kind.NOTE), Matchers.is(0L));
+        MatcherAssert.assertThat(unit.getDroppedCount(Diagnostic.Kind.ERROR), Matchers.is(3L));
+        MatcherAssert.assertThat(unit.getRetainedDiagnostics().getDiagnostics(), Matchers.hasSize(6));
+
+    }
+
+    @Test
+    public void test_report_shouldRetainAllDiagnosticsIfConfigured() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        compileTestConfiguration.setRetainAllDiagnostics(true);
+
+        BoundedDiagnosticListener unit = new BoundedDiagnosticListener(compileTestConfiguration);
+
+        for (int i = 0; i < 500; i++) {
+            unit.report(createDiagnostic(Diagnostic.Kind.WARNING, SOURCE_A, "WARNING"));
+        }
+
+        MatcherAssert.assertThat(unit.getDroppedCount(Diagnostic.Kind.WARNING), Matchers.is(0L));
+        MatcherAssert.assertThat(unit.getRetainedDiagnostics().getDiagnostics(), Matchers.hasSize(500));
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.JavaFileObjectUtils;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CompilationPhaseTimes}.
+ */
+public class CompilationPhaseTimesTest {
+
+    @Test
+    public void test_nestedPhasesShouldBeAccumulated() {
+
+        CompilationPhaseTimes compilationPhaseTimes = new CompilationPhaseTimes();
+
+        compilationPhaseTimes.started("ANNOTATION_PROCESSING");
+        compilationPhaseTimes.started("PARSE");
+        compilationPhaseTimes.finished("PARSE");
+        compilationPhaseTimes.started("PARSE");
+        compilationPhaseTimes.finished("PARSE");
+        compilationPhaseTimes.finished("ANNOTATION_PROCESSING");
+
+        // finished events without started event must be ignored
+        compilationPhaseTimes.finished("GENERATE");
+
+        MatcherAssert.assertThat(compilationPhaseTimes.getPhases(), Matchers.contains("PARSE", "ANNOTATION_PROCESSING"));
+        MatcherAssert.assertThat(compilationPhaseTimes.getDuration("ANNOTATION_PROCESSING"), Matchers.greaterThanOrEqualTo(compilationPhaseTimes.getDuration("PARSE")));
+        MatcherAssert.assertThat(compilationPhaseTimes.getDuration("GENERATE"), Matchers.is(0L));
+        MatcherAssert.assertThat(compilationPhaseTimes.toString(), Matchers.containsString("PARSE : "));
+
+    }
+
+    @Test
+    public void test_phasesShouldBeMeasuredDuringCompilation() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        compileTestConfiguration.addProcessorTypes(SimpleTestProcessor1.class);
+        compileTestConfiguration.addSourceFiles(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"));
+        compileTestConfiguration.setMeasureCompilationPhases(true);
+
+        CompilationPhaseTimes compilationPhaseTimes = CompileTest.compile(compileTestConfiguration).getCompilationPhaseTimes();
+
+        MatcherAssert.assertThat(compilationPhaseTimes, Matchers.notNullValue());
+        MatcherAssert.assertThat(compilationPhaseTimes.getPhases(), Matchers.hasItems("PARSE", "ENTER", "ANALYZE", "GENERATE", "ANNOTATION_PROCESSING", "ANNOTATION_PROCESSING_ROUND"));
+
+    }
+
+    @Test
+    public void test_phasesShouldNotBeMeasuredByDefault() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        compileTestConfiguration.addSourceFiles(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"));
+
+        MatcherAssert.assertThat(CompileTest.compile(compileTestConfiguration).getCompilationPhaseTimes(), Matchers.nullValue());
+
+    }
+
+}
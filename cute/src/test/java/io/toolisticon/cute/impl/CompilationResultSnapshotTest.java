@@ -0,0 +1,119 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.JavaFileObjectUtils;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Unit test for {@link CompilationResultSnapshot}.
+ */
+public class CompilationResultSnapshotTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static CompilationResult createCompilationResult(boolean withCompilationError) {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        compileTestConfiguration.addProcessorTypes(SimpleTestProcessor1.class);
+        compileTestConfiguration.addSourceFiles(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"));
+
+        if (withCompilationError) {
+            compileTestConfiguration.addSourceFiles(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Broken", "package io.toolisticon.cute;\npublic class Broken { int x = \"\"; }"));
+        }
+
+        return CompileTest.compile(compileTestConfiguration);
+
+    }
+
+    private static void assertEqualCompilationResults(CompilationResult restored, CompilationResult original) throws IOException {
+
+        MatcherAssert.assertThat(restored.getCompilationSucceeded(), Matchers.is(original.getCompilationSucceeded()));
+
+        List<Diagnostic<? extends JavaFileObject>> originalDiagnostics = original.getDiagnostics().getDiagnostics();
+        List<Diagnostic<? extends JavaFileObject>> restoredDiagnostics = restored.getDiagnostics().getDiagnostics();
+        MatcherAssert.assertThat(restoredDiagnostics.size(), Matchers.is(originalDiagnostics.size()));
+
+        for (int i = 0; i < originalDiagnostics.size(); i++) {
+            MatcherAssert.assertThat(restoredDiagnostics.get(i).getKind(), Matchers.is(originalDiagnostics.get(i).getKind()));
+            MatcherAssert.assertThat(restoredDiagnostics.get(i).getMessage(null), Matchers.is(originalDiagnostics.get(i).getMessage(null)));
+            MatcherAssert.assertThat(restoredDiagnostics.get(i).getLineNumber(), Matchers.is(originalDiagnostics.get(i).getLineNumber()));
+            MatcherAssert.assertThat(restoredDiagnostics.get(i).getColumnNumber(), Matchers.is(originalDiagnostics.get(i).getColumnNumber()));
+            if (originalDiagnostics.get(i).getSource() != null) {
+                MatcherAssert.assertThat(restoredDiagnostics.get(i).getSource().getName(), Matchers.is(originalDiagnostics.get(i).getSource().getName()));
+            }
+        }
+
+        MatcherAssert.assertThat(restored.getCompileTestFileManager().getGeneratedJavaFileObjects().size(), Matchers.is(original.getCompileTestFileManager().getGeneratedJavaFileObjects().size()));
+        for (JavaFileObject javaFileObject : original.getCompileTestFileManager().getGeneratedJavaFileObjects()) {
+            JavaFileObject restoredJavaFileObject = (JavaFileObject) restored.getCompileTestFileManager().getGeneratedFileObject(StandardLocation.CLASS_OUTPUT, GeneratedOutputSnapshot.getRelativePath(javaFileObject).substring(StandardLocation.CLASS_OUTPUT.getName().length() + 1));
+            MatcherAssert.assertThat(restoredJavaFileObject.getKind(), Matchers.is(javaFileObject.getKind()));
+            MatcherAssert.assertThat(GeneratedOutputSnapshot.readContent(restoredJavaFileObject.openInputStream()), Matchers.is(GeneratedOutputSnapshot.readContent(javaFileObject.openInputStream())));
+        }
+
+    }
+
+    @Test
+    public void test_writeAndReadStream() throws IOException {
+
+        CompilationResult compilationResult = createCompilationResult(true);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CompilationResultSnapshot.write(compilationResult, outputStream);
+
+        assertEqualCompilationResults(CompilationResultSnapshot.read(new ByteArrayInputStream(outputStream.toByteArray())), compilationResult);
+
+    }
+
+    @Test
+    public void test_writeAndReadMemoryMappedFile() throws IOException {
+
+        CompilationResult compilationResult = createCompilationResult(false);
+        MatcherAssert.assertThat(compilationResult.getCompileTestFileManager().getGeneratedJavaFileObjects(), Matchers.not(Matchers.<JavaFileObject>empty()));
+
+        File snapshotFile = temporaryFolder.newFile("result.cute");
+        CompilationResultSnapshot.write(compilationResult, snapshotFile);
+
+        assertEqualCompilationResults(CompilationResultSnapshot.read(snapshotFile), compilationResult);
+
+    }
+
+    @Test
+    public void test_releaseShouldCloseFileManagerOfReadSnapshotsOnly() throws IOException {
+
+        StandardJavaFileManager sharedFileManager = Mockito.mock(StandardJavaFileManager.class);
+        new CompilationResult(true, new DiagnosticCollector<JavaFileObject>(), new CompilationContext(new CompileTestFileManager(sharedFileManager))).release();
+        Mockito.verify(sharedFileManager, Mockito.never()).close();
+
+        StandardJavaFileManager ownedFileManager = Mockito.mock(StandardJavaFileManager.class);
+        CompilationResult compilationResult = new CompilationResult(true, new DiagnosticCollector<JavaFileObject>(), new CompilationContext(new CompileTestFileManager(ownedFileManager)));
+        compilationResult.setCloseFileManagerOnRelease(true);
+        compilationResult.release();
+        Mockito.verify(ownedFileManager).close();
+
+    }
+
+    @Test(expected = IOException.class)
+    public void test_readInvalidSnapshot() throws IOException {
+
+        CompilationResultSnapshot.read(new ByteArrayInputStream("NO SNAPSHOT".getBytes()));
+
+    }
+
+}
@@ -13,6 +13,12 @@ import java.io.IOException;
 import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Unit test for {@link CompileTestFileManager}.
@@ -51,6 +57,23 @@ public class CompileTestFileManagerTest {
 
     }
 
+    @Test
+    public void test_InMemoryOutputStream_callBackCalledOnCloseOnly() throws IOException {
+
+        TestCallback outputStreamCallback = new TestCallback();
+        CompileTestFileManager.InMemoryOutputStream unit = new CompileTestFileManager.InMemoryOutputStream(outputStreamCallback);
+
+        unit.write("TE".getBytes());
+        unit.write("ST".getBytes());
+
+        MatcherAssert.assertThat(outputStreamCallback.getContent(), Matchers.nullValue());
+
+        unit.close();
+
+        MatcherAssert.assertThat(outputStreamCallback.getContent(), Matchers.is("TEST"));
+
+    }
+
     // ---------------------------------------------
     // -- test InMemoryOutputJavaFileObject
     // ---------------------------------------------
@@ -121,6 +144,53 @@ public class CompileTestFileManagerTest {
 
     }
 
+    @Test
+    public void test_FileObjectCache_indexedByLocation() throws URISyntaxException {
+
+        CompileTestFileManager.FileObjectCache<JavaFileObject> unit = new CompileTestFileManager.FileObjectCache<>();
+
+        JavaFileObject javaFileObject1 = Mockito.mock(JavaFileObject.class);
+        JavaFileObject javaFileObject2 = Mockito.mock(JavaFileObject.class);
+
+        unit.addFileObject("SOURCE_OUTPUT", "io/toolisticon/Test.java", javaFileObject1);
+        unit.addFileObject(new URI("mem://CLASS_OUTPUT/io/toolisticon/Test.class"), javaFileObject2);
+
+        MatcherAssert.assertThat(unit.getFileObject("SOURCE_OUTPUT", "io/toolisticon/Test.java"), Matchers.is(javaFileObject1));
+        MatcherAssert.assertThat(unit.getFileObject("CLASS_OUTPUT", "io/toolisticon/Test.class"), Matchers.is(javaFileObject2));
+        MatcherAssert.assertThat(unit.getFileObject(new URI("mem://SOURCE_OUTPUT/io/toolisticon/Test.java")), Matchers.is(javaFileObject1));
+        MatcherAssert.assertThat("Should not contain file", !unit.contains("CLASS_OUTPUT", "io/toolisticon/Test.java"));
+
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.contains(javaFileObject1, javaFileObject2));
+
+    }
+
+    @Test
+    public void test_FileObjectCache_entriesShouldBeUpdatedAfterAdd() {
+
+        CompileTestFileManager.FileObjectCache<JavaFileObject> unit = new CompileTestFileManager.FileObjectCache<>();
+
+        JavaFileObject javaFileObject1 = Mockito.mock(JavaFileObject.class);
+        unit.addFileObject("SOURCE_OUTPUT", "A.java", javaFileObject1);
+
+        List<JavaFileObject> entries = unit.getEntries();
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.sameInstance(entries));
+
+        JavaFileObject javaFileObject2 = Mockito.mock(JavaFileObject.class);
+        unit.addFileObject("SOURCE_OUTPUT", "B.java", javaFileObject2);
+
+        MatcherAssert.assertThat(entries, Matchers.contains(javaFileObject1));
+        MatcherAssert.assertThat(unit.getEntries(), Matchers.contains(javaFileObject1, javaFileObject2));
+
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_FileObjectCache_entriesShouldBeReadOnly() {
+
+        CompileTestFileManager.FileObjectCache<JavaFileObject> unit = new CompileTestFileManager.FileObjectCache<>();
+        unit.getEntries().add(Mockito.mock(JavaFileObject.class));
+
+    }
+
     // ---------------------------------------------
     // -- test CompileTestFileManager
     // ---------------------------------------------
@@ -221,5 +291,75 @@ public class CompileTestFileManagerTest {
 
     }
 
+    @Test
+    public void test_CompileTestFileManager_concurrentGenerationOfFiles() throws Exception {
+
+        final CompileTestFileManager unit = new CompileTestFileManager(standardJavaFileManager, true);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final int index = i;
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        JavaFileObject javaFileObject = unit.getJavaFileForOutput(StandardLocation.SOURCE_OUTPUT, "io.toolisticon.Test" + index, JavaFileObject.Kind.SOURCE, null);
+                        Writer writer = javaFileObject.openWriter();
+                        writer.write("CONTENT" + index);
+                        writer.close();
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+
+        } finally {
+            executorService.shutdown();
+        }
+
+        MatcherAssert.assertThat(unit.getGeneratedJavaFileObjects(), Matchers.hasSize(100));
+        MatcherAssert.assertThat(unit.getMultiplyWrittenFileObjects(), Matchers.<String>empty());
+        MatcherAssert.assertThat(unit.getJavaFileForInput(StandardLocation.SOURCE_OUTPUT, "io.toolisticon.Test42", JavaFileObject.Kind.SOURCE).getCharContent(true).toString(), Matchers.is("CONTENT42"));
+
+    }
+
+    @Test
+    public void test_CompileTestFileManager_detectMultiplyWrittenFiles() throws IOException {
+
+        CompileTestFileManager unit = new CompileTestFileManager(standardJavaFileManager, true);
+
+        unit.getFileForOutput(StandardLocation.SOURCE_OUTPUT, "io.toolisticon", "test.txt", null);
+        unit.getFileForOutput(StandardLocation.SOURCE_OUTPUT, "io.toolisticon", "test.txt", null);
+        unit.getJavaFileForOutput(StandardLocation.SOURCE_OUTPUT, "io.toolisticon.Test", JavaFileObject.Kind.SOURCE, null);
+
+        MatcherAssert.assertThat(unit.getMultiplyWrittenFileObjects(), Matchers.contains("SOURCE_OUTPUT/io/toolisticon/test.txt"));
+
+    }
+
+    @Test
+    public void test_CompileTestFileManager_releaseGeneratedFiles_shouldKeepPreviouslyGeneratedFiles() throws IOException {
+
+        CompileTestFileManager.InMemoryOutputJavaFileObject previouslyGeneratedFile = new CompileTestFileManager.InMemoryOutputJavaFileObject(URI.create("mem://SOURCE_OUTPUT/io/toolisticon/Kept.java"), JavaFileObject.Kind.SOURCE);
+        previouslyGeneratedFile.setContent("KEPT".getBytes());
+
+        CompileTestFileManager unit = new CompileTestFileManager(standardJavaFileManager);
+        unit.addPreviouslyGeneratedFileObject(previouslyGeneratedFile, true);
+
+        JavaFileObject generatedFile = unit.getJavaFileForOutput(StandardLocation.SOURCE_OUTPUT, "io.toolisticon.Test", JavaFileObject.Kind.SOURCE, null);
+        Writer writer = generatedFile.openWriter();
+        writer.write("GENERATED");
+        writer.close();
+
+        unit.releaseGeneratedFiles();
+
+        MatcherAssert.assertThat(previouslyGeneratedFile.getCharContent(true).toString(), Matchers.is("KEPT"));
+        MatcherAssert.assertThat(generatedFile.getCharContent(true).toString(), Matchers.is(""));
+
+    }
 
 }
@@ -0,0 +1,119 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.CompileTestBuilder;
+import io.toolisticon.cute.JavaFileObjectUtils;
+import io.toolisticon.cute.extension.api.CompileTestListenerSpi;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test for notification of {@link CompileTestListenerSpi} implementations.
+ * The {@link RecordingCompileTestListener} is registered in the services of the test resources.
+ */
+public class CompileTestListenersTest {
+
+    /**
+     * Records the callbacks, while recording is enabled.
+     */
+    public static class RecordingCompileTestListener implements CompileTestListenerSpi {
+
+        private static volatile boolean recording = false;
+        private static final List<String> CALLBACKS = new ArrayList<>();
+
+        private static void record(String callback) {
+            if (recording) {
+                synchronized (CALLBACKS) {
+                    CALLBACKS.add(callback);
+                }
+            }
+        }
+
+        static List<String> getCallbacks() {
+            synchronized (CALLBACKS) {
+                return new ArrayList<>(CALLBACKS);
+            }
+        }
+
+        @Override
+        public void testStarted(String testName) {
+            record("testStarted|" + testName);
+        }
+
+        @Override
+        public void compilationFinished(String testName, boolean succeeded, Map<Diagnostic.Kind, Long> diagnosticCounts, long generatedBytes, long compilationTime) {
+            record("compilationFinished|" + testName + "|" + succeeded + "|" + diagnosticCounts.get(Diagnostic.Kind.ERROR) + "|" + (generatedBytes > 0) + "|" + (compilationTime > 0));
+        }
+
+        @Override
+        public void testFailed(String testName, String message) {
+            record("testFailed|" + testName + "|" + message);
+        }
+
+        @Override
+        public void verificationFinished(String testName, long verificationTime) {
+            record("verificationFinished|" + testName);
+        }
+
+    }
+
+    @Before
+    public void startRecording() {
+        synchronized (RecordingCompileTestListener.CALLBACKS) {
+            RecordingCompileTestListener.CALLBACKS.clear();
+        }
+        RecordingCompileTestListener.recording = true;
+    }
+
+    @After
+    public void stopRecording() {
+        RecordingCompileTestListener.recording = false;
+    }
+
+    @Test
+    public void test_successfulTest() {
+
+        CompileTestBuilder.compilationTest()
+                .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.A", "package io.toolisticon.cute;\npublic class A {}"))
+                .compilationShouldSucceed()
+                .executeTest();
+
+        String testName = CompileTestListenersTest.class.getName() + ".test_successfulTest";
+
+        MatcherAssert.assertThat(RecordingCompileTestListener.getCallbacks(), Matchers.contains(
+                "testStarted|" + testName,
+                "compilationFinished|" + testName + "|true|0|true|true",
+                "verificationFinished|" + testName));
+
+    }
+
+    @Test
+    public void test_failingTest() {
+
+        try {
+            CompileTestBuilder.compilationTest()
+                    .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.A", "package io.toolisticon.cute;\npublic class A { X x; }"))
+                    .compilationShouldSucceed()
+                    .executeTest();
+        } catch (AssertionError e) {
+            // expected
+        }
+
+        String testName = CompileTestListenersTest.class.getName() + ".test_failingTest";
+
+        List<String> callbacks = RecordingCompileTestListener.getCallbacks();
+        MatcherAssert.assertThat(callbacks, Matchers.hasSize(4));
+        MatcherAssert.assertThat(callbacks.get(1), Matchers.is("compilationFinished|" + testName + "|false|1|false|true"));
+        MatcherAssert.assertThat(callbacks.get(2), Matchers.startsWith("testFailed|" + testName + "|Compilation should have succeeded but failed"));
+        MatcherAssert.assertThat(callbacks.get(3), Matchers.is("verificationFinished|" + testName));
+
+    }
+
+}
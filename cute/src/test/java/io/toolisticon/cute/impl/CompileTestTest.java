@@ -1,32 +1,50 @@
 package io.toolisticon.cute.impl;
 
+import io.toolisticon.cute.CompilationPhasesResult;
+import io.toolisticon.cute.CompilationPhasesTest;
 import io.toolisticon.cute.CompileTestBuilder;
 import io.toolisticon.cute.Constants;
+import io.toolisticon.cute.GeneratedClassesTest;
 import io.toolisticon.cute.GeneratedFileObjectMatcher;
 import io.toolisticon.cute.InvalidTestConfigurationException;
 import io.toolisticon.cute.JavaFileObjectUtils;
 import io.toolisticon.cute.PassIn;
+import io.toolisticon.cute.ProcessingApiUsageResult;
+import io.toolisticon.cute.ProcessingApiUsageTest;
 import io.toolisticon.cute.TestUtilities;
 import io.toolisticon.cute.UnitTest;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.tools.Diagnostic;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Collections;
+import java.util.Set;
 
 public class CompileTestTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void test_UnitTest_checkMatchingFileObject() {
 
@@ -378,4 +396,640 @@ public class CompileTestTest {
 
 
     }
+
+    private static UnitTest<Element> createResourceGeneratingUnitTest(final String content) {
+        return new UnitTest<Element>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+                try {
+                    FileObject fileObject = processingEnvironment.getFiler().createResource(StandardLocation.SOURCE_OUTPUT, "root", "Jupp.txt", element);
+                    Writer writer = fileObject.openWriter();
+                    writer.write(content);
+                    writer.close();
+
+                    JavaFileObject javaFileObject = processingEnvironment.getFiler().createSourceFile("io.toolisticon.cute.CheckTest");
+                    writer = javaFileObject.openWriter();
+                    writer.write("package io.toolisticon.cute;\npublic class CheckTest{}");
+                    writer.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Writer writer = new FileWriter(file);
+        writer.write(content);
+        writer.close();
+    }
+
+    @Test
+    public void executeTest_generatedOutputShouldMatchUpdatedSnapshot() {
+
+        File snapshotDirectory = new File(temporaryFolder.getRoot(), "snapshot");
+
+        System.setProperty(Constants.SYSTEM_PROPERTY_UPDATE_SNAPSHOTS, "true");
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .expectGeneratedOutputMatchesSnapshot(snapshotDirectory)
+                    .executeTest();
+        } finally {
+            System.clearProperty(Constants.SYSTEM_PROPERTY_UPDATE_SNAPSHOTS);
+        }
+
+        MatcherAssert.assertThat(new File(snapshotDirectory, "SOURCE_OUTPUT/root/Jupp.txt").isFile(), Matchers.is(true));
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                .expectGeneratedOutputMatchesSnapshot(snapshotDirectory)
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_generatedOutputShouldReportSnapshotDifferences() throws IOException {
+
+        File snapshotDirectory = new File(temporaryFolder.getRoot(), "snapshot");
+        writeFile(new File(snapshotDirectory, "SOURCE_OUTPUT/root/Jupp.txt"), "WURST!");
+        writeFile(new File(snapshotDirectory, "SOURCE_OUTPUT/root/Removed.txt"), "WURST!");
+
+        boolean assertionErrorWasThrown = false;
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .expectGeneratedOutputMatchesSnapshot(snapshotDirectory)
+                    .executeTest();
+        } catch (AssertionError e) {
+            TestUtilities.assertAssertionMessageContainsMessageTokensAssertion(e, Constants.Messages.MESSAGE_GENERATED_OUTPUT_DOESNT_MATCH_SNAPSHOT.getMessagePattern());
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("CHANGED : SOURCE_OUTPUT/root/Jupp.txt"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("REMOVED : SOURCE_OUTPUT/root/Removed.txt"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("ADDED   : SOURCE_OUTPUT/io/toolisticon/cute/CheckTest.java"));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError about snapshot mismatch should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test
+    public void executeTest_parallelGeneratedFileChecksShouldSucceed() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                .evaluateGeneratedFileChecksInParallel()
+                .expectThatFileObjectExists(StandardLocation.SOURCE_OUTPUT, "root", "Jupp.txt", JavaFileObjectUtils.readFromString("TATA!"))
+                .expectThatGeneratedSourceFileExists("io.toolisticon.cute.CheckTest")
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_parallelGeneratedFileChecksShouldReportAllFailures() {
+
+        boolean assertionErrorWasThrown = false;
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .evaluateGeneratedFileChecksInParallel()
+                    .expectThatFileObjectExists(StandardLocation.SOURCE_OUTPUT, "root", "Jupp.txt", JavaFileObjectUtils.readFromString("WURST!"))
+                    .expectThatGeneratedSourceFileExists("io.toolisticon.cute.DoesntExist")
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_MULTIPLE_ASSERTIONS_FAILED.produceMessage(2, "")));
+            TestUtilities.assertAssertionMessageContainsMessageTokensAssertion(e, Constants.Messages.MESSAGE_FO_EXISTS_BUT_DOESNT_MATCH_MATCHER.getMessagePattern());
+            TestUtilities.assertAssertionMessageContainsMessageTokensAssertion(e, Constants.Messages.MESSAGE_JFO_DOESNT_EXIST.getMessagePattern());
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError about failing file checks should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test
+    public void executeTest_collectAllFailuresShouldReportAllFailures() {
+
+        boolean assertionErrorWasThrown = false;
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .collectAllFailures()
+                    .compilationShouldFail()
+                    .expectWarningMessageThatContains("WURST!")
+                    .expectThatGeneratedSourceFileExists("io.toolisticon.cute.DoesntExist")
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_MULTIPLE_ASSERTIONS_FAILED.produceMessage(3, "")));
+            TestUtilities.assertAssertionMessageContainsMessageTokensAssertion(e, Constants.Messages.MESSAGE_COMPILATION_SHOULD_HAVE_FAILED_BUT_SUCCEEDED.getMessagePattern());
+            TestUtilities.assertAssertionMessageContainsMessageTokensAssertion(e, Constants.Messages.MESSAGE_HAVENT_FOUND_MESSSAGE.getMessagePattern());
+            TestUtilities.assertAssertionMessageContainsMessageTokensAssertion(e, Constants.Messages.MESSAGE_JFO_DOESNT_EXIST.getMessagePattern());
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError about all failing checks should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test
+    public void executeTest_measuredCompilationPhasesShouldBePartOfDebugOutput() {
+
+        boolean assertionErrorWasThrown = false;
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .measureCompilationPhases()
+                    .compilationShouldFail()
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("COMPILATION PHASE TIMES"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("ANALYZE : "));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test
+    public void executeTest_measuredCompilationPhasesShouldBePassedToTestOfPassingCompilation() {
+
+        final CompilationPhasesResult[] compilationPhasesResult = new CompilationPhasesResult[1];
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                .measureCompilationPhases(new CompilationPhasesTest() {
+                    @Override
+                    public void doTests(CompilationPhasesResult result) {
+                        compilationPhasesResult[0] = result;
+                    }
+                })
+                .compilationShouldSucceed()
+                .executeTest();
+
+        MatcherAssert.assertThat(compilationPhasesResult[0], Matchers.notNullValue());
+        MatcherAssert.assertThat(compilationPhasesResult[0].getPhases(), Matchers.hasItems("PARSE", "ANALYZE", "ANNOTATION_PROCESSING"));
+        MatcherAssert.assertThat(compilationPhasesResult[0].getDuration("ANALYZE"), Matchers.greaterThan(0L));
+
+    }
+
+    @Test
+    public void executeTest_failingCompilationPhasesTestShouldFailTest() {
+
+        boolean assertionErrorWasThrown = false;
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .measureCompilationPhases(new CompilationPhasesTest() {
+                        @Override
+                        public void doTests(CompilationPhasesResult result) {
+                            MatcherAssert.assertThat(result.getDuration("ANALYZE"), Matchers.lessThan(0L));
+                        }
+                    })
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Test of measured compiler phases failed"));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test(expected = InvalidTestConfigurationException.class)
+    public void executeTest_measureCompilationPhasesAndForkedExecutionShouldThrowInvalidTestConfigurationException() {
+
+        CompileTestBuilder.compilationTest()
+                .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"))
+                .executeInForkedJvm()
+                .measureCompilationPhases()
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_processorOnlyShouldNotGenerateClasses() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                .processorOnly()
+                .compilationShouldSucceed()
+                .expectThatGeneratedSourceFileExists("io.toolisticon.cute.CheckTest")
+                .expectThatFileObjectExists(StandardLocation.SOURCE_OUTPUT, "root", "Jupp.txt")
+                .expectThatJavaFileObjectDoesntExist(StandardLocation.CLASS_OUTPUT, "io.toolisticon.cute.CheckTest", JavaFileObject.Kind.CLASS)
+                .executeTest();
+
+    }
+
+    @Test(expected = InvalidTestConfigurationException.class)
+    public void executeTest_processorOnlyAndGeneratedClassCheckShouldThrowInvalidTestConfigurationException() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                .processorOnly()
+                .expectThatGeneratedClassExists("io.toolisticon.cute.CheckTest")
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_isolatingIncrementalProcessingShouldSucceedForSingleOriginatingType() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(new UnitTest<Element>() {
+                    @Override
+                    public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+                        try {
+                            Writer writer = processingEnvironment.getFiler().createSourceFile("io.toolisticon.cute.CheckTest", element).openWriter();
+                            writer.write("package io.toolisticon.cute;\npublic class CheckTest{}");
+                            writer.close();
+
+                            // enclosed elements map to the same top level type
+                            writer = processingEnvironment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "root", "Jupp.txt", element, element.getEnclosedElements().get(0)).openWriter();
+                            writer.write("TATA!");
+                            writer.close();
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                })
+                .expectIsolatingIncrementalProcessing()
+                .compilationShouldSucceed()
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_isolatingIncrementalProcessingShouldFailForMissingOriginatingElement() {
+
+        boolean assertionErrorWasThrown = false;
+
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .expectIsolatingIncrementalProcessing()
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_ISOLATING_PROCESSING_CONTRACT_VIOLATED.produceMessage("")));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("SOURCE_OUTPUT/io/toolisticon/cute/CheckTest.java=[]"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.not(Matchers.containsString("SOURCE_OUTPUT/root/Jupp.txt=")));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test
+    public void executeTest_aggregatingIncrementalProcessingShouldFailForMissingOriginatingElement() {
+
+        boolean assertionErrorWasThrown = false;
+
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .expectAggregatingIncrementalProcessing()
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_AGGREGATING_PROCESSING_CONTRACT_VIOLATED.produceMessage("[SOURCE_OUTPUT/io/toolisticon/cute/CheckTest.java]")));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test(expected = InvalidTestConfigurationException.class)
+    public void executeTest_incrementalProcessingAndForkedExecutionShouldThrowInvalidTestConfigurationException() {
+
+        CompileTestBuilder.compilationTest()
+                .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"))
+                .executeInForkedJvm()
+                .expectAggregatingIncrementalProcessing()
+                .executeTest();
+
+    }
+
+    @Test(expected = InvalidTestConfigurationException.class)
+    public void executeTest_concurrentFileManagerAndForkedExecutionShouldThrowInvalidTestConfigurationException() {
+
+        CompileTestBuilder.compilationTest()
+                .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"))
+                .executeInForkedJvm()
+                .useConcurrentFileManager()
+                .executeTest();
+
+    }
+
+    /**
+     * Processor that generates a new source file in every round.
+     */
+    public static class RunawayProcessor extends AbstractProcessor {
+
+        private int round = 0;
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return Collections.singleton("*");
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            try {
+                round++;
+                Writer writer = processingEnv.getFiler().createSourceFile("io.toolisticon.cute.Runaway" + round).openWriter();
+                writer.write("package io.toolisticon.cute;\npublic class Runaway" + round + " {}");
+                writer.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return false;
+        }
+
+    }
+
+    @Test
+    public void executeTest_expectRoundsAtMostShouldSucceed() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                .expectRoundsAtMost(3)
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_expectRoundsAtMostShouldFailWithRoundTrace() {
+
+        boolean assertionErrorWasThrown = false;
+
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .expectRoundsAtMost(2)
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_TOO_MANY_ROUNDS.produceMessage(3, 2, "")));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Round 1 : root elements=[io.toolisticon.compiletesting.test.AnnotationProcessorUnitTestClass], annotations=[io.toolisticon.cute.TestAnnotation], generated files=[SOURCE_OUTPUT/root/Jupp.txt, SOURCE_OUTPUT/io/toolisticon/cute/CheckTest.java]"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Round 3 (processing over)"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("ANNOTATION PROCESSING ROUNDS"));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test
+    public void executeTest_runawayRoundsShouldBeAborted() {
+
+        boolean assertionErrorWasThrown = false;
+
+        System.setProperty(Constants.SYSTEM_PROPERTY_MAX_ROUNDS, "5");
+        try {
+            CompileTestBuilder.compilationTest()
+                    .addProcessors(RunawayProcessor.class)
+                    .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"))
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_MAXIMAL_NUMBER_OF_ROUNDS_EXCEEDED.produceMessage(5, "")));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Round 6"));
+            assertionErrorWasThrown = true;
+        } finally {
+            System.clearProperty(Constants.SYSTEM_PROPERTY_MAX_ROUNDS);
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    private static UnitTest<Element> createGetAllMembersCallingUnitTest(final int calls) {
+        return new UnitTest<Element>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+                for (int i = 0; i < calls; i++) {
+                    processingEnvironment.getElementUtils().getAllMembers((TypeElement) element);
+                }
+            }
+        };
+    }
+
+    @Test
+    public void executeTest_expectAtMostCallsShouldSucceed() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createGetAllMembersCallingUnitTest(3))
+                .expectAtMostCalls("Elements.getAllMembers", 3)
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_expectAtMostCallsShouldFail() {
+
+        boolean assertionErrorWasThrown = false;
+
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createGetAllMembersCallingUnitTest(3))
+                    .expectAtMostCalls("Elements.getAllMembers", 2)
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_TOO_MANY_PROCESSING_API_CALLS.produceMessage("Elements.getAllMembers", 3, 2)));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("PROCESSING API CALLS"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Elements.getAllMembers : 3 calls, "));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeTest_expectAtMostCallsWithUnknownMethodShouldThrowIllegalArgumentException() {
+
+        CompileTestBuilder.unitTest().expectAtMostCalls("Elements.getAllTheMembers", 2);
+
+    }
+
+    @Test
+    public void executeTest_countedProcessingApiCallsShouldBePassedToTestOfPassingCompilation() {
+
+        final ProcessingApiUsageResult[] processingApiUsageResult = new ProcessingApiUsageResult[1];
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createGetAllMembersCallingUnitTest(3))
+                .measureProcessingApiCalls(new ProcessingApiUsageTest() {
+                    @Override
+                    public void doTests(ProcessingApiUsageResult result) {
+                        processingApiUsageResult[0] = result;
+                    }
+                })
+                .executeTest();
+
+        MatcherAssert.assertThat(processingApiUsageResult[0], Matchers.notNullValue());
+        MatcherAssert.assertThat(processingApiUsageResult[0].getMethods(), Matchers.hasItem("Elements.getAllMembers"));
+        MatcherAssert.assertThat(processingApiUsageResult[0].getCalls("Elements.getAllMembers"), Matchers.is(3L));
+        MatcherAssert.assertThat(processingApiUsageResult[0].getDuration("Elements.getAllMembers"), Matchers.greaterThan(0L));
+
+    }
+
+    @Test(expected = InvalidTestConfigurationException.class)
+    public void executeTest_measureProcessingApiCallsAndForkedExecutionShouldThrowInvalidTestConfigurationException() {
+
+        CompileTestBuilder.compilationTest()
+                .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.Valid", "package io.toolisticon.cute;\npublic class Valid {}"))
+                .executeInForkedJvm()
+                .measureProcessingApiCalls()
+                .executeTest();
+
+    }
+
+    private static UnitTest<Element> createWarningPrintingUnitTest(final int warnings) {
+        return new UnitTest<Element>() {
+            @Override
+            public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+                for (int i = 0; i < warnings; i++) {
+                    processingEnvironment.getMessager().printMessage(Diagnostic.Kind.WARNING, "WARNING_" + i, element);
+                }
+            }
+        };
+    }
+
+    @Test
+    public void executeTest_expectWarningCountAtMostShouldSucceed() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createWarningPrintingUnitTest(150))
+                .useCompilerOptions("-Xmaxwarns", "1000")
+                // javac may add some warnings about the supported source versions of processors
+                .expectWarningCountAtMost(160)
+                .expectNoteCountAtMost(0)
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_expectWarningCountAtMostShouldFail() {
+
+        boolean assertionErrorWasThrown = false;
+
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createWarningPrintingUnitTest(150))
+                    .useCompilerOptions("-Xmaxwarns", "1000")
+                    .expectWarningCountAtMost(10)
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("messages of kind WARNING, but at most 10 messages have been expected"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("WARNING_0"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.not(Matchers.containsString("WARNING_149")));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(" further messages haven't been retained"));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test
+    public void executeTest_checkedMessagesShouldBeRetainedBeyondLimit() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createWarningPrintingUnitTest(150))
+                .useCompilerOptions("-Xmaxwarns", "1000")
+                .expectWarningMessageThatContains("WARNING_149")
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_notRetainedErrorsShouldBeMentionedIfCompilationShouldHaveSucceeded() {
+
+        boolean assertionErrorWasThrown = false;
+
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(new UnitTest<Element>() {
+                        @Override
+                        public void unitTest(ProcessingEnvironment processingEnvironment, Element element) {
+                            for (int i = 0; i < 150; i++) {
+                                processingEnvironment.getMessager().printMessage(Diagnostic.Kind.ERROR, "ERROR_" + i, element);
+                            }
+                        }
+                    })
+                    .useCompilerOptions("-Xmaxerrs", "1000")
+                    .compilationShouldSucceed()
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("ERROR_0"));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(Constants.Messages.MESSAGE_DIAGNOSTICS_NOT_RETAINED.produceMessage(50, Constants.SYSTEM_PROPERTY_MAX_RETAINED_DIAGNOSTICS)));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void executeTest_expectWarningCountAtMostWithNegativeCountShouldThrowIllegalArgumentException() {
+
+        CompileTestBuilder.unitTest().expectWarningCountAtMost(-1);
+
+    }
+
+    @Test
+    public void executeTest_generatedClassesShouldBeLoadableFromMemory() {
+
+        CompileTestBuilder.unitTest()
+                .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                .expectThatGeneratedClassesPassTest(new GeneratedClassesTest() {
+                    @Override
+                    public void doTests(ClassLoader classLoader) throws Exception {
+                        Class<?> generatedClass = classLoader.loadClass("io.toolisticon.cute.CheckTest");
+                        MatcherAssert.assertThat(generatedClass.getClassLoader(), Matchers.is(classLoader));
+                        MatcherAssert.assertThat(generatedClass.newInstance(), Matchers.notNullValue());
+                        MatcherAssert.assertThat(classLoader.getResource("io/toolisticon/cute/CheckTest.class"), Matchers.notNullValue());
+                    }
+                })
+                .expectThatGeneratedClassesPassTest(CompileTestBuilder.ClassLoadingPolicy.CHILD_FIRST, new GeneratedClassesTest() {
+                    @Override
+                    public void doTests(ClassLoader classLoader) throws Exception {
+                        MatcherAssert.assertThat(classLoader.loadClass("io.toolisticon.cute.CheckTest").getClassLoader(), Matchers.is(classLoader));
+                        MatcherAssert.assertThat(classLoader.loadClass("io.toolisticon.cute.PassIn").getClassLoader(), Matchers.not(classLoader));
+                    }
+                })
+                .executeTest();
+
+    }
+
+    @Test
+    public void executeTest_failingGeneratedClassesTestShouldBeReported() {
+
+        boolean assertionErrorWasThrown = false;
+        try {
+            CompileTestBuilder.unitTest()
+                    .defineTest(createResourceGeneratingUnitTest("TATA!"))
+                    .expectThatGeneratedClassesPassTest(new GeneratedClassesTest() {
+                        @Override
+                        public void doTests(ClassLoader classLoader) throws Exception {
+                            classLoader.loadClass("io.toolisticon.cute.DoesntExist");
+                        }
+                    })
+                    .executeTest();
+        } catch (AssertionError e) {
+            TestUtilities.assertAssertionMessageContainsMessageTokensAssertion(e, Constants.Messages.MESSAGE_GENERATED_CLASSES_TEST_FAILED.getMessagePattern());
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("ClassNotFoundException"));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError about failing test of generated classes should have been thrown", assertionErrorWasThrown);
+
+    }
 }
@@ -1,5 +1,6 @@
 package io.toolisticon.cute.impl;
 
+import io.toolisticon.cute.CompileTestBuilder;
 import io.toolisticon.cute.common.SimpleTestProcessor1;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -109,6 +110,13 @@ public class CompileTestUtilitiesTest {
         );
     }
 
+    @Test
+    public void isCompileTestBuilderClass_shouldMatchCompileTestBuilderAndItsNestedClassesOnly() {
+        MatcherAssert.assertThat(CompileTestUtilities.isCompileTestBuilderClass(CompileTestBuilder.class.getName()), Matchers.is(true));
+        MatcherAssert.assertThat(CompileTestUtilities.isCompileTestBuilderClass(CompileTestBuilder.UnitTestBuilder.class.getName()), Matchers.is(true));
+        MatcherAssert.assertThat(CompileTestUtilities.isCompileTestBuilderClass(CompileTestBuilder.class.getName() + "Test"), Matchers.is(false));
+    }
+
     @Test
     public void getAnnotationProcessorWasAppliedMessage_nullValueProcessor() {
         MatcherAssert.assertThat(
@@ -0,0 +1,56 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.CompileTestBuilder;
+import io.toolisticon.cute.JavaFileObjectUtils;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ForkedCompilerPool}.
+ */
+public class ForkedCompilerPoolTest {
+
+    @Test
+    public void test_acquire_shouldReuseIdleWorker() throws Exception {
+
+        ForkedCompilerPool forkedCompilerPool = new ForkedCompilerPool(1);
+        try {
+
+            long reuseCount = ForkedCompilerPool.getReuseCount();
+
+            ForkedCompilerPool.Worker worker = forkedCompilerPool.acquire();
+            forkedCompilerPool.release(worker);
+
+            MatcherAssert.assertThat(forkedCompilerPool.acquire(), Matchers.sameInstance(worker));
+            MatcherAssert.assertThat(ForkedCompilerPool.getReuseCount(), Matchers.greaterThan(reuseCount));
+
+        } finally {
+            forkedCompilerPool.shutdown();
+        }
+
+    }
+
+    @Test
+    public void test_forkedCompilation_workerShouldBeReused() {
+
+        CompileTestBuilder.CompilationTestBuilder compileTestBuilder = CompileTestBuilder.compilationTest()
+                .addProcessors(SimpleTestProcessor1.class)
+                .addSources(JavaFileObjectUtils.readFromResource("/integrationtest/AnnotationProcessorAppliedTestClass.java"))
+                .executeInForkedJvm();
+
+        compileTestBuilder.executeTest();
+
+        long acquisitionCount = ForkedCompilerPool.getAcquisitionCount();
+        long reuseCount = ForkedCompilerPool.getReuseCount();
+
+        compileTestBuilder.executeTest();
+
+        // the worker released by the first compilation must be reused instead of starting a new worker JVM
+        MatcherAssert.assertThat(ForkedCompilerPool.getAcquisitionCount(), Matchers.is(acquisitionCount + 1));
+        MatcherAssert.assertThat(ForkedCompilerPool.getReuseCount(), Matchers.is(reuseCount + 1));
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.CompileTestBuilder;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ForkedCompilerWorker}.
+ */
+public class ForkedCompilerWorkerTest {
+
+    @Test
+    public void test_requestClassLoader_shouldLoadClassesOfClasspath() throws Exception {
+
+        ClassLoader classLoader = ForkedCompilerWorker.RequestClassLoader.create();
+
+        Class<?> processorType = classLoader.loadClass(SimpleTestProcessor1.class.getName());
+        MatcherAssert.assertThat(processorType, Matchers.not(Matchers.<Class<?>>sameInstance(SimpleTestProcessor1.class)));
+        MatcherAssert.assertThat(processorType.getClassLoader(), Matchers.sameInstance(classLoader));
+
+        MatcherAssert.assertThat(ForkedCompilerWorker.RequestClassLoader.create().loadClass(SimpleTestProcessor1.class.getName()), Matchers.not(Matchers.<Class<?>>sameInstance(processorType)));
+
+    }
+
+    @Test
+    public void test_requestClassLoader_shouldShareClassesOfJdkAndCute() throws Exception {
+
+        ClassLoader classLoader = ForkedCompilerWorker.RequestClassLoader.create();
+
+        MatcherAssert.assertThat(classLoader.loadClass(String.class.getName()), Matchers.<Class<?>>sameInstance(String.class));
+        MatcherAssert.assertThat(classLoader.loadClass(javax.annotation.processing.Processor.class.getName()), Matchers.<Class<?>>sameInstance(javax.annotation.processing.Processor.class));
+        MatcherAssert.assertThat(classLoader.loadClass(CompileTestBuilder.class.getName()), Matchers.<Class<?>>sameInstance(CompileTestBuilder.class));
+
+    }
+
+}
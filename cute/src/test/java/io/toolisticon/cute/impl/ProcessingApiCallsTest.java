@@ -0,0 +1,66 @@
+package io.toolisticon.cute.impl;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.util.Collections;
+
+/**
+ * Unit test for {@link ProcessingApiCalls}.
+ */
+public class ProcessingApiCallsTest {
+
+    @Test
+    public void test_isInstrumentedMethod() {
+
+        MatcherAssert.assertThat(ProcessingApiCalls.isInstrumentedMethod("Elements.getAllMembers"), Matchers.is(true));
+        MatcherAssert.assertThat(ProcessingApiCalls.isInstrumentedMethod("Types.isAssignable"), Matchers.is(true));
+        MatcherAssert.assertThat(ProcessingApiCalls.isInstrumentedMethod("RoundEnvironment.getElementsAnnotatedWith"), Matchers.is(true));
+
+        MatcherAssert.assertThat(ProcessingApiCalls.isInstrumentedMethod("Elements.getAllMember"), Matchers.is(false));
+        MatcherAssert.assertThat(ProcessingApiCalls.isInstrumentedMethod("Trees.getPath"), Matchers.is(false));
+        MatcherAssert.assertThat(ProcessingApiCalls.isInstrumentedMethod("getAllMembers"), Matchers.is(false));
+        MatcherAssert.assertThat(ProcessingApiCalls.isInstrumentedMethod(null), Matchers.is(false));
+
+    }
+
+    @Test
+    public void test_instrument_shouldCountCallsAndForwardResults() {
+
+        TypeElement typeElement = Mockito.mock(TypeElement.class);
+        Elements elements = Mockito.mock(Elements.class);
+        Mockito.doReturn(Collections.emptyList()).when(elements).getAllMembers(typeElement);
+
+        ProcessingApiCalls processingApiCalls = new ProcessingApiCalls();
+        Elements instrumentedElements = processingApiCalls.instrument(Elements.class, elements);
+
+        MatcherAssert.assertThat(instrumentedElements.getAllMembers(typeElement), Matchers.empty());
+        instrumentedElements.getAllMembers(typeElement);
+        instrumentedElements.toString();
+        instrumentedElements.hashCode();
+
+        MatcherAssert.assertThat(processingApiCalls.getCalls("Elements.getAllMembers"), Matchers.is(2L));
+        MatcherAssert.assertThat(processingApiCalls.getDuration("Elements.getAllMembers"), Matchers.greaterThan(0L));
+        MatcherAssert.assertThat(processingApiCalls.getCalls("Elements.getTypeElement"), Matchers.is(0L));
+        MatcherAssert.assertThat(processingApiCalls.toString(), Matchers.startsWith("Elements.getAllMembers : 2 calls, "));
+
+        // Object methods must not be counted
+        MatcherAssert.assertThat(processingApiCalls.toString(), Matchers.not(Matchers.containsString("hashCode")));
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_instrument_shouldPassThroughExceptions() {
+
+        Elements elements = Mockito.mock(Elements.class);
+        Mockito.when(elements.getTypeElement("x")).thenThrow(new IllegalStateException());
+
+        new ProcessingApiCalls().instrument(Elements.class, elements).getTypeElement("x");
+
+    }
+
+}
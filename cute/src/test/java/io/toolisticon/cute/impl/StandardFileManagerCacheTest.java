@@ -0,0 +1,142 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * Unit test for {@link StandardFileManagerCache}.
+ */
+public class StandardFileManagerCacheTest {
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+    @After
+    public void cleanup() {
+        System.clearProperty(Constants.SYSTEM_PROPERTY_REUSE_FILE_MANAGER);
+        StandardFileManagerCache.clear();
+    }
+
+    @Test
+    public void test_fileManagerShouldBeReusedForSameCompilerOptions() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        compileTestConfiguration.addCompilerOptions("-verbose");
+
+        StandardJavaFileManager standardJavaFileManager = StandardFileManagerCache.getStandardJavaFileManager(compiler, null, compileTestConfiguration);
+
+        MatcherAssert.assertThat(StandardFileManagerCache.getStandardJavaFileManager(compiler, null, CompileTestConfiguration.cloneConfiguration(compileTestConfiguration)), Matchers.sameInstance(standardJavaFileManager));
+
+    }
+
+    @Test
+    public void test_fileManagerShouldBeReusedForNewCompilerInstances() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+
+        StandardJavaFileManager standardJavaFileManager = StandardFileManagerCache.getStandardJavaFileManager(ToolProvider.getSystemJavaCompiler(), null, compileTestConfiguration);
+
+        MatcherAssert.assertThat(StandardFileManagerCache.getStandardJavaFileManager(ToolProvider.getSystemJavaCompiler(), null, compileTestConfiguration), Matchers.sameInstance(standardJavaFileManager));
+
+    }
+
+    @Test
+    public void test_fileManagerShouldNotBeReusedForDifferentCompilerOptions() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        StandardJavaFileManager standardJavaFileManager = StandardFileManagerCache.getStandardJavaFileManager(compiler, null, compileTestConfiguration);
+
+        compileTestConfiguration.addCompilerOptions("-verbose");
+
+        MatcherAssert.assertThat(StandardFileManagerCache.getStandardJavaFileManager(compiler, null, compileTestConfiguration), Matchers.not(Matchers.sameInstance(standardJavaFileManager)));
+
+    }
+
+    @Test
+    public void test_fileManagerShouldNotBeReusedIfModulesAreUsed() {
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        compileTestConfiguration.addModules("java.base");
+
+        StandardJavaFileManager standardJavaFileManager = StandardFileManagerCache.getStandardJavaFileManager(compiler, null, compileTestConfiguration);
+
+        MatcherAssert.assertThat(StandardFileManagerCache.getStandardJavaFileManager(compiler, null, compileTestConfiguration), Matchers.not(Matchers.sameInstance(standardJavaFileManager)));
+
+    }
+
+    @Test
+    public void test_fileManagerShouldNotBeReusedIfDisabled() {
+
+        System.setProperty(Constants.SYSTEM_PROPERTY_REUSE_FILE_MANAGER, "false");
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        StandardJavaFileManager standardJavaFileManager = StandardFileManagerCache.getStandardJavaFileManager(compiler, null, compileTestConfiguration);
+
+        MatcherAssert.assertThat(StandardFileManagerCache.getStandardJavaFileManager(compiler, null, compileTestConfiguration), Matchers.not(Matchers.sameInstance(standardJavaFileManager)));
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_diagnosticsOfReusedFileManagerShouldBeForwardedToCurrentCompilation() {
+
+        JavaCompiler mockedCompiler = Mockito.mock(JavaCompiler.class);
+        Mockito.when(mockedCompiler.getStandardFileManager(Mockito.nullable(DiagnosticListener.class), Mockito.nullable(Locale.class), Mockito.nullable(Charset.class))).thenReturn(Mockito.mock(StandardJavaFileManager.class));
+
+        DiagnosticListener<JavaFileObject> firstDiagnosticListener = Mockito.mock(DiagnosticListener.class);
+        DiagnosticListener<JavaFileObject> secondDiagnosticListener = Mockito.mock(DiagnosticListener.class);
+
+        CompileTestConfiguration compileTestConfiguration = new CompileTestConfiguration();
+        StandardFileManagerCache.getStandardJavaFileManager(mockedCompiler, firstDiagnosticListener, compileTestConfiguration);
+        StandardFileManagerCache.getStandardJavaFileManager(mockedCompiler, secondDiagnosticListener, compileTestConfiguration);
+
+        ArgumentCaptor<DiagnosticListener> fileManagerDiagnosticListener = ArgumentCaptor.forClass(DiagnosticListener.class);
+        Mockito.verify(mockedCompiler).getStandardFileManager(fileManagerDiagnosticListener.capture(), Mockito.nullable(Locale.class), Mockito.nullable(Charset.class));
+
+        Diagnostic<JavaFileObject> diagnostic = Mockito.mock(Diagnostic.class);
+        fileManagerDiagnosticListener.getValue().report(diagnostic);
+
+        Mockito.verify(secondDiagnosticListener).report(diagnostic);
+        Mockito.verifyZeroInteractions(firstDiagnosticListener);
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_fileManagersOfTerminatedThreadsShouldBeClosed() throws Exception {
+
+        final JavaCompiler mockedCompiler = Mockito.mock(JavaCompiler.class);
+        StandardJavaFileManager standardJavaFileManagerOfThread = Mockito.mock(StandardJavaFileManager.class);
+        Mockito.when(mockedCompiler.getStandardFileManager(Mockito.nullable(DiagnosticListener.class), Mockito.nullable(Locale.class), Mockito.nullable(Charset.class))).thenReturn(standardJavaFileManagerOfThread, Mockito.mock(StandardJavaFileManager.class));
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                StandardFileManagerCache.getStandardJavaFileManager(mockedCompiler, null, new CompileTestConfiguration());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        Mockito.verify(standardJavaFileManagerOfThread, Mockito.never()).close();
+
+        StandardFileManagerCache.getStandardJavaFileManager(mockedCompiler, null, new CompileTestConfiguration());
+
+        Mockito.verify(standardJavaFileManagerOfThread).close();
+
+    }
+
+}
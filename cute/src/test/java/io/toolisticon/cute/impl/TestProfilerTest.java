@@ -0,0 +1,103 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.extension.api.TracingSpi;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TestProfiler}.
+ */
+public class TestProfilerTest {
+
+    @Test
+    public void test_profile_shouldSplitCompilationTime() {
+
+        TestProfiler.Profile profile = new TestProfiler.Profile("Test.test");
+        profile.setCompilationRunning(true);
+        profile.addTime(TracingSpi.Phase.PROCESSOR_INIT, 1000000L);
+        profile.addTime(TracingSpi.Phase.PROCESSOR_ROUND, 2000000L);
+        profile.addTime(TracingSpi.Phase.PROCESSOR_ROUND, 3000000L);
+        profile.setCompilationRunning(false);
+        profile.addTime(TracingSpi.Phase.COMPILATION, 10000000L);
+
+        MatcherAssert.assertThat(profile.getProcessorTime(), Matchers.is(6000000L));
+        MatcherAssert.assertThat(profile.getJavacTime(), Matchers.is(4000000L));
+        MatcherAssert.assertThat(profile.getTime(TracingSpi.Phase.VERIFICATION), Matchers.is(0L));
+
+    }
+
+    @Test
+    public void test_profile_shouldIgnoreProcessorsOutsideOfCompilation() {
+
+        TestProfiler.Profile profile = new TestProfiler.Profile("Test.test");
+        profile.setCompilationRunning(true);
+        profile.addTime(TracingSpi.Phase.PROCESSOR_ROUND, 2000000L);
+        profile.setCompilationRunning(false);
+        profile.addTime(TracingSpi.Phase.COMPILATION, 10000000L);
+
+        // processors of recompilations during the verification
+        profile.addTime(TracingSpi.Phase.PROCESSOR_INIT, 1000000L);
+        profile.addTime(TracingSpi.Phase.PROCESSOR_ROUND, 5000000L);
+        profile.addTime(TracingSpi.Phase.VERIFICATION, 7000000L);
+
+        MatcherAssert.assertThat(profile.getProcessorTime(), Matchers.is(2000000L));
+        MatcherAssert.assertThat(profile.getJavacTime(), Matchers.is(8000000L));
+        MatcherAssert.assertThat(profile.getTime(TracingSpi.Phase.VERIFICATION), Matchers.is(7000000L));
+
+    }
+
+    @Test
+    public void test_createReport_shouldListSlowestTestsFirst() {
+
+        TestProfiler testProfiler = new TestProfiler(2);
+        testProfiler.record(createProfile("Test.fast", 1000000L));
+        testProfiler.record(createProfile("Test.slowest", 30000000L));
+        testProfiler.record(createProfile("Test.slow", 20000000L));
+
+        String report = testProfiler.createReport();
+
+        MatcherAssert.assertThat(report, Matchers.containsString("cute profiled 3 compile tests taking "));
+        MatcherAssert.assertThat(report, Matchers.containsString("File manager reuse : "));
+        MatcherAssert.assertThat(report, Matchers.containsString("Forked worker reuse : "));
+        MatcherAssert.assertThat(report, Matchers.containsString("Slowest 2 tests"));
+        MatcherAssert.assertThat(report.indexOf("Test.slowest"), Matchers.lessThan(report.indexOf("Test.slow\n")));
+        MatcherAssert.assertThat(report, Matchers.not(Matchers.containsString("Test.fast")));
+
+    }
+
+    @Test
+    public void test_profile_shouldDelegateToWrappedSpan() {
+
+        final long[] endedBytes = new long[]{-1L};
+        TracingSpi.Span span = TestProfiler.profile(TracingSpi.Phase.PROCESSOR_ROUND, new TracingSpi.Span() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public void end(long bytes) {
+                endedBytes[0] = bytes;
+            }
+        });
+
+        MatcherAssert.assertThat(span.isEnabled(), Matchers.is(true));
+
+        span.end(42L);
+        MatcherAssert.assertThat(endedBytes[0], Matchers.is(42L));
+
+    }
+
+    private static TestProfiler.Profile createProfile(String testName, long totalTime) {
+
+        TestProfiler.Profile profile = new TestProfiler.Profile(testName);
+        profile.addTime(TracingSpi.Phase.COMPILATION, totalTime / 2);
+        profile.addTime(TracingSpi.Phase.VERIFICATION, totalTime / 4);
+        profile.setTotalTime(totalTime);
+
+        return profile;
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.Constants;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+
+/**
+ * Unit test for {@link TieredContent}.
+ */
+public class TieredContentTest {
+
+    private static byte[] createContent(int size) {
+
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        return content;
+
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(Constants.SYSTEM_PROPERTY_COMPRESS_THRESHOLD);
+        System.clearProperty(Constants.SYSTEM_PROPERTY_SPILL_THRESHOLD);
+    }
+
+    @Test
+    public void test_create_chooseTierBySize() {
+
+        MatcherAssert.assertThat(TieredContent.create(createContent(99), 100, 1000), Matchers.instanceOf(TieredContent.HeapContent.class));
+        MatcherAssert.assertThat(TieredContent.create(createContent(100), 100, 1000), Matchers.instanceOf(TieredContent.CompressedContent.class));
+        MatcherAssert.assertThat(TieredContent.create(createContent(1000), 100, 1000), Matchers.instanceOf(TieredContent.DiskContent.class));
+
+    }
+
+    @Test
+    public void test_getBytes_sameContentInAllTiers() throws IOException {
+
+        for (int size : new int[]{0, 99, 100, 999, 1000, 5000}) {
+
+            byte[] content = createContent(size);
+            TieredContent tieredContent = TieredContent.create(content, 100, 1000);
+
+            MatcherAssert.assertThat(tieredContent.size(), Matchers.is(size));
+            MatcherAssert.assertThat(Arrays.equals(tieredContent.getBytes(), content), Matchers.is(true));
+
+            // must be readable multiple times
+            MatcherAssert.assertThat(Arrays.equals(GeneratedOutputSnapshot.readContent(tieredContent.openInputStream()), content), Matchers.is(true));
+            MatcherAssert.assertThat(Arrays.equals(GeneratedOutputSnapshot.readContent(tieredContent.openInputStream()), content), Matchers.is(true));
+
+        }
+
+    }
+
+    @Test
+    public void test_diskContent_isWrittenToBuildFolder() {
+
+        TieredContent tieredContent = TieredContent.create(createContent(10), 1, 10);
+
+        MatcherAssert.assertThat(tieredContent, Matchers.instanceOf(TieredContent.DiskContent.class));
+        MatcherAssert.assertThat(((TieredContent.DiskContent) tieredContent).getFile().isFile(), Matchers.is(true));
+        MatcherAssert.assertThat(((TieredContent.DiskContent) tieredContent).getFile().getParentFile().getName(), Matchers.is("cute_generatedFiles"));
+
+    }
+
+    @Test
+    public void test_diskContent_releaseShouldDeleteFile() {
+
+        TieredContent tieredContent = TieredContent.create(createContent(10), 1, 10);
+        tieredContent.release();
+
+        MatcherAssert.assertThat(((TieredContent.DiskContent) tieredContent).getFile().exists(), Matchers.is(false));
+
+    }
+
+    @Test
+    public void test_inMemoryOutputJavaFileObject_useConfiguredThresholds() throws IOException {
+
+        System.setProperty(Constants.SYSTEM_PROPERTY_COMPRESS_THRESHOLD, "10");
+        System.setProperty(Constants.SYSTEM_PROPERTY_SPILL_THRESHOLD, "100");
+
+        for (int size : new int[]{5, 50, 500}) {
+
+            String content = new String(createContent(size));
+
+            CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject = new CompileTestFileManager.InMemoryOutputJavaFileObject(URI.create("mem://CLASS_OUTPUT/io/toolisticon/cute/Test.java"), JavaFileObject.Kind.SOURCE);
+            javaFileObject.openWriter().append(content).close();
+
+            MatcherAssert.assertThat(javaFileObject.getCharContent(true).toString(), Matchers.is(content));
+            MatcherAssert.assertThat(new String(GeneratedOutputSnapshot.readContent(javaFileObject.openInputStream())), Matchers.is(content));
+
+        }
+
+    }
+
+    @Test
+    public void test_inMemoryOutputJavaFileObject_decodeCharContentOnceUntilRewritten() throws IOException {
+
+        CompileTestFileManager.InMemoryOutputJavaFileObject javaFileObject = new CompileTestFileManager.InMemoryOutputJavaFileObject(URI.create("mem://SOURCE_OUTPUT/io/toolisticon/cute/Test.java"), JavaFileObject.Kind.SOURCE);
+        javaFileObject.openWriter().append("class Test { String s = \"\u00e4\u20ac\"; }").close();
+
+        CharSequence charContent = javaFileObject.getCharContent(true);
+        MatcherAssert.assertThat(charContent.toString(), Matchers.is("class Test { String s = \"\u00e4\u20ac\"; }"));
+        MatcherAssert.assertThat(javaFileObject.getCharContent(true), Matchers.sameInstance(charContent));
+
+        javaFileObject.openWriter().append("class Test {}").close();
+
+        MatcherAssert.assertThat(javaFileObject.getCharContent(true).toString(), Matchers.is("class Test {}"));
+
+    }
+
+}
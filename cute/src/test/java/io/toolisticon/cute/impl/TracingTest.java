@@ -0,0 +1,145 @@
+package io.toolisticon.cute.impl;
+
+import io.toolisticon.cute.CompileTestBuilder;
+import io.toolisticon.cute.JavaFileObjectUtils;
+import io.toolisticon.cute.common.SimpleTestAnnotation1;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import io.toolisticon.cute.extension.api.TracingSpi;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test for tracing of compile test phases via the {@link TracingSpi}.
+ * The {@link RecordingTracingSpi} is registered in the services of the test resources.
+ */
+public class TracingTest {
+
+    /**
+     * Records the ended spans as "PHASE|test name|processor name|bytes", while recording is enabled.
+     */
+    public static class RecordingTracingSpi implements TracingSpi {
+
+        private static volatile boolean recording = false;
+        private static final List<String> SPANS = new ArrayList<>();
+
+        @Override
+        public Span begin(final Phase phase, final String testName, final String processorName) {
+            return new Span() {
+                @Override
+                public boolean isEnabled() {
+                    return recording;
+                }
+
+                @Override
+                public void end(long bytes) {
+                    if (recording) {
+                        synchronized (SPANS) {
+                            SPANS.add(phase + "|" + testName + "|" + processorName + "|" + bytes);
+                        }
+                    }
+                }
+            };
+        }
+
+        static List<String> getSpans() {
+            synchronized (SPANS) {
+                return new ArrayList<>(SPANS);
+            }
+        }
+
+    }
+
+    /**
+     * Processor that generates a resource for each annotated type.
+     */
+    public static class ResourceGeneratingProcessor extends SimpleTestProcessor1 {
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(SimpleTestAnnotation1.class)) {
+
+                try {
+                    Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", element.getSimpleName() + ".txt", element).openWriter();
+                    writer.write("0123456789");
+                    writer.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+
+            }
+
+            return false;
+        }
+
+    }
+
+    private static final String TEST_NAME = TracingTest.class.getName() + ".test_shouldTraceAllPhases";
+
+    private static CompileTestBuilder.CompilationTestBuilder createCompilationTest() {
+        return CompileTestBuilder.compilationTest()
+                .addProcessors(ResourceGeneratingProcessor.class)
+                .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.A", "package io.toolisticon.cute;\n@io.toolisticon.cute.common.SimpleTestAnnotation1\npublic class A {}"));
+    }
+
+    @Before
+    public void startRecording() {
+        synchronized (RecordingTracingSpi.SPANS) {
+            RecordingTracingSpi.SPANS.clear();
+        }
+        RecordingTracingSpi.recording = true;
+    }
+
+    @After
+    public void stopRecording() {
+        RecordingTracingSpi.recording = false;
+    }
+
+    @Test
+    public void test_shouldTraceAllPhases() {
+
+        createCompilationTest()
+                .compilationShouldSucceed()
+                .executeTest();
+
+        String processorName = ResourceGeneratingProcessor.class.getName();
+
+        MatcherAssert.assertThat(RecordingTracingSpi.getSpans(), Matchers.hasItems(
+                "CONFIGURATION|" + TEST_NAME + "|null|0",
+                "PROCESSOR_INIT|" + TEST_NAME + "|" + processorName + "|0",
+                "PROCESSOR_ROUND|" + TEST_NAME + "|" + processorName + "|10",
+                "VERIFICATION|" + TEST_NAME + "|null|0"));
+        MatcherAssert.assertThat(RecordingTracingSpi.getSpans(), Matchers.hasItem(Matchers.startsWith("COMPILATION|" + TEST_NAME + "|null|")));
+        MatcherAssert.assertThat(RecordingTracingSpi.getSpans(), Matchers.not(Matchers.hasItem(Matchers.startsWith("DEBUG_OUTPUT"))));
+
+    }
+
+    @Test
+    public void test_failingTest_shouldTraceDebugOutput() {
+
+        try {
+            createCompilationTest()
+                    .compilationShouldFail()
+                    .executeTest();
+        } catch (AssertionError e) {
+            // expected
+        }
+
+        MatcherAssert.assertThat(RecordingTracingSpi.getSpans(), Matchers.hasItem(Matchers.startsWith("DEBUG_OUTPUT|" + TracingTest.class.getName() + ".test_failingTest_shouldTraceDebugOutput|null|")));
+
+    }
+
+}
@@ -0,0 +1,169 @@
+package io.toolisticon.cute.integrationtest;
+
+import io.toolisticon.cute.CompileTestBuilder;
+import io.toolisticon.cute.Constants;
+import io.toolisticon.cute.JavaFileObjectUtils;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import io.toolisticon.cute.common.SimpleTestProcessor2;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.util.Set;
+
+/**
+ * Integration test for compilation tests executed in forked worker JVMs.
+ */
+public class ForkedExecutionTest {
+
+    /**
+     * Processor relying on static state.
+     */
+    @SupportedAnnotationTypes("*")
+    public static class StaticStateProcessor extends AbstractProcessor {
+
+        private static int initCount;
+
+        @Override
+        public synchronized void init(ProcessingEnvironment processingEnv) {
+            super.init(processingEnv);
+            initCount++;
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (roundEnv.processingOver()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "INIT COUNT " + initCount + ";");
+            }
+            return false;
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+    }
+
+    /**
+     * Processor that never finishes.
+     */
+    @SupportedAnnotationTypes("*")
+    public static class HangingProcessor extends AbstractProcessor {
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            try {
+                Thread.sleep(600000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+    }
+
+    @Test
+    public void testForkedCompilation_generatedFilesExist() {
+
+        CompileTestBuilder.compilationTest()
+                .addProcessors(CompiledClassesAndGeneratedFilesTest.FileGeneratorProcessor.class)
+                .addSources("/integrationtest/CompiledClassesAndGeneratedFilesExistTestcase.java")
+                .executeInForkedJvm()
+                .compilationShouldSucceed()
+                .expectThatJavaFileObjectExists(StandardLocation.CLASS_OUTPUT, "io.toolisticon.cute.integrationtest.CompiledClassesAndGeneratedFilesExistTestcase", JavaFileObject.Kind.CLASS)
+                .expectThatFileObjectExists(StandardLocation.SOURCE_OUTPUT, "/META-INF", "jupp.txt", JavaFileObjectUtils.readFromString("XXX"))
+                .executeTest();
+
+    }
+
+    @Test
+    public void testForkedCompilation_processorWasNotApplied() {
+
+        boolean assertionErrorWasTriggered = false;
+        try {
+
+            CompileTestBuilder.compilationTest()
+                    .addProcessors(SimpleTestProcessor2.class)
+                    .addSources(JavaFileObjectUtils.readFromResource("/integrationtest/AnnotationProcessorAppliedTestClass.java"))
+                    .executeInForkedJvm()
+                    .executeTest();
+
+        } catch (AssertionError e) {
+            assertionErrorWasTriggered = true;
+
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Annotation processor " + SimpleTestProcessor2.class.getCanonicalName() + " hasn't been called"));
+
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been triggered", assertionErrorWasTriggered);
+
+    }
+
+    @Test
+    public void testForkedCompilation_staticStateOfProcessorsShouldNotLeakIntoSubsequentCompilations() {
+
+        for (int i = 0; i < 2; i++) {
+
+            CompileTestBuilder.compilationTest()
+                    .addProcessors(StaticStateProcessor.class)
+                    .addSources(JavaFileObjectUtils.readFromResource("/integrationtest/AnnotationProcessorAppliedTestClass.java"))
+                    .executeInForkedJvm()
+                    .compilationShouldSucceed()
+                    .expectWarningMessageThatContains("INIT COUNT 1;")
+                    .executeTest();
+
+        }
+
+    }
+
+    @Test
+    public void testForkedCompilation_hangingCompilationShouldTimeOut() {
+
+        System.setProperty(Constants.SYSTEM_PROPERTY_FORK_TIMEOUT, "1");
+        try {
+
+            CompileTestBuilder.compilationTest()
+                    .addProcessors(HangingProcessor.class)
+                    .addSources(JavaFileObjectUtils.readFromResource("/integrationtest/AnnotationProcessorAppliedTestClass.java"))
+                    .executeInForkedJvm()
+                    .executeTest();
+
+            throw new AssertionError("Expected IllegalStateException to be thrown.");
+
+        } catch (IllegalStateException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.is(Constants.Messages.ISE_FORKED_COMPILATION_TIMED_OUT.produceMessage(1)));
+        } finally {
+            System.clearProperty(Constants.SYSTEM_PROPERTY_FORK_TIMEOUT);
+        }
+
+    }
+
+    @Test
+    public void testForkedCompilation_errorMessagesShouldBeTransferred() {
+
+        CompileTestBuilder.compilationTest()
+                .addProcessors(SimpleTestProcessor1.class)
+                .addSources(JavaFileObjectUtils.readFromString("io.toolisticon.cute.integrationtest.Broken", "package io.toolisticon.cute.integrationtest;\n@io.toolisticon.cute.common.SimpleTestAnnotation1\npublic class Broken { int x = \"\"; }"))
+                .executeInForkedJvm()
+                .compilationShouldFail()
+                .expectErrorMessage().atLineNumber(3L).thatContains("incompatible types")
+                .executeTest();
+
+    }
+
+}
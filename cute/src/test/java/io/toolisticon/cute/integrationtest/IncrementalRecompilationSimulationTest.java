@@ -0,0 +1,154 @@
+package io.toolisticon.cute.integrationtest;
+
+import io.toolisticon.cute.CompileTestBuilder;
+import io.toolisticon.cute.IncrementalRecompilationResult;
+import io.toolisticon.cute.IncrementalRecompilationTest;
+import io.toolisticon.cute.InvalidTestConfigurationException;
+import io.toolisticon.cute.JavaFileObjectUtils;
+import io.toolisticon.cute.common.SimpleTestAnnotation1;
+import io.toolisticon.cute.common.SimpleTestProcessor1;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+/**
+ * Integration test for simulated incremental recompilations.
+ */
+public class IncrementalRecompilationSimulationTest {
+
+    /**
+     * Isolating processor that generates a class for each annotated type.
+     */
+    public static class IsolatingGeneratorProcessor extends SimpleTestProcessor1 {
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(SimpleTestAnnotation1.class)) {
+
+                String className = element.getSimpleName() + "Generated";
+
+                try {
+                    Writer writer = processingEnv.getFiler().createSourceFile("io.toolisticon.cute." + className, element).openWriter();
+                    writer.write("package io.toolisticon.cute;\npublic class " + className + " {}");
+                    writer.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+
+            }
+
+            return false;
+        }
+
+    }
+
+    private final static JavaFileObject SOURCE_A = JavaFileObjectUtils.readFromString("io.toolisticon.cute.A", "package io.toolisticon.cute;\n@io.toolisticon.cute.common.SimpleTestAnnotation1\npublic class A {}");
+    private final static JavaFileObject SOURCE_B = JavaFileObjectUtils.readFromString("io.toolisticon.cute.B", "package io.toolisticon.cute;\n@io.toolisticon.cute.common.SimpleTestAnnotation1\npublic class B {}");
+
+    private static CompileTestBuilder.CompilationTestBuilder createCompilationTest() {
+        return CompileTestBuilder.compilationTest()
+                .addProcessors(IsolatingGeneratorProcessor.class)
+                .addSources(SOURCE_A, SOURCE_B)
+                .compilationShouldSucceed();
+    }
+
+    @Test
+    public void test_changedSource_shouldRegenerateFilesOfChangedSourceOnly() {
+
+        // changed source refers to class kept from previous compilation
+        JavaFileObject changedSourceA = JavaFileObjectUtils.readFromString("io.toolisticon.cute.A", "package io.toolisticon.cute;\n@io.toolisticon.cute.common.SimpleTestAnnotation1\npublic class A { BGenerated b; }");
+
+        createCompilationTest()
+                .expectIncrementalRecompilation(new IncrementalRecompilationTest() {
+                    @Override
+                    public void doTests(IncrementalRecompilationResult incrementalRecompilationResult) {
+
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getCompilationSucceeded(), Matchers.is(true));
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getRegeneratedFiles(), Matchers.containsInAnyOrder(
+                                "CLASS_OUTPUT/io/toolisticon/cute/A.class",
+                                "SOURCE_OUTPUT/io/toolisticon/cute/AGenerated.java",
+                                "CLASS_OUTPUT/io/toolisticon/cute/AGenerated.class"));
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getKeptFiles(), Matchers.containsInAnyOrder(
+                                "CLASS_OUTPUT/io/toolisticon/cute/B.class",
+                                "SOURCE_OUTPUT/io/toolisticon/cute/BGenerated.java",
+                                "CLASS_OUTPUT/io/toolisticon/cute/BGenerated.class"));
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getDeletedFiles(), Matchers.<String>empty());
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getFullRebuildTime(), Matchers.greaterThan(0L));
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getIncrementalCompilationTime(), Matchers.greaterThan(0L));
+
+                    }
+                }, changedSourceA)
+                .executeTest();
+
+    }
+
+    @Test
+    public void test_removedSource_shouldDeleteFilesOfRemovedSource() {
+
+        createCompilationTest()
+                .expectIncrementalRecompilationAfterRemoval(new IncrementalRecompilationTest() {
+                    @Override
+                    public void doTests(IncrementalRecompilationResult incrementalRecompilationResult) {
+
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getRegeneratedFiles(), Matchers.<String>empty());
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getDeletedFiles(), Matchers.containsInAnyOrder(
+                                "CLASS_OUTPUT/io/toolisticon/cute/A.class",
+                                "SOURCE_OUTPUT/io/toolisticon/cute/AGenerated.java",
+                                "CLASS_OUTPUT/io/toolisticon/cute/AGenerated.class"));
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getKeptFiles(), Matchers.hasSize(3));
+                        MatcherAssert.assertThat(incrementalRecompilationResult.getIncrementalCompilationTime(), Matchers.is(0L));
+
+                    }
+                }, SOURCE_A)
+                .executeTest();
+
+    }
+
+    @Test
+    public void test_failingIncrementalRecompilationTest_shouldFail() {
+
+        boolean assertionErrorWasThrown = false;
+
+        try {
+            createCompilationTest()
+                    .expectIncrementalRecompilationAfterRemoval(new IncrementalRecompilationTest() {
+                        @Override
+                        public void doTests(IncrementalRecompilationResult incrementalRecompilationResult) {
+                            MatcherAssert.assertThat(incrementalRecompilationResult.getDeletedFiles(), Matchers.<String>empty());
+                        }
+                    }, SOURCE_A)
+                    .executeTest();
+        } catch (AssertionError e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Test of incremental recompilation failed"));
+            assertionErrorWasThrown = true;
+        }
+
+        MatcherAssert.assertThat("AssertionError should have been thrown", assertionErrorWasThrown);
+
+    }
+
+    @Test(expected = InvalidTestConfigurationException.class)
+    public void test_processorOnly_shouldThrowInvalidTestConfigurationException() {
+
+        createCompilationTest()
+                .processorOnly()
+                .expectIncrementalRecompilationAfterRemoval(new IncrementalRecompilationTest() {
+                    @Override
+                    public void doTests(IncrementalRecompilationResult incrementalRecompilationResult) {
+
+                    }
+                }, SOURCE_A)
+                .executeTest();
+
+    }
+
+}
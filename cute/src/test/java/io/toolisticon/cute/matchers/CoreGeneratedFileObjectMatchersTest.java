@@ -61,6 +61,13 @@ public class CoreGeneratedFileObjectMatchersTest {
 
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void createIgnoreLineEndingsMatcher_nonPositiveMaxDiffHunks() {
+
+        CoreGeneratedFileObjectMatchers.createIgnoreLineEndingsMatcher(Mockito.mock(FileObject.class), 0);
+
+    }
+
     @Test
     public void createBinaryMatcher() {
 
@@ -3,9 +3,13 @@ package io.toolisticon.cute.matchers;
 import io.toolisticon.cute.FailingAssertionException;
 import io.toolisticon.cute.JavaFileObjectUtils;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import javax.tools.FileObject;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 public class IgnoreLineEndingsGeneratedFileObjectMatcherTest {
@@ -34,4 +38,34 @@ public class IgnoreLineEndingsGeneratedFileObjectMatcherTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void check_matchingFilesShouldDecodeStreamsAsUtf8() throws IOException {
+
+        FileObject fo1 = JavaFileObjectUtils.readFromString("\u00e4\u20ac\nDEF");
+        FileObject fo2 = Mockito.mock(FileObject.class);
+        Mockito.when(fo2.getCharContent(Mockito.anyBoolean())).thenThrow(new UnsupportedOperationException());
+        Mockito.when(fo2.openInputStream()).thenReturn(new ByteArrayInputStream("\u00e4\u20ac\r\nDEF".getBytes("UTF-8")));
+
+        IgnoreLineEndingsGeneratedFileObjectMatcher unit = new IgnoreLineEndingsGeneratedFileObjectMatcher(fo1);
+        MatcherAssert.assertThat("Must match", unit.check(fo2));
+
+    }
+
+    @Test
+    public void check_nonMatchingFilesShouldContainDiff() throws IOException {
+
+        FileObject fo1 = JavaFileObjectUtils.readFromString("ABC\nDEF\r\nHIJ");
+        FileObject fo2 = JavaFileObjectUtils.readFromString("ABC\r\nXYZ\nHIJ");
+
+        IgnoreLineEndingsGeneratedFileObjectMatcher unit = new IgnoreLineEndingsGeneratedFileObjectMatcher(fo1);
+
+        try {
+            unit.check(fo2);
+            Assert.fail("Should have thrown a FailingAssertionException");
+        } catch (FailingAssertionException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("@@ -1,3 +1,3 @@\n ABC\n-DEF\n+XYZ\n HIJ\n"));
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package io.toolisticon.cute.matchers;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit test for {@link UnifiedDiff}.
+ */
+public class UnifiedDiffTest {
+
+    @Test
+    public void createDiff_equalTexts() {
+
+        MatcherAssert.assertThat(UnifiedDiff.createDiff(Arrays.asList("A", "B"), Arrays.asList("A", "B"), 5), Matchers.is(""));
+
+    }
+
+    @Test
+    public void createDiff_changedLine() {
+
+        String diff = UnifiedDiff.createDiff(Arrays.asList("A", "B", "C"), Arrays.asList("A", "X", "C"), 5);
+
+        MatcherAssert.assertThat(diff, Matchers.is("--- expected\n+++ actual\n@@ -1,3 +1,3 @@\n A\n-B\n+X\n C\n"));
+
+    }
+
+    @Test
+    public void createDiff_insertedAndDeletedLines() {
+
+        String diff = UnifiedDiff.createDiff(Arrays.asList("A", "B", "C"), Arrays.asList("B", "C", "D"), 5);
+
+        MatcherAssert.assertThat(diff, Matchers.is("--- expected\n+++ actual\n@@ -1,3 +1,3 @@\n-A\n B\n C\n+D\n"));
+
+    }
+
+    @Test
+    public void createDiff_shouldOnlyShowContextLines() {
+
+        List<String> expected = createLines(20);
+        List<String> actual = createLines(20);
+        actual.set(10, "CHANGED");
+
+        String diff = UnifiedDiff.createDiff(expected, actual, 5);
+
+        MatcherAssert.assertThat(diff, Matchers.is("--- expected\n+++ actual\n@@ -8,7 +8,7 @@\n 7\n 8\n 9\n-10\n+CHANGED\n 11\n 12\n 13\n"));
+
+    }
+
+    @Test
+    public void createDiff_shouldLimitNumberOfHunks() {
+
+        List<String> expected = createLines(100);
+        List<String> actual = createLines(100);
+        actual.set(10, "CHANGED");
+        actual.set(50, "CHANGED");
+        actual.set(90, "CHANGED");
+
+        String diff = UnifiedDiff.createDiff(expected, actual, 2);
+
+        MatcherAssert.assertThat(diff, Matchers.containsString("@@ -8,7 +8,7 @@"));
+        MatcherAssert.assertThat(diff, Matchers.containsString("@@ -48,7 +48,7 @@"));
+        MatcherAssert.assertThat(diff, Matchers.not(Matchers.containsString("@@ -88,7 +88,7 @@")));
+        MatcherAssert.assertThat(diff, Matchers.containsString("further differences omitted"));
+
+    }
+
+    @Test
+    public void createDiff_shouldGiveUpForTooManyDifferences() {
+
+        List<String> expected = createLines(UnifiedDiff.MAX_EDIT_DISTANCE);
+        List<String> actual = new ArrayList<>();
+        for (String line : expected) {
+            actual.add(line + "X");
+        }
+
+        MatcherAssert.assertThat(UnifiedDiff.createDiff(expected, actual, 5), Matchers.containsString("Too many differences"));
+
+    }
+
+    private static List<String> createLines(int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(String.valueOf(i));
+        }
+        return lines;
+    }
+
+}
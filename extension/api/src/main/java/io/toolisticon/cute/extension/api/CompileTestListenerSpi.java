@@ -0,0 +1,52 @@
+package io.toolisticon.cute.extension.api;
+
+import io.toolisticon.spiap.api.Spi;
+
+import javax.tools.Diagnostic;
+import java.util.Map;
+
+/**
+ * Spi to get notified about the execution of compile tests, for example to report their costs.
+ * <p>
+ * All registered listeners are notified. The callbacks of a single test are done by the thread executing the test.
+ * Durations are passed in nanoseconds.
+ */
+@Spi
+public interface CompileTestListenerSpi {
+
+    /**
+     * Called when a compile test is started.
+     *
+     * @param testName the name of the test or null if unknown
+     */
+    void testStarted(String testName);
+
+    /**
+     * Called when the compilation of a compile test has finished.
+     *
+     * @param testName         the name of the test or null if unknown
+     * @param succeeded        whether the compilation succeeded
+     * @param diagnosticCounts the number of compiler messages by kind
+     * @param generatedBytes   the size of all generated files
+     * @param compilationTime  the duration of the compilation
+     */
+    void compilationFinished(String testName, boolean succeeded, Map<Diagnostic.Kind, Long> diagnosticCounts, long generatedBytes, long compilationTime);
+
+    /**
+     * Called when a compile test has failed, before {@link #verificationFinished(String, long)} is called.
+     *
+     * @param testName the name of the test or null if unknown
+     * @param message  the failure message
+     */
+    void testFailed(String testName, String message);
+
+    /**
+     * Called when the verification of a compile test has finished.
+     * This is the last callback of a test and is called for failed tests too.
+     *
+     * @param testName         the name of the test or null if unknown
+     * @param verificationTime the duration of the verification or 0 if test failed before verification
+     */
+    void verificationFinished(String testName, long verificationTime);
+
+}
@@ -0,0 +1,72 @@
+package io.toolisticon.cute.extension.api;
+
+import io.toolisticon.spiap.api.Spi;
+
+/**
+ * Spi to trace the phases of compile tests, for example as events of a profiler.
+ */
+@Spi
+public interface TracingSpi {
+
+    /**
+     * The traced phases of a compile test.
+     */
+    enum Phase {
+        /**
+         * Validation of the test configuration and instantiation of the processors.
+         */
+        CONFIGURATION,
+        /**
+         * Call of the compiler, including annotation processing.
+         */
+        COMPILATION,
+        /**
+         * Initialization of a processor.
+         */
+        PROCESSOR_INIT,
+        /**
+         * Processing of a single round by a processor.
+         */
+        PROCESSOR_ROUND,
+        /**
+         * Verification of the expectations.
+         */
+        VERIFICATION,
+        /**
+         * Creation of the debug output of a failing test.
+         */
+        DEBUG_OUTPUT
+    }
+
+    /**
+     * A started phase.
+     */
+    interface Span {
+
+        /**
+         * Checks if the span will be recorded, so that expensive values passed to {@link #end(long)} can be skipped otherwise.
+         *
+         * @return true if span will be recorded, otherwise false
+         */
+        boolean isEnabled();
+
+        /**
+         * Ends the phase.
+         *
+         * @param bytes the number of bytes produced by the phase, like the size of the generated files, or 0
+         */
+        void end(long bytes);
+
+    }
+
+    /**
+     * Starts a phase.
+     *
+     * @param phase         the phase
+     * @param testName      the name of the test or null if unknown
+     * @param processorName the class name of the processor or null if phase isn't processor specific
+     * @return the started phase, which must be ended
+     */
+    Span begin(Phase phase, String testName, String processorName);
+
+}
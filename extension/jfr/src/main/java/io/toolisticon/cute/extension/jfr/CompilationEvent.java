@@ -0,0 +1,12 @@
+package io.toolisticon.cute.extension.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.toolisticon.cute.Compilation")
+@Label("Compilation")
+@Description("Call of the compiler including annotation processing, bytes are the size of all generated files")
+class CompilationEvent extends CompileTestEvent {
+
+}
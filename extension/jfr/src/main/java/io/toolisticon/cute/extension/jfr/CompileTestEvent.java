@@ -0,0 +1,26 @@
+package io.toolisticon.cute.extension.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of all events of compile test phases.
+ */
+@Category({"cute", "Compile Test"})
+@StackTrace(false)
+abstract class CompileTestEvent extends Event {
+
+    @Label("Test")
+    String testName;
+
+    @Label("Processor")
+    String processorName;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+}
@@ -0,0 +1,12 @@
+package io.toolisticon.cute.extension.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.toolisticon.cute.Configuration")
+@Label("Compile Test Configuration")
+@Description("Validation of the test configuration and instantiation of the processors")
+class ConfigurationEvent extends CompileTestEvent {
+
+}
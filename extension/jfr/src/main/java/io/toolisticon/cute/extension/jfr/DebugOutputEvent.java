@@ -0,0 +1,12 @@
+package io.toolisticon.cute.extension.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.toolisticon.cute.DebugOutput")
+@Label("Debug Output")
+@Description("Creation of the debug output of a failing compile test, bytes are the length of the output")
+class DebugOutputEvent extends CompileTestEvent {
+
+}
@@ -0,0 +1,57 @@
+package io.toolisticon.cute.extension.jfr;
+
+import io.toolisticon.cute.extension.api.TracingSpi;
+import io.toolisticon.spiap.api.Service;
+
+/**
+ * Records the phases of compile tests as JDK Flight Recorder events.
+ * <p>
+ * Events are recorded only while a recording is running, for example when the tests are started with -XX:StartFlightRecording.
+ */
+@Service(value = TracingSpi.class, description = "Records compile test phases as JDK Flight Recorder events")
+public class JfrTracingService implements TracingSpi {
+
+    @Override
+    public Span begin(Phase phase, String testName, String processorName) {
+
+        final CompileTestEvent event = createEvent(phase);
+        event.testName = testName;
+        event.processorName = processorName;
+        event.begin();
+
+        return new Span() {
+            @Override
+            public boolean isEnabled() {
+                return event.isEnabled();
+            }
+
+            @Override
+            public void end(long bytes) {
+                event.bytes = bytes;
+                event.commit();
+            }
+        };
+
+    }
+
+    static CompileTestEvent createEvent(Phase phase) {
+
+        switch (phase) {
+            case CONFIGURATION:
+                return new ConfigurationEvent();
+            case COMPILATION:
+                return new CompilationEvent();
+            case PROCESSOR_INIT:
+                return new ProcessorInitEvent();
+            case PROCESSOR_ROUND:
+                return new ProcessorRoundEvent();
+            case VERIFICATION:
+                return new VerificationEvent();
+            case DEBUG_OUTPUT:
+            default:
+                return new DebugOutputEvent();
+        }
+
+    }
+
+}
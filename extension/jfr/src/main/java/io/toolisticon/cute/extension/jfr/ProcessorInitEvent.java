@@ -0,0 +1,12 @@
+package io.toolisticon.cute.extension.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.toolisticon.cute.ProcessorInit")
+@Label("Processor Init")
+@Description("Initialization of a processor")
+class ProcessorInitEvent extends CompileTestEvent {
+
+}
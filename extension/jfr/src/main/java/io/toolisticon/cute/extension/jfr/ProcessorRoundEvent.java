@@ -0,0 +1,12 @@
+package io.toolisticon.cute.extension.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.toolisticon.cute.ProcessorRound")
+@Label("Processor Round")
+@Description("Processing of a single round by a processor, bytes are the size of the files generated by the processor")
+class ProcessorRoundEvent extends CompileTestEvent {
+
+}
@@ -0,0 +1,12 @@
+package io.toolisticon.cute.extension.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.toolisticon.cute.Verification")
+@Label("Verification")
+@Description("Verification of the expectations of a compile test")
+class VerificationEvent extends CompileTestEvent {
+
+}
@@ -0,0 +1,70 @@
+package io.toolisticon.cute.extension.jfr;
+
+import io.toolisticon.cute.extension.api.TracingSpi;
+import io.toolisticon.cute.extension.api.TracingSpiServiceLocator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JfrTracingServiceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testServiceLocator() {
+
+        MatcherAssert.assertThat(TracingSpiServiceLocator.locate().getClass(), Matchers.is((Class) JfrTracingService.class));
+
+    }
+
+    @Test
+    public void testRecordingOfEvents() throws Exception {
+
+        TracingSpi service = new JfrTracingService();
+        File recordingFile = new File(temporaryFolder.getRoot(), "recording.jfr");
+
+        try (Recording recording = new Recording()) {
+
+            recording.enable("io.toolisticon.cute.ProcessorRound");
+            recording.disable("io.toolisticon.cute.Compilation");
+            recording.start();
+
+            TracingSpi.Span span = service.begin(TracingSpi.Phase.PROCESSOR_ROUND, "TEST", "PROCESSOR");
+            MatcherAssert.assertThat(span.isEnabled(), Matchers.is(true));
+            span.end(42L);
+
+            // disabled
+            service.begin(TracingSpi.Phase.COMPILATION, "TEST", null).end(0L);
+
+            recording.stop();
+            recording.dump(recordingFile.toPath());
+
+        }
+
+        // recordings contain some events about the recording itself
+        List<RecordedEvent> events = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile.toPath())) {
+            if (event.getEventType().getName().startsWith("io.toolisticon.cute.")) {
+                events.add(event);
+            }
+        }
+
+        MatcherAssert.assertThat(events, Matchers.hasSize(1));
+        MatcherAssert.assertThat(events.get(0).getEventType().getName(), Matchers.is("io.toolisticon.cute.ProcessorRound"));
+        MatcherAssert.assertThat(events.get(0).getString("testName"), Matchers.is("TEST"));
+        MatcherAssert.assertThat(events.get(0).getString("processorName"), Matchers.is("PROCESSOR"));
+        MatcherAssert.assertThat(events.get(0).getLong("bytes"), Matchers.is(42L));
+
+    }
+
+}
@@ -0,0 +1,171 @@
+package io.toolisticon.cute.extension.reporter;
+
+import io.toolisticon.cute.extension.api.CompileTestListenerSpi;
+
+import javax.tools.Diagnostic;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class of reporters that append a line per compile test to a report file.
+ * <p>
+ * Reports are written to the folder "cute-reports" in the build folder, which can be configured via system property {@value #SYSTEM_PROPERTY_REPORT_DIRECTORY}.
+ * A report file is truncated before it's written for the first time by a JVM, so it only contains the tests of the current test run.
+ * Test JVMs that run in parallel, e.g. parallel surefire forks, must therefore use different report directories.
+ */
+abstract class AbstractLineReporter implements CompileTestListenerSpi {
+
+    /**
+     * System property to configure the directory the reports are written to.
+     */
+    final static String SYSTEM_PROPERTY_REPORT_DIRECTORY = "cute.reportDirectory";
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Lock for writing reports, since multiple reporters may write to the same file.
+     */
+    private final static Object WRITE_LOCK = new Object();
+
+    /**
+     * The report files that have already been truncated by this JVM - guarded by {@link #WRITE_LOCK}.
+     */
+    private final static Set<File> TRUNCATED_REPORT_FILES = new HashSet<>();
+
+    private final File reportFile;
+
+    private final ThreadLocal<TestReport> currentTestReport = new ThreadLocal<>();
+
+    /**
+     * Constructor.
+     *
+     * @param reportFile the file to append the reports to
+     */
+    AbstractLineReporter(File reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Determines the file to write the reports to.
+     *
+     * @param fileName the name of the report file
+     * @return the report file
+     */
+    static File getDefaultReportFile(String fileName) {
+
+        String reportDirectory = System.getProperty(SYSTEM_PROPERTY_REPORT_DIRECTORY);
+        if (reportDirectory != null) {
+            return new File(reportDirectory, fileName);
+        }
+
+        // maven or gradle build folder
+        String buildFolder = !new File("target").isDirectory() && new File("build").isDirectory() ? "build" : "target";
+        return new File(new File(buildFolder, "cute-reports"), fileName);
+
+    }
+
+    /**
+     * Formats a duration in milliseconds.
+     *
+     * @param nanos the duration in nanoseconds
+     * @return the formatted duration
+     */
+    static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000000.0);
+    }
+
+    /**
+     * Gets the header to be written to new report files.
+     *
+     * @return the header or null if report files have no header
+     */
+    abstract String getHeader();
+
+    /**
+     * Formats the report of a single test.
+     *
+     * @param testReport the report of a test
+     * @return the formatted line without line separator
+     */
+    abstract String formatLine(TestReport testReport);
+
+    @Override
+    public void testStarted(String testName) {
+        currentTestReport.set(new TestReport(testName));
+    }
+
+    @Override
+    public void compilationFinished(String testName, boolean succeeded, Map<Diagnostic.Kind, Long> diagnosticCounts, long generatedBytes, long compilationTime) {
+        TestReport testReport = currentTestReport.get();
+        if (testReport != null) {
+            testReport.compilationFinished(succeeded, diagnosticCounts, generatedBytes, compilationTime);
+        }
+    }
+
+    @Override
+    public void testFailed(String testName, String message) {
+        TestReport testReport = currentTestReport.get();
+        if (testReport != null) {
+            testReport.testFailed(message);
+        }
+    }
+
+    @Override
+    public void verificationFinished(String testName, long verificationTime) {
+
+        TestReport testReport = currentTestReport.get();
+        currentTestReport.remove();
+
+        if (testReport != null) {
+            testReport.verificationFinished(verificationTime);
+            write(formatLine(testReport));
+        }
+
+    }
+
+    private void write(String line) {
+
+        synchronized (WRITE_LOCK) {
+
+            try {
+
+                // reports of previous test runs are dropped with the first line written by this JVM
+                boolean truncate = TRUNCATED_REPORT_FILES.add(reportFile.getAbsoluteFile());
+                boolean isNewFile = truncate || !reportFile.exists() || reportFile.length() == 0L;
+                if (isNewFile && reportFile.getParentFile() != null) {
+                    reportFile.getParentFile().mkdirs();
+                }
+
+                Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile, !truncate), UTF_8);
+                try {
+
+                    if (isNewFile && getHeader() != null) {
+                        writer.write(getHeader());
+                        writer.write("\n");
+                    }
+
+                    writer.write(line);
+                    writer.write("\n");
+
+                } finally {
+                    writer.close();
+                }
+
+            } catch (IOException e) {
+                // reporting must not let tests fail
+                System.err.println("Couldn't write compile test report to " + reportFile.getAbsolutePath() + " : " + e.getMessage());
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package io.toolisticon.cute.extension.reporter;
+
+import io.toolisticon.cute.extension.api.CompileTestListenerSpi;
+import io.toolisticon.spiap.api.Service;
+
+import javax.tools.Diagnostic;
+import java.io.File;
+
+/**
+ * Appends a CSV line per compile test to the file "compile-tests.csv".
+ * Durations are written in milliseconds.
+ */
+@Service(value = CompileTestListenerSpi.class, description = "Writes a CSV line per compile test to the build folder")
+public class CsvReporter extends AbstractLineReporter {
+
+    final static String FILE_NAME = "compile-tests.csv";
+
+    final static String HEADER = "test,compilationSucceeded,errors,mandatoryWarnings,warnings,notes,generatedBytes,compilationTimeMs,verificationTimeMs,failed";
+
+    public CsvReporter() {
+        this(getDefaultReportFile(FILE_NAME));
+    }
+
+    CsvReporter(File reportFile) {
+        super(reportFile);
+    }
+
+    @Override
+    String getHeader() {
+        return HEADER;
+    }
+
+    @Override
+    String formatLine(TestReport testReport) {
+        return quote(testReport.getTestName())
+                + "," + testReport.getCompilationSucceeded()
+                + "," + testReport.getDiagnosticCount(Diagnostic.Kind.ERROR)
+                + "," + testReport.getDiagnosticCount(Diagnostic.Kind.MANDATORY_WARNING)
+                + "," + testReport.getDiagnosticCount(Diagnostic.Kind.WARNING)
+                + "," + testReport.getDiagnosticCount(Diagnostic.Kind.NOTE)
+                + "," + testReport.getGeneratedBytes()
+                + "," + formatMillis(testReport.getCompilationTime())
+                + "," + formatMillis(testReport.getVerificationTime())
+                + "," + testReport.getFailed();
+    }
+
+    static String quote(String value) {
+        return value != null ? "\"" + value.replace("\"", "\"\"") + "\"" : "";
+    }
+
+}
@@ -0,0 +1,99 @@
+package io.toolisticon.cute.extension.reporter;
+
+import io.toolisticon.cute.extension.api.CompileTestListenerSpi;
+import io.toolisticon.spiap.api.Service;
+
+import javax.tools.Diagnostic;
+import java.io.File;
+
+/**
+ * Appends a JSON object per compile test as a single line to the file "compile-tests.jsonl".
+ * Durations are written in milliseconds, failure messages are reduced to their first line.
+ */
+@Service(value = CompileTestListenerSpi.class, description = "Writes a JSON line per compile test to the build folder")
+public class JsonLinesReporter extends AbstractLineReporter {
+
+    final static String FILE_NAME = "compile-tests.jsonl";
+
+    public JsonLinesReporter() {
+        this(getDefaultReportFile(FILE_NAME));
+    }
+
+    JsonLinesReporter(File reportFile) {
+        super(reportFile);
+    }
+
+    @Override
+    String getHeader() {
+        return null;
+    }
+
+    @Override
+    String formatLine(TestReport testReport) {
+
+        StringBuilder stringBuilder = new StringBuilder("{");
+        stringBuilder.append("\"test\":").append(quote(testReport.getTestName()));
+        stringBuilder.append(",\"compilationSucceeded\":").append(testReport.getCompilationSucceeded());
+
+        stringBuilder.append(",\"diagnostics\":{");
+        for (Diagnostic.Kind kind : Diagnostic.Kind.values()) {
+            stringBuilder.append(kind.ordinal() > 0 ? "," : "").append(quote(kind.name())).append(":").append(testReport.getDiagnosticCount(kind));
+        }
+        stringBuilder.append("}");
+
+        stringBuilder.append(",\"generatedBytes\":").append(testReport.getGeneratedBytes());
+        stringBuilder.append(",\"compilationTimeMs\":").append(formatMillis(testReport.getCompilationTime()));
+        stringBuilder.append(",\"verificationTimeMs\":").append(formatMillis(testReport.getVerificationTime()));
+        stringBuilder.append(",\"failed\":").append(testReport.getFailed());
+
+        if (testReport.getFailed()) {
+            String failureMessage = testReport.getFailureMessage();
+            int lineEnd = failureMessage.indexOf('\n');
+            stringBuilder.append(",\"failure\":").append(quote(lineEnd >= 0 ? failureMessage.substring(0, lineEnd) : failureMessage));
+        }
+
+        return stringBuilder.append("}").toString();
+
+    }
+
+    static String quote(String value) {
+
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder stringBuilder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    stringBuilder.append("\\\"");
+                    break;
+                case '\\':
+                    stringBuilder.append("\\\\");
+                    break;
+                case '\n':
+                    stringBuilder.append("\\n");
+                    break;
+                case '\r':
+                    stringBuilder.append("\\r");
+                    break;
+                case '\t':
+                    stringBuilder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        stringBuilder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        stringBuilder.append(c);
+                    }
+            }
+
+        }
+
+        return stringBuilder.append("\"").toString();
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.toolisticon.cute.extension.reporter;
+
+import javax.tools.Diagnostic;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The collected values of a single compile test.
+ */
+final class TestReport {
+
+    private final String testName;
+    private boolean compilationSucceeded;
+    private final Map<Diagnostic.Kind, Long> diagnosticCounts = new EnumMap<>(Diagnostic.Kind.class);
+    private long generatedBytes;
+    private long compilationTime;
+    private long verificationTime;
+    private String failureMessage;
+
+    TestReport(String testName) {
+        this.testName = testName;
+    }
+
+    String getTestName() {
+        return testName;
+    }
+
+    boolean getCompilationSucceeded() {
+        return compilationSucceeded;
+    }
+
+    long getDiagnosticCount(Diagnostic.Kind kind) {
+        Long count = diagnosticCounts.get(kind);
+        return count != null ? count : 0L;
+    }
+
+    long getGeneratedBytes() {
+        return generatedBytes;
+    }
+
+    long getCompilationTime() {
+        return compilationTime;
+    }
+
+    long getVerificationTime() {
+        return verificationTime;
+    }
+
+    boolean getFailed() {
+        return failureMessage != null;
+    }
+
+    String getFailureMessage() {
+        return failureMessage;
+    }
+
+    void compilationFinished(boolean succeeded, Map<Diagnostic.Kind, Long> diagnosticCounts, long generatedBytes, long compilationTime) {
+        this.compilationSucceeded = succeeded;
+        this.diagnosticCounts.putAll(diagnosticCounts);
+        this.generatedBytes = generatedBytes;
+        this.compilationTime = compilationTime;
+    }
+
+    void testFailed(String message) {
+        this.failureMessage = message != null ? message : "";
+    }
+
+    void verificationFinished(long verificationTime) {
+        this.verificationTime = verificationTime;
+    }
+
+}
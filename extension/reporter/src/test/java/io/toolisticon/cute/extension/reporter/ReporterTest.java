@@ -0,0 +1,137 @@
+package io.toolisticon.cute.extension.reporter;
+
+import io.toolisticon.cute.extension.api.CompileTestListenerSpi;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReporterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCsvReporter() throws IOException {
+
+        File reportFile = new File(temporaryFolder.getRoot(), "reports/" + CsvReporter.FILE_NAME);
+
+        reportTests(new CsvReporter(reportFile));
+        reportTests(new CsvReporter(reportFile));
+
+        List<String> lines = readLines(reportFile);
+        MatcherAssert.assertThat(lines, Matchers.contains(
+                CsvReporter.HEADER,
+                "\"Test.\"\"succeeding\"\"\",true,0,0,2,0,1024,1.500,0.250,false",
+                "\"Test.failing\",false,1,0,0,0,0,2.000,0.000,true",
+                "\"Test.\"\"succeeding\"\"\",true,0,0,2,0,1024,1.500,0.250,false",
+                "\"Test.failing\",false,1,0,0,0,0,2.000,0.000,true"));
+
+    }
+
+    @Test
+    public void testJsonLinesReporter() throws IOException {
+
+        File reportFile = new File(temporaryFolder.getRoot(), JsonLinesReporter.FILE_NAME);
+
+        reportTests(new JsonLinesReporter(reportFile));
+
+        List<String> lines = readLines(reportFile);
+        MatcherAssert.assertThat(lines, Matchers.contains(
+                "{\"test\":\"Test.\\\"succeeding\\\"\",\"compilationSucceeded\":true,\"diagnostics\":{\"ERROR\":0,\"WARNING\":2,\"MANDATORY_WARNING\":0,\"NOTE\":0,\"OTHER\":0},\"generatedBytes\":1024,\"compilationTimeMs\":1.500,\"verificationTimeMs\":0.250,\"failed\":false}",
+                "{\"test\":\"Test.failing\",\"compilationSucceeded\":false,\"diagnostics\":{\"ERROR\":1,\"WARNING\":0,\"MANDATORY_WARNING\":0,\"NOTE\":0,\"OTHER\":0},\"generatedBytes\":0,\"compilationTimeMs\":2.000,\"verificationTimeMs\":0.000,\"failed\":true,\"failure\":\"Compilation should have succeeded\\tbut has failed\"}"));
+
+    }
+
+    @Test
+    public void testReportsOfPreviousTestRunsShouldBeDropped() throws IOException {
+
+        File reportFile = new File(temporaryFolder.getRoot(), CsvReporter.FILE_NAME);
+
+        Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), Charset.forName("UTF-8"));
+        try {
+            writer.write(CsvReporter.HEADER + "\n\"Test.previousRun\",true,0,0,0,0,0,1.000,0.000,false\n");
+        } finally {
+            writer.close();
+        }
+
+        reportTests(new CsvReporter(reportFile));
+
+        List<String> lines = readLines(reportFile);
+        MatcherAssert.assertThat(lines, Matchers.contains(
+                CsvReporter.HEADER,
+                "\"Test.\"\"succeeding\"\"\",true,0,0,2,0,1024,1.500,0.250,false",
+                "\"Test.failing\",false,1,0,0,0,0,2.000,0.000,true"));
+
+    }
+
+    @Test
+    public void testReportIsWrittenForTestsWithoutCompilation() throws IOException {
+
+        File reportFile = new File(temporaryFolder.getRoot(), CsvReporter.FILE_NAME);
+
+        CompileTestListenerSpi reporter = new CsvReporter(reportFile);
+        reporter.testStarted("Test.invalidConfiguration");
+        reporter.testFailed("Test.invalidConfiguration", null);
+        reporter.verificationFinished("Test.invalidConfiguration", 0L);
+
+        MatcherAssert.assertThat(readLines(reportFile), Matchers.contains(
+                CsvReporter.HEADER,
+                "\"Test.invalidConfiguration\",false,0,0,0,0,0,0.000,0.000,true"));
+
+    }
+
+    private static void reportTests(CompileTestListenerSpi reporter) {
+
+        Map<Diagnostic.Kind, Long> diagnosticCounts = new EnumMap<>(Diagnostic.Kind.class);
+        diagnosticCounts.put(Diagnostic.Kind.WARNING, 2L);
+
+        reporter.testStarted("Test.\"succeeding\"");
+        reporter.compilationFinished("Test.\"succeeding\"", true, diagnosticCounts, 1024L, 1500000L);
+        reporter.verificationFinished("Test.\"succeeding\"", 250000L);
+
+        diagnosticCounts.clear();
+        diagnosticCounts.put(Diagnostic.Kind.ERROR, 1L);
+
+        reporter.testStarted("Test.failing");
+        reporter.compilationFinished("Test.failing", false, diagnosticCounts, 0L, 2000000L);
+        reporter.testFailed("Test.failing", "Compilation should have succeeded\tbut has failed\nsecond line");
+        reporter.verificationFinished("Test.failing", 0L);
+
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+
+        List<String> lines = new ArrayList<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8")));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return lines;
+
+    }
+
+}